@@ -0,0 +1,120 @@
+package com.structurizr.analysis;
+
+import com.structurizr.analysis.agent.ComponentCalls;
+import com.structurizr.analysis.agent.ComponentCallsFile;
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ *     This component finder strategy doesn't find components, it instead merges the calls recorded
+ *     by the component calls agent (see {@link com.structurizr.analysis.agent.ComponentCallsAgent}) into
+ *     the relationships between components, as a "calls" property. It should be added after the
+ *     strategies that find components, so that the statically found relationships already exist.
+ * </p>
+ *
+ * <p>
+ *     Use {@link #writeComponentIndex(Container, File)} to create the index file that tells the agent
+ *     which types to instrument.
+ * </p>
+ */
+public class ComponentCallsComponentFinderStrategy implements ComponentFinderStrategy {
+
+    private static final Log log = LogFactory.getLog(ComponentCallsComponentFinderStrategy.class);
+
+    public static final String CALLS_PROPERTY = "calls";
+    public static final String RUNTIME_TAG = "Runtime";
+
+    private ComponentFinder componentFinder;
+    private File callsFile;
+    private boolean addMissingRelationships = true;
+
+    public ComponentCallsComponentFinderStrategy(File callsFile) {
+        if (callsFile == null) {
+            throw new IllegalArgumentException("A calls file must be specified.");
+        }
+
+        this.callsFile = callsFile;
+    }
+
+    /**
+     * Writes the index file used by the agent, containing the types (primary and supporting) of every component in the container.
+     *
+     * @param container     the Container whose components should be instrumented
+     * @param file          the File to write to
+     * @throws IOException  if the file can't be written
+     */
+    public static void writeComponentIndex(Container container, File file) throws IOException {
+        Map<String, String> typeToComponentName = new LinkedHashMap<>();
+        for (Component component : container.getComponents()) {
+            for (CodeElement codeElement : component.getCode()) {
+                typeToComponentName.put(codeElement.getType(), component.getName());
+            }
+        }
+
+        ComponentCallsFile.writeIndex(typeToComponentName, file);
+    }
+
+    /**
+     * Sets whether relationships should be created for calls that were observed at runtime, but not found via static analysis
+     * (e.g. calls made via reflection). These relationships are tagged "Runtime".
+     *
+     * @param addMissingRelationships   true to create missing relationships (the default), false otherwise
+     */
+    public void setAddMissingRelationships(boolean addMissingRelationships) {
+        this.addMissingRelationships = addMissingRelationships;
+    }
+
+    @Override
+    public void setComponentFinder(ComponentFinder componentFinder) {
+        this.componentFinder = componentFinder;
+    }
+
+    @Override
+    public void beforeFindComponents() {
+    }
+
+    @Override
+    public Set<Component> findComponents() {
+        return new HashSet<>(); // this component finder doesn't find components
+    }
+
+    @Override
+    public void afterFindComponents() throws Exception {
+        Container container = componentFinder.getContainer();
+        ComponentCalls componentCalls = ComponentCallsFile.read(callsFile);
+
+        for (ComponentCalls.Call call : componentCalls.getCalls()) {
+            Component source = container.getComponentWithName(call.getSource());
+            Component destination = container.getComponentWithName(call.getDestination());
+            if (source == null || destination == null) {
+                log.warn("Calls from \"" + call.getSource() + "\" to \"" + call.getDestination() + "\" could not be matched to components ... ignoring.");
+                continue;
+            }
+
+            Relationship relationship = source.getEfferentRelationshipWith(destination);
+            if (relationship == null && addMissingRelationships) {
+                relationship = source.uses(destination, "");
+                if (relationship != null) {
+                    relationship.addTags(RUNTIME_TAG);
+                }
+            }
+
+            if (relationship != null) {
+                relationship.addProperty(CALLS_PROPERTY, String.valueOf(call.getEstimatedCount(componentCalls.getSamplingInterval())));
+            }
+        }
+    }
+
+}
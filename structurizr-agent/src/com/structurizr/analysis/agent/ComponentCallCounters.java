@@ -0,0 +1,142 @@
+package com.structurizr.analysis.agent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts calls between components at runtime. Instrumented component types call {@link #enter(int)} at the start
+ * of every method and {@link #exit()} at the end, and a call is counted whenever the component on top of the
+ * current thread's call stack differs from the component being entered.
+ *
+ * Counters are striped across a number of arrays (one per group of threads) to reduce contention, and
+ * recording a call doesn't allocate any objects once a thread's call stack has been created. Optionally,
+ * only every Nth cross-component call per thread is recorded.
+ */
+public final class ComponentCallCounters {
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MAX_COUNTERS = 1 << 22;
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ThreadLocal<CallStack> callStacks = ThreadLocal.withInitial(CallStack::new);
+
+    private static volatile int numberOfComponents;
+    private static volatile int samplingInterval = 1;
+    private static volatile AtomicLongArray[] stripes = new AtomicLongArray[] { new AtomicLongArray(0) };
+
+    private ComponentCallCounters() {
+    }
+
+    /**
+     * Initialises (or resets) the counters.
+     *
+     * @param numberOfComponents    the number of components being tracked
+     * @param samplingInterval      1 to record every call, N to record every Nth call
+     */
+    static synchronized void initialise(int numberOfComponents, int samplingInterval) {
+        if (numberOfComponents < 0) {
+            throw new IllegalArgumentException("The number of components must not be negative.");
+        }
+
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("The sampling interval must be 1 or greater.");
+        }
+
+        int size = numberOfComponents * numberOfComponents;
+        int numberOfStripes = Math.max(1, Math.min(
+                Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2)),
+                Integer.highestOneBit(MAX_COUNTERS / Math.max(1, size))));
+
+        AtomicLongArray[] newStripes = new AtomicLongArray[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            newStripes[i] = new AtomicLongArray(size);
+        }
+
+        ComponentCallCounters.numberOfComponents = numberOfComponents;
+        ComponentCallCounters.samplingInterval = samplingInterval;
+        ComponentCallCounters.stripes = newStripes;
+    }
+
+    /**
+     * Called when a method belonging to the specified component is entered.
+     *
+     * @param component     the component index
+     */
+    public static void enter(int component) {
+        CallStack callStack = callStacks.get();
+        int caller = callStack.peek();
+        callStack.push(component);
+
+        if (caller >= 0 && caller != component && --callStack.countdown <= 0) {
+            callStack.countdown = samplingInterval;
+
+            AtomicLongArray[] counters = stripes;
+            int n = numberOfComponents;
+            if (caller < n && component < n) {
+                counters[callStack.stripe & (counters.length - 1)].getAndIncrement(caller * n + component);
+            }
+        }
+    }
+
+    /**
+     * Called when a method belonging to a component is exited (normally or via an exception).
+     */
+    public static void exit() {
+        callStacks.get().pop();
+    }
+
+    static int getNumberOfComponents() {
+        return numberOfComponents;
+    }
+
+    static int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Sums the striped counters.
+     *
+     * @return  an array of size n*n, where element [caller * n + callee] is the number of recorded calls
+     */
+    static long[] snapshot() {
+        AtomicLongArray[] counters = stripes;
+        long[] totals = new long[counters[0].length()];
+        for (AtomicLongArray stripe : counters) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += stripe.get(i);
+            }
+        }
+
+        return totals;
+    }
+
+    private static final class CallStack {
+
+        private final int stripe = threadCounter.getAndIncrement();
+        private int[] components = new int[64];
+        private int depth = 0;
+        private int countdown = 1;
+
+        int peek() {
+            return depth > 0 ? components[depth - 1] : -1;
+        }
+
+        void push(int component) {
+            if (depth == components.length) {
+                int[] larger = new int[components.length * 2];
+                System.arraycopy(components, 0, larger, 0, components.length);
+                components = larger;
+            }
+
+            components[depth++] = component;
+        }
+
+        void pop() {
+            if (depth > 0) {
+                depth--;
+            }
+        }
+
+    }
+
+}
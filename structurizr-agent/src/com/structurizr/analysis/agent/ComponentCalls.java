@@ -0,0 +1,81 @@
+package com.structurizr.analysis.agent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The calls between components that were recorded by the component calls agent.
+ */
+public final class ComponentCalls {
+
+    private final int samplingInterval;
+    private final List<Call> calls;
+
+    ComponentCalls(int samplingInterval, List<Call> calls) {
+        this.samplingInterval = samplingInterval;
+        this.calls = Collections.unmodifiableList(calls);
+    }
+
+    /**
+     * Gets the sampling interval used when recording (1 means every call was recorded).
+     *
+     * @return  the sampling interval
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Gets the recorded calls.
+     *
+     * @return  a List of Call objects, one per pair of components
+     */
+    public List<Call> getCalls() {
+        return calls;
+    }
+
+    /**
+     * The recorded calls from one component to another.
+     */
+    public static final class Call {
+
+        private final String source;
+        private final String destination;
+        private final long count;
+
+        Call(String source, String destination, long count) {
+            this.source = source;
+            this.destination = destination;
+            this.count = count;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getDestination() {
+            return destination;
+        }
+
+        /**
+         * Gets the number of calls that were recorded.
+         *
+         * @return  the number of sampled calls
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the estimated number of calls, taking the sampling interval into account.
+         *
+         * @param samplingInterval  the sampling interval
+         * @return  the estimated number of calls
+         */
+        public long getEstimatedCount(int samplingInterval) {
+            return count * samplingInterval;
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.structurizr.analysis.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.instrument.Instrumentation;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ *     A Java agent that counts the calls made between components at runtime. The components to be tracked
+ *     are read from a component index file (see {@link ComponentCallsFile#writeIndex(Map, File)}), and the
+ *     recorded call counts are written to a calls file when the JVM shuts down.
+ * </p>
+ *
+ * <p>
+ *     Usage: -javaagent:structurizr-agent-agent.jar=index=components.txt,output=calls.bin,sampling=1
+ * </p>
+ *
+ * <ul>
+ *     <li>index: the component index file (required)</li>
+ *     <li>output: the calls file to write (defaults to structurizr-calls.bin)</li>
+ *     <li>sampling: record every Nth cross-component call per thread (defaults to 1, i.e. every call)</li>
+ * </ul>
+ */
+public final class ComponentCallsAgent {
+
+    private static final Logger log = Logger.getLogger(ComponentCallsAgent.class.getName());
+
+    private static final String DEFAULT_OUTPUT = "structurizr-calls.bin";
+
+    private ComponentCallsAgent() {
+    }
+
+    public static void premain(String arguments, Instrumentation instrumentation) throws IOException {
+        install(arguments, instrumentation, false);
+    }
+
+    /**
+     * Called when the agent is attached to a running JVM, in which case component types that have already been
+     * loaded are retransformed (this requires Can-Retransform-Classes in the agent jar manifest).
+     */
+    public static void agentmain(String arguments, Instrumentation instrumentation) throws IOException {
+        install(arguments, instrumentation, true);
+    }
+
+    private static void install(String arguments, Instrumentation instrumentation, boolean retransform) throws IOException {
+        Map<String, String> options = parseArguments(arguments);
+
+        String index = options.get("index");
+        if (index == null) {
+            throw new IllegalArgumentException("An index file must be specified (e.g. index=components.txt).");
+        }
+
+        File output = new File(options.getOrDefault("output", DEFAULT_OUTPUT));
+        int samplingInterval = Integer.parseInt(options.getOrDefault("sampling", "1"));
+
+        Map<String, String> typeToComponentName = ComponentCallsFile.readIndex(new File(index));
+        List<String> componentNames = new ArrayList<>();
+        Map<String, Integer> typeToComponent = new HashMap<>();
+        for (Map.Entry<String, String> entry : typeToComponentName.entrySet()) {
+            int component = componentNames.indexOf(entry.getValue());
+            if (component == -1) {
+                component = componentNames.size();
+                componentNames.add(entry.getValue());
+            }
+            typeToComponent.put(entry.getKey(), component);
+        }
+
+        ComponentCallCounters.initialise(componentNames.size(), samplingInterval);
+        instrumentation.addTransformer(new ComponentCallsTransformer(typeToComponent), retransform);
+
+        if (retransform) {
+            retransformLoadedClasses(instrumentation, typeToComponent.keySet());
+        }
+
+        String[] names = componentNames.toArray(new String[0]);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(output, names), "structurizr-agent-shutdown"));
+    }
+
+    static void retransformLoadedClasses(Instrumentation instrumentation, Set<String> typeNames) {
+        if (!instrumentation.isRetransformClassesSupported()) {
+            log.warning("Retransforming classes is not supported by this JVM ... component types that have already been loaded won't be counted.");
+            return;
+        }
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> type : instrumentation.getAllLoadedClasses()) {
+            if (typeNames.contains(type.getName()) && instrumentation.isModifiableClass(type)) {
+                classes.add(type);
+            }
+        }
+
+        // each class is retransformed separately, so that one failure doesn't prevent the others
+        for (Class<?> type : classes) {
+            try {
+                instrumentation.retransformClasses(type);
+            } catch (Throwable t) {
+                log.log(Level.WARNING, "Could not retransform " + type.getName() + " ... ignoring.", t);
+            }
+        }
+    }
+
+    static void dump(File output, String[] componentNames) {
+        try {
+            ComponentCallsFile.write(output, componentNames, ComponentCallCounters.getSamplingInterval(), ComponentCallCounters.snapshot());
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Could not write component calls to " + output, e);
+        }
+    }
+
+    static Map<String, String> parseArguments(String arguments) {
+        Map<String, String> options = new HashMap<>();
+        if (arguments != null) {
+            for (String argument : arguments.split(",")) {
+                int equals = argument.indexOf('=');
+                if (equals > 0) {
+                    options.put(argument.substring(0, equals).trim(), argument.substring(equals + 1).trim());
+                }
+            }
+        }
+
+        return options;
+    }
+
+}
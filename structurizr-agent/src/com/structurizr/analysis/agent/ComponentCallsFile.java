@@ -0,0 +1,139 @@
+package com.structurizr.analysis.agent;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads and writes the two files used by the component calls agent:
+ *
+ *  - The component index, a text file with one "type name [tab] component name" pair per line,
+ *    which tells the agent which types to instrument.
+ *  - The calls file, a compact binary file containing the component names, the sampling interval
+ *    and the non-zero call counts between components.
+ */
+public final class ComponentCallsFile {
+
+    private static final int MAGIC = 0x53545243; // "STRC"
+    private static final int VERSION = 1;
+
+    private ComponentCallsFile() {
+    }
+
+    /**
+     * Writes a component index.
+     *
+     * @param typeToComponentName   a map of fully qualified type name to component name
+     * @param file                  the File to write to
+     * @throws IOException          if the file can't be written
+     */
+    public static void writeIndex(Map<String, String> typeToComponentName, File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, String> entry : typeToComponentName.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(entry.getValue());
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Reads a component index.
+     *
+     * @param file          the File to read from
+     * @return              a map of fully qualified type name to component name, in file order
+     * @throws IOException  if the file can't be read
+     */
+    public static Map<String, String> readIndex(File file) throws IOException {
+        Map<String, String> typeToComponentName = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    typeToComponentName.put(line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+        }
+
+        return typeToComponentName;
+    }
+
+    /**
+     * Writes the call counts recorded for a set of components.
+     *
+     * @param file              the File to write to
+     * @param componentNames    the component names, indexed by component number
+     * @param samplingInterval  the sampling interval used when recording
+     * @param counts            an n*n array of counts, indexed by [caller * n + callee]
+     * @throws IOException      if the file can't be written
+     */
+    public static void write(File file, String[] componentNames, int samplingInterval, long[] counts) throws IOException {
+        int n = componentNames.length;
+        if (counts.length != n * n) {
+            throw new IllegalArgumentException("Expected " + (n * n) + " counts, but got " + counts.length + ".");
+        }
+
+        int numberOfCalls = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                numberOfCalls++;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(samplingInterval);
+            out.writeInt(n);
+            for (String componentName : componentNames) {
+                out.writeUTF(componentName);
+            }
+
+            out.writeInt(numberOfCalls);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    out.writeInt(i / n);
+                    out.writeInt(i % n);
+                    out.writeLong(counts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a calls file.
+     *
+     * @param file          the File to read from
+     * @return              a ComponentCalls instance
+     * @throws IOException  if the file can't be read, or isn't a calls file
+     */
+    public static ComponentCalls read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a component calls file.");
+            }
+
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported component calls file version " + version + ".");
+            }
+
+            int samplingInterval = in.readInt();
+            String[] componentNames = new String[in.readInt()];
+            for (int i = 0; i < componentNames.length; i++) {
+                componentNames[i] = in.readUTF();
+            }
+
+            int numberOfCalls = in.readInt();
+            List<ComponentCalls.Call> calls = new ArrayList<>(numberOfCalls);
+            for (int i = 0; i < numberOfCalls; i++) {
+                calls.add(new ComponentCalls.Call(componentNames[in.readInt()], componentNames[in.readInt()], in.readLong()));
+            }
+
+            return new ComponentCalls(samplingInterval, calls);
+        }
+    }
+
+}
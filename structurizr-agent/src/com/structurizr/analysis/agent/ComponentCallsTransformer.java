@@ -0,0 +1,74 @@
+package com.structurizr.analysis.agent;
+
+import javassist.*;
+
+import java.io.ByteArrayInputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A class file transformer that instruments the methods of component types, so that they
+ * report calls to {@link ComponentCallCounters}.
+ */
+public class ComponentCallsTransformer implements ClassFileTransformer {
+
+    private static final Logger log = Logger.getLogger(ComponentCallsTransformer.class.getName());
+
+    private static final String COUNTERS = ComponentCallCounters.class.getName();
+
+    private final Map<String, Integer> typeToComponent;
+
+    /**
+     * Creates a new transformer.
+     *
+     * @param typeToComponent   a map of fully qualified type name to component number
+     */
+    public ComponentCallsTransformer(Map<String, Integer> typeToComponent) {
+        this.typeToComponent = typeToComponent;
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className == null) {
+            return null;
+        }
+
+        Integer component = typeToComponent.get(className.replace('/', '.'));
+        if (component == null) {
+            return null;
+        }
+
+        try {
+            ClassPool classPool = new ClassPool(true);
+            if (loader != null) {
+                classPool.insertClassPath(new LoaderClassPath(loader));
+            }
+
+            CtClass cc = classPool.makeClass(new ByteArrayInputStream(classfileBuffer));
+            if (cc.isInterface()) {
+                cc.detach();
+                return null;
+            }
+
+            for (CtMethod method : cc.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!Modifier.isAbstract(modifiers) && !Modifier.isNative(modifiers)) {
+                    method.insertBefore(COUNTERS + ".enter(" + component + ");");
+                    method.insertAfter(COUNTERS + ".exit();", true);
+                }
+            }
+
+            byte[] bytecode = cc.toBytecode();
+            cc.detach();
+
+            return bytecode;
+        } catch (Throwable t) {
+            log.log(Level.WARNING, "Could not instrument " + className + " ... ignoring.", t);
+            return null;
+        }
+    }
+
+}
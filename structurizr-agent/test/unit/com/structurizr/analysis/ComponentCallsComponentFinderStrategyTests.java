@@ -0,0 +1,89 @@
+package com.structurizr.analysis;
+
+import com.structurizr.Workspace;
+import com.structurizr.analysis.agent.ComponentCallsFile;
+import com.structurizr.model.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ComponentCallsComponentFinderStrategyTests {
+
+    private Container container;
+    private File callsFile;
+
+    @Before
+    public void setUp() throws Exception {
+        Workspace workspace = new Workspace("Name", "Description");
+        Model model = workspace.getModel();
+        SoftwareSystem softwareSystem = model.addSoftwareSystem("Name", "Description");
+        container = softwareSystem.addContainer("Name", "Description", "Technology");
+
+        callsFile = File.createTempFile("structurizr-calls", ".bin");
+        callsFile.deleteOnExit();
+    }
+
+    @Test
+    public void test_construction_ThrowsAnException_WhenANullFileIsSpecified() {
+        try {
+            new ComponentCallsComponentFinderStrategy(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("A calls file must be specified.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_afterFindComponents_AddsCallCountsToRelationships() throws Exception {
+        ComponentCallsFile.write(callsFile,
+                new String[] { "SomeController", "SomeService", "SomeRepository" },
+                2,
+                new long[] {
+                        0, 5, 0,
+                        0, 0, 7,
+                        1, 0, 0 });
+
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.ComponentCallsAgent",
+                new TypeMatcherComponentFinderStrategy(
+                        new NameSuffixTypeMatcher("Controller", "", ""),
+                        new NameSuffixTypeMatcher("Service", "", ""),
+                        new NameSuffixTypeMatcher("Repository", "", "")),
+                new ComponentCallsComponentFinderStrategy(callsFile)
+        );
+        componentFinder.findComponents();
+
+        Component someController = container.getComponentWithName("SomeController");
+        Component someService = container.getComponentWithName("SomeService");
+        Component someRepository = container.getComponentWithName("SomeRepository");
+
+        assertEquals("10", someController.getEfferentRelationshipWith(someService).getProperties().get("calls"));
+        assertEquals("14", someService.getEfferentRelationshipWith(someRepository).getProperties().get("calls"));
+
+        // this relationship isn't found via static analysis
+        Relationship relationship = someRepository.getEfferentRelationshipWith(someController);
+        assertEquals("2", relationship.getProperties().get("calls"));
+        assertTrue(relationship.hasTag("Runtime"));
+    }
+
+    @Test
+    public void test_writeComponentIndex() throws Exception {
+        container.addComponent("SomeRepository", "com.mycompany.SomeRepository", "", "")
+                .addSupportingType("com.mycompany.JdbcSomeRepository");
+
+        File file = File.createTempFile("structurizr-components", ".txt");
+        file.deleteOnExit();
+        ComponentCallsComponentFinderStrategy.writeComponentIndex(container, file);
+
+        Map<String, String> index = ComponentCallsFile.readIndex(file);
+        assertEquals(2, index.size());
+        assertEquals("SomeRepository", index.get("com.mycompany.SomeRepository"));
+        assertEquals("SomeRepository", index.get("com.mycompany.JdbcSomeRepository"));
+    }
+
+}
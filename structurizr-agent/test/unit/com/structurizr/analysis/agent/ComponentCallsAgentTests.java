@@ -0,0 +1,168 @@
+package com.structurizr.analysis.agent;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ComponentCallsAgentTests {
+
+    private static final String PACKAGE = "test.ComponentCallsAgent.";
+
+    @Test
+    public void test_instrumentedTypes_CountCallsBetweenComponents() throws Exception {
+        ComponentCallCounters.initialise(3, 1);
+        runInNewThread(() -> handle(3));
+
+        long[] counts = ComponentCallCounters.snapshot();
+        assertEquals(3, counts[0 * 3 + 1]); // SomeController -> SomeService
+        assertEquals(3, counts[1 * 3 + 2]); // SomeService -> SomeRepository
+        assertEquals(0, counts[1 * 3 + 1]); // calls within a component aren't counted
+        assertEquals(0, counts[1 * 3 + 0]);
+    }
+
+    @Test
+    public void test_instrumentedTypes_OnlyRecordEveryNthCall_WhenSamplingIsUsed() throws Exception {
+        ComponentCallCounters.initialise(3, 2);
+        runInNewThread(() -> handle(4));
+
+        long total = 0;
+        for (long count : ComponentCallCounters.snapshot()) {
+            total += count;
+        }
+        assertEquals(4, total);
+    }
+
+    @Test
+    public void test_retransformLoadedClasses_RetransformsTheComponentTypesThatHaveAlreadyBeenLoaded() {
+        List<Class<?>> classesRetransformed = new ArrayList<>();
+        Instrumentation instrumentation = (Instrumentation)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Instrumentation.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isRetransformClassesSupported":
+                case "isModifiableClass":
+                    return true;
+                case "getAllLoadedClasses":
+                    return new Class<?>[] { String.class, Integer.class, Long.class };
+                case "retransformClasses":
+                    classesRetransformed.addAll(Arrays.asList((Class<?>[])args[0]));
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+        ComponentCallsAgent.retransformLoadedClasses(instrumentation, new HashSet<>(Arrays.asList("java.lang.Integer", "java.lang.Long", "java.lang.Thread")));
+
+        assertEquals(Arrays.asList(Integer.class, Long.class), classesRetransformed);
+    }
+
+    @Test
+    public void test_write_and_read() throws Exception {
+        File file = File.createTempFile("structurizr-calls", ".bin");
+        file.deleteOnExit();
+
+        ComponentCallsFile.write(file, new String[] { "A", "B" }, 4, new long[] { 0, 10, 2, 0 });
+        ComponentCalls componentCalls = ComponentCallsFile.read(file);
+
+        assertEquals(4, componentCalls.getSamplingInterval());
+        assertEquals(2, componentCalls.getCalls().size());
+
+        ComponentCalls.Call call = componentCalls.getCalls().get(0);
+        assertEquals("A", call.getSource());
+        assertEquals("B", call.getDestination());
+        assertEquals(10, call.getCount());
+        assertEquals(40, call.getEstimatedCount(componentCalls.getSamplingInterval()));
+    }
+
+    @Test
+    public void test_writeIndex_and_readIndex() throws Exception {
+        File file = File.createTempFile("structurizr-components", ".txt");
+        file.deleteOnExit();
+
+        Map<String, String> index = new LinkedHashMap<>();
+        index.put("com.mycompany.SomeController", "SomeController");
+        index.put("com.mycompany.SomeRepository", "SomeRepository");
+        index.put("com.mycompany.JdbcSomeRepository", "SomeRepository");
+        ComponentCallsFile.writeIndex(index, file);
+
+        assertEquals(index, ComponentCallsFile.readIndex(file));
+    }
+
+    @Test
+    public void test_parseArguments() {
+        Map<String, String> options = ComponentCallsAgent.parseArguments("index=components.txt, output=calls.bin,sampling=8");
+        assertEquals("components.txt", options.get("index"));
+        assertEquals("calls.bin", options.get("output"));
+        assertEquals("8", options.get("sampling"));
+    }
+
+    private void handle(int times) {
+        try {
+            Map<String, Integer> typeToComponent = new HashMap<>();
+            typeToComponent.put(PACKAGE + "SomeController", 0);
+            typeToComponent.put(PACKAGE + "SomeService", 1);
+            typeToComponent.put(PACKAGE + "SomeRepository", 2);
+
+            ClassLoader classLoader = new InstrumentingClassLoader(new ComponentCallsTransformer(typeToComponent));
+            Class<?> type = classLoader.loadClass(PACKAGE + "SomeController");
+            Object controller = type.newInstance();
+            assertEquals(times * 2, type.getMethod("handle", int.class).invoke(controller, times));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void runInNewThread(Runnable runnable) throws InterruptedException {
+        // call stacks (and sampling countdowns) are per thread, so use a fresh thread for every test
+        Thread thread = new Thread(runnable);
+        thread.start();
+        thread.join();
+    }
+
+    private static class InstrumentingClassLoader extends ClassLoader {
+
+        private final ComponentCallsTransformer transformer;
+
+        InstrumentingClassLoader(ComponentCallsTransformer transformer) {
+            super(InstrumentingClassLoader.class.getClassLoader());
+            this.transformer = transformer;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                        byte[] buffer = new byte[4096];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            bytes.write(buffer, 0, read);
+                        }
+
+                        byte[] transformed = transformer.transform(this, name.replace('.', '/'), null, null, bytes.toByteArray());
+                        assertNotNull(transformed);
+                        type = defineClass(name, transformed, 0, transformed.length);
+                    } catch (Exception e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+
+                return type;
+            }
+        }
+
+    }
+
+}
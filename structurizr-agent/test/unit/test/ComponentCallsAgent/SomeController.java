@@ -0,0 +1,16 @@
+package test.ComponentCallsAgent;
+
+public class SomeController {
+
+    private SomeService someService = new SomeService();
+
+    public int handle(int times) {
+        int total = 0;
+        for (int i = 0; i < times; i++) {
+            total += someService.doSomething();
+        }
+
+        return total;
+    }
+
+}
@@ -0,0 +1,9 @@
+package test.ComponentCallsAgent;
+
+public class SomeRepository {
+
+    public int find() {
+        return 1;
+    }
+
+}
@@ -0,0 +1,15 @@
+package test.ComponentCallsAgent;
+
+public class SomeService {
+
+    private SomeRepository someRepository = new SomeRepository();
+
+    public int doSomething() {
+        return helper() + someRepository.find();
+    }
+
+    private int helper() {
+        return 1;
+    }
+
+}
@@ -1,9 +1,10 @@
 package com.structurizr.analysis;
 
 import com.structurizr.model.CodeElement;
+import com.structurizr.model.CodeElementRole;
 import com.structurizr.model.Component;
 import com.structurizr.model.Container;
-import com.structurizr.util.StringUtils;
+import com.structurizr.model.Relationship;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -73,82 +74,161 @@ public abstract class AbstractComponentFinderStrategy implements ComponentFinder
     }
 
     protected void findSupportingTypes(Set<Component> components) {
-        for (Component component : components) {
-            for (CodeElement codeElement : component.getCode()) {
-                TypeVisibility visibility = TypeUtils.getVisibility(getTypeRepository(), codeElement.getType());
-                if (visibility != null) {
-                    codeElement.setVisibility(visibility.getName());
-                }
+        List<CodeElement> codeElements = new ArrayList<>();
+        Map<String, TypeFacts> factsByType = new HashMap<>();
+        AnalysisMonitor monitor = componentFinder.getMonitor();
+        int componentsAnalysed = 0;
 
-                TypeCategory category = TypeUtils.getCategory(getTypeRepository(), codeElement.getType());
-                if (category != null) {
-                    codeElement.setCategory(category.getName());
-                }
-            }
+        for (Component component : components) {
+            monitor.checkpoint();
+            monitor.progress(ProgressListener.Phase.FINDING_SUPPORTING_TYPES, componentsAnalysed++, components.size());
+            codeElements.addAll(component.getCode());
 
             for (SupportingTypesStrategy strategy : supportingTypesStrategies) {
                 for (Class<?> type : strategy.findSupportingTypes(component)) {
                     if (!isNestedClass(type) && findComponent(type.getCanonicalName()) == null) {
                         CodeElement codeElement = component.addSupportingType(type.getCanonicalName());
+                        codeElements.add(codeElement);
 
-                        TypeVisibility visibility = TypeUtils.getVisibility(getTypeRepository(), codeElement.getType());
-                        if (visibility != null) {
-                            codeElement.setVisibility(visibility.getName());
-                        }
-
-                        TypeCategory category = TypeUtils.getCategory(getTypeRepository(), codeElement.getType());
-                        if (category != null) {
-                            codeElement.setCategory(category.getName());
-                        }
+                        // the type has already been loaded, so there's no need to load it again
+                        factsByType.putIfAbsent(codeElement.getType(), TypeFacts.of(type));
                     }
                 }
             }
         }
+
+        enrichCodeElements(codeElements, factsByType);
+        monitor.progress(ProgressListener.Phase.FINDING_SUPPORTING_TYPES, components.size(), components.size());
+    }
+
+    /**
+     * Sets the visibility and category of the specified code elements, in one pass, looking up the facts
+     * for each type at most once.
+     */
+    private void enrichCodeElements(List<CodeElement> codeElements, Map<String, TypeFacts> factsByType) {
+        Set<String> typesNotFound = new TreeSet<>();
+
+        for (CodeElement codeElement : codeElements) {
+            TypeFacts facts = factsByType.get(codeElement.getType());
+            if (facts == null && !factsByType.containsKey(codeElement.getType())) {
+                facts = getTypeRepository().getTypeFacts(codeElement.getType());
+                factsByType.put(codeElement.getType(), facts);
+            }
+
+            if (facts != null) {
+                codeElement.setVisibility(facts.getVisibility().getName());
+                codeElement.setCategory(facts.getCategory().getName());
+            } else {
+                typesNotFound.add(codeElement.getType());
+            }
+        }
+
+        if (!typesNotFound.isEmpty()) {
+            log.warn("Visibility and category for types " + typesNotFound + " could not be found.");
+        }
     }
 
     private boolean isNestedClass(Class<?> type) {
-        return type != null && type.getName().indexOf('$') > -1;
+        return DependencyFinder.isNestedClass(type);
     }
 
     protected void findDependencies() {
-        for (Component component : componentFinder.getContainer().getComponents()) {
-            for (CodeElement codeElement : component.getCode()) {
-                addEfferentDependencies(component, codeElement.getType(), new HashSet<>());
+        Container container = componentFinder.getContainer();
+        DependencyFinder dependencyFinder = new DependencyFinder(container, getTypeRepository(), componentFinder.getDependencyAnalysisBudget(), componentFinder.getDependencyPaths());
+
+        DependencyListener dependencyListener = componentFinder.getDependencyListener();
+        AnalysisMonitor monitor = componentFinder.getMonitor();
+        Set<Component> components = container.getComponents();
+        Map<Component, Set<Component>> dependencies = new LinkedHashMap<>();
+        Map<Component, Set<Component>> approximateDependencies = new HashMap<>();
+        int componentsAnalysed = 0;
+
+        for (Component component : components) {
+            monitor.checkpoint();
+            monitor.progress(ProgressListener.Phase.FINDING_DEPENDENCIES, componentsAnalysed++, components.size());
+
+            Set<String> typesVisited = new HashSet<>();
+            Set<Component> componentDependencies = dependencyFinder.findEfferentDependencies(component, typesVisited);
+            dependencies.put(component, componentDependencies);
+            if (dependencyFinder.isApproximate()) {
+                Set<Component> approximateDestinations = new HashSet<>();
+                for (Component destination : componentDependencies) {
+                    if (dependencyFinder.isApproximate(destination)) {
+                        approximateDestinations.add(destination);
+                    }
+                }
+                approximateDependencies.put(component, approximateDestinations);
+            } else if (dependencyListener != null) {
+                dependencyListener.dependenciesFound(component, typesVisited, componentDependencies);
+            }
+        }
+
+        // the relationships are created in one step, once all dependencies are known
+        for (Relationship relationship : DependencyFinder.addRelationships(dependencies)) {
+            Set<Component> approximateDestinations = approximateDependencies.get(relationship.getSource());
+            if (approximateDestinations != null && approximateDestinations.contains(relationship.getDestination())) {
+                relationship.addProperty(DependencyAnalysisBudget.APPROXIMATE_PROPERTY, "true");
             }
         }
+        monitor.progress(ProgressListener.Phase.FINDING_DEPENDENCIES, components.size(), components.size());
     }
 
-    private void addEfferentDependencies(Component component, String type, Set<String> typesVisited) {
-        typesVisited.add(type);
-
-        for (Class<?> referencedType : getTypeRepository().findReferencedTypes(type)) {
-            try {
-                if (!isNestedClass(referencedType)) {
-                    String referencedTypeName = referencedType.getCanonicalName();
-                    if (!StringUtils.isNullOrEmpty(referencedTypeName)) {
-                        Component destinationComponent = findComponent(referencedTypeName);
-                        if (destinationComponent != null) {
-                            if (component != destinationComponent) {
-                                component.uses(destinationComponent, "");
-                            }
-                        } else if (!typesVisited.contains(referencedTypeName)) {
-                            addEfferentDependencies(component, referencedTypeName, typesVisited);
+    private Component findComponent(String referencedTypeName) {
+        return DependencyFinder.findComponent(componentFinder.getContainer(), referencedTypeName);
+    }
+
+    /**
+     * Finds supporting types again for those of the specified components that were found by this strategy,
+     * used when re-analysing incrementally. Supporting types that are new are added to the components. Since code
+     * elements can't be removed from a component, those that no longer apply are left in place (with their size,
+     * URL, description, etc), and are simply not part of the result.
+     *
+     * @param components    a Set of Component objects
+     * @return  the names of the types that make up each component (primary and supporting), by component
+     */
+    Map<Component, Set<String>> refreshSupportingTypes(Set<Component> components) {
+        Map<Component, Set<String>> codeTypesByComponent = new HashMap<>();
+        List<CodeElement> codeElementsAdded = new ArrayList<>();
+        Map<String, TypeFacts> factsByType = new HashMap<>();
+
+        for (Component component : components) {
+            if (!componentsFound.contains(component)) {
+                continue;
+            }
+
+            Map<String, CodeElement> codeElementsByType = new HashMap<>();
+            Set<String> codeTypes = new LinkedHashSet<>();
+            for (CodeElement codeElement : component.getCode()) {
+                codeElementsByType.put(codeElement.getType(), codeElement);
+                if (codeElement.getRole() == CodeElementRole.Primary) {
+                    codeTypes.add(codeElement.getType());
+                }
+            }
+
+            for (SupportingTypesStrategy strategy : supportingTypesStrategies) {
+                for (Class<?> type : strategy.findSupportingTypes(component, new HashSet<>(codeTypes))) {
+                    if (!isNestedClass(type) && findComponent(type.getCanonicalName()) == null && codeTypes.add(type.getCanonicalName())) {
+                        if (!codeElementsByType.containsKey(type.getCanonicalName())) {
+                            CodeElement codeElement = component.addSupportingType(type.getCanonicalName());
+                            codeElementsByType.put(codeElement.getType(), codeElement);
+                            codeElementsAdded.add(codeElement);
+                            factsByType.putIfAbsent(codeElement.getType(), TypeFacts.of(type));
                         }
                     }
                 }
-            } catch (Throwable t) {
-                log.warn(t);
             }
+
+            codeTypesByComponent.put(component, codeTypes);
         }
+
+        enrichCodeElements(codeElementsAdded, factsByType);
+
+        return codeTypesByComponent;
     }
 
-    private Component findComponent(String referencedTypeName) {
-        Container container = componentFinder.getContainer();
-        Component componentOfType = container.getComponentOfType(referencedTypeName);
-        if (componentOfType == null) {
-            componentOfType = container.getComponentWithName(referencedTypeName);
-        }
-        return componentOfType;
+    @Override
+    public void discardComponents(Set<Component> components) {
+        componentsFound.removeAll(components);
     }
 
     /**
@@ -165,7 +245,7 @@ public abstract class AbstractComponentFinderStrategy implements ComponentFinder
     }
 
     protected Set<Class<?>> findTypesAnnotatedWith(Class<? extends Annotation> annotation) {
-        return TypeUtils.findTypesAnnotatedWith(annotation, getTypeRepository().getAllTypes());
+        return TypeUtils.findTypesAnnotatedWith(annotation, getTypeRepository().getTypes().asSet());
     }
 
     protected Set<Component> findClassesWithAnnotation(Class<? extends Annotation> type, String technology) {
@@ -173,24 +253,57 @@ public abstract class AbstractComponentFinderStrategy implements ComponentFinder
     }
 
     protected Set<Component> findClassesWithAnnotation(Class<? extends Annotation> type, String technology, boolean includePublicTypesOnly) {
-        Set<Component> components = new HashSet<>();
+        return addComponents(proposeClassesWithAnnotation(type, technology, includePublicTypesOnly));
+    }
+
+    /**
+     * Finds the types with the specified annotation, without modifying the container.
+     *
+     * @param type                      the annotation type
+     * @param technology                the technology of the components
+     * @param includePublicTypesOnly    true to ignore non-public types, false otherwise
+     * @return  a List of ComponentProposal objects
+     */
+    protected List<ComponentProposal> proposeClassesWithAnnotation(Class<? extends Annotation> type, String technology, boolean includePublicTypesOnly) {
+        List<ComponentProposal> proposals = new ArrayList<>();
         Set<Class<?>> componentTypes = findTypesAnnotatedWith(type);
         for (Class<?> componentType : componentTypes) {
             if (!includePublicTypesOnly || Modifier.isPublic(componentType.getModifiers())) {
-                final Container container = getComponentFinder().getContainer();
-                Component newComponent = addComponent(
-                        container,
+                proposals.add(new ComponentProposal(
                         componentType.getSimpleName(),
                         componentType.getCanonicalName(),
                         "",
-                        technology);
+                        technology));
+            }
+        }
 
-                if (newComponent != null) {
-                    components.add(newComponent);
-                }
+        return proposals;
+    }
+
+    /**
+     * Adds the proposed components to the container, in order, using the duplicate component strategy as necessary.
+     *
+     * @param proposals     a List of ComponentProposal objects
+     * @return  the set of components that were added
+     */
+    public Set<Component> addComponents(List<ComponentProposal> proposals) {
+        Set<Component> components = new HashSet<>();
+        Container container = getComponentFinder().getContainer();
+        for (ComponentProposal proposal : proposals) {
+            Component newComponent = addComponent(
+                    container,
+                    proposal.getName(),
+                    proposal.getType(),
+                    proposal.getDescription(),
+                    proposal.getTechnology());
+
+            if (newComponent != null) {
+                components.add(newComponent);
             }
         }
 
+        componentsFound.addAll(components);
+
         return components;
     }
 
@@ -0,0 +1,216 @@
+package com.structurizr.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The differences between two analysis results (e.g. of two versions of the same codebase), in terms of the
+ * components and the relationships between them that have been added, removed or changed. Components are
+ * matched by name, and relationships by the names of their source and destination components and their description.
+ */
+public final class AnalysisDelta {
+
+    private final AnalysisResult before;
+    private final AnalysisResult after;
+
+    private final List<String> addedComponents = new ArrayList<>();
+    private final List<String> removedComponents = new ArrayList<>();
+    private final List<String> changedComponents = new ArrayList<>();
+
+    private final List<Edge> addedRelationships = new ArrayList<>();
+    private final List<Edge> removedRelationships = new ArrayList<>();
+    private final List<Edge> changedRelationships = new ArrayList<>();
+
+    private AnalysisDelta(AnalysisResult before, AnalysisResult after) {
+        this.before = before;
+        this.after = after;
+
+        // both sets of components are ordered by name, so they can be merged in a single pass
+        int i = 0;
+        int j = 0;
+        while (i < before.getNumberOfComponents() || j < after.getNumberOfComponents()) {
+            int comparison;
+            if (i == before.getNumberOfComponents()) {
+                comparison = 1;
+            } else if (j == after.getNumberOfComponents()) {
+                comparison = -1;
+            } else {
+                comparison = before.getComponentName(i).compareTo(after.getComponentName(j));
+            }
+
+            if (comparison < 0) {
+                removedComponents.add(before.getComponentName(i++));
+            } else if (comparison > 0) {
+                addedComponents.add(after.getComponentName(j++));
+            } else {
+                if (!before.isSameComponent(i, after, j)) {
+                    changedComponents.add(before.getComponentName(i));
+                }
+                i++;
+                j++;
+            }
+        }
+
+        for (int edge = 0; edge < before.getNumberOfEdges(); edge++) {
+            Edge e = new Edge(before.getComponentName(before.getEdgeSource(edge)), before.getComponentName(before.getEdgeDestination(edge)), before.getEdgeDescription(edge));
+            int otherEdge = findEdge(after, e);
+            if (otherEdge == -1) {
+                removedRelationships.add(e);
+            } else if (!before.isSameEdge(edge, after, otherEdge)) {
+                changedRelationships.add(e);
+            }
+        }
+
+        for (int edge = 0; edge < after.getNumberOfEdges(); edge++) {
+            Edge e = new Edge(after.getComponentName(after.getEdgeSource(edge)), after.getComponentName(after.getEdgeDestination(edge)), after.getEdgeDescription(edge));
+            if (findEdge(before, e) == -1) {
+                addedRelationships.add(e);
+            }
+        }
+    }
+
+    private static int findEdge(AnalysisResult result, Edge edge) {
+        int source = result.getComponentIndex(edge.getSourceName());
+        int destination = result.getComponentIndex(edge.getDestinationName());
+
+        return source != -1 && destination != -1 ? result.getEdgeIndex(source, destination, edge.getDescription()) : -1;
+    }
+
+    /**
+     * Compares two analysis results.
+     *
+     * @param before    the AnalysisResult of the earlier version
+     * @param after     the AnalysisResult of the later version
+     * @return  an AnalysisDelta
+     */
+    public static AnalysisDelta between(AnalysisResult before, AnalysisResult after) {
+        if (before == null || after == null) {
+            throw new IllegalArgumentException("Two analysis results must be specified.");
+        }
+
+        return new AnalysisDelta(before, after);
+    }
+
+    public AnalysisResult getBefore() {
+        return before;
+    }
+
+    public AnalysisResult getAfter() {
+        return after;
+    }
+
+    /**
+     * Gets the names of the components that only exist after.
+     *
+     * @return  a List of component names, in order
+     */
+    public List<String> getAddedComponents() {
+        return Collections.unmodifiableList(addedComponents);
+    }
+
+    /**
+     * Gets the names of the components that only exist before.
+     *
+     * @return  a List of component names, in order
+     */
+    public List<String> getRemovedComponents() {
+        return Collections.unmodifiableList(removedComponents);
+    }
+
+    /**
+     * Gets the names of the components that exist before and after, but whose type, description, technology, tags,
+     * size or code elements are different.
+     *
+     * @return  a List of component names, in order
+     */
+    public List<String> getChangedComponents() {
+        return Collections.unmodifiableList(changedComponents);
+    }
+
+    public List<Edge> getAddedRelationships() {
+        return Collections.unmodifiableList(addedRelationships);
+    }
+
+    public List<Edge> getRemovedRelationships() {
+        return Collections.unmodifiableList(removedRelationships);
+    }
+
+    /**
+     * Gets the relationships that exist before and after, but whose weight, technology, tags
+     * or properties are different.
+     *
+     * @return  a List of Edge objects
+     */
+    public List<Edge> getChangedRelationships() {
+        return Collections.unmodifiableList(changedRelationships);
+    }
+
+    public boolean isEmpty() {
+        return addedComponents.isEmpty() && removedComponents.isEmpty() && changedComponents.isEmpty() &&
+                addedRelationships.isEmpty() && removedRelationships.isEmpty() && changedRelationships.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisDelta{" +
+                "addedComponents=" + addedComponents +
+                ", removedComponents=" + removedComponents +
+                ", changedComponents=" + changedComponents +
+                ", addedRelationships=" + addedRelationships +
+                ", removedRelationships=" + removedRelationships +
+                ", changedRelationships=" + changedRelationships +
+                '}';
+    }
+
+    /**
+     * A relationship between two components, identified by their names and the description of the relationship.
+     */
+    public static final class Edge {
+
+        private final String sourceName;
+        private final String destinationName;
+        private final String description;
+
+        Edge(String sourceName, String destinationName, String description) {
+            this.sourceName = sourceName;
+            this.destinationName = destinationName;
+            this.description = description;
+        }
+
+        public String getSourceName() {
+            return sourceName;
+        }
+
+        public String getDestinationName() {
+            return destinationName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Edge edge = (Edge) o;
+            return sourceName.equals(edge.sourceName) && destinationName.equals(edge.destinationName) &&
+                    Objects.equals(description, edge.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * sourceName.hashCode() + destinationName.hashCode()) + Objects.hashCode(description);
+        }
+
+        @Override
+        public String toString() {
+            return description == null || description.isEmpty() ? sourceName + " -> " + destinationName : sourceName + " -> " + destinationName + " (" + description + ")";
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.structurizr.analysis;
+
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Combines the cancellation token, deadline and progress listener for a single component finder run,
+ * and is consulted by the component finder, strategies and type repository as they work.
+ */
+class AnalysisMonitor {
+
+    static final AnalysisMonitor NONE = new AnalysisMonitor(null, null, null);
+
+    private final CancellationToken cancellationToken;
+    private final long deadline;
+    private final ProgressListener progressListener;
+
+    AnalysisMonitor(CancellationToken cancellationToken, Instant deadline, ProgressListener progressListener) {
+        this.cancellationToken = cancellationToken;
+        this.deadline = deadline != null ? deadline.toEpochMilli() : Long.MAX_VALUE;
+        this.progressListener = progressListener;
+    }
+
+    boolean isCancelled() {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+
+    boolean isDeadlineExceeded() {
+        return deadline != Long.MAX_VALUE && System.currentTimeMillis() > deadline;
+    }
+
+    boolean isStopRequested() {
+        return isCancelled() || isDeadlineExceeded();
+    }
+
+    /**
+     * Throws a CancellationException if the run has been cancelled, or the deadline has passed.
+     */
+    void checkpoint() {
+        if (isCancelled()) {
+            throw new CancellationException("The component finder was cancelled.");
+        } else if (isDeadlineExceeded()) {
+            throw new CancellationException("The component finder deadline of " + Instant.ofEpochMilli(deadline) + " has passed.");
+        }
+    }
+
+    void progress(ProgressListener.Phase phase, int completed, int total) {
+        if (progressListener != null) {
+            progressListener.onProgress(phase, completed, total);
+        }
+    }
+
+}
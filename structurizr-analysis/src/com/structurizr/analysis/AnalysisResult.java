@@ -0,0 +1,501 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.*;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A compact, immutable result of running a component finder, returned by {@link ComponentFinder#analyse()}.
+ * The components, their code elements and the (weighted) dependencies between them are held in plain arrays,
+ * so that a result can be cached, serialised and compared cheaply, and then added to a container with
+ * {@link #apply(Container)} when needed.
+ *
+ * Components are ordered by name, code elements are grouped by component (primary type first) and edges
+ * are ordered by source, destination and then description (there can be several relationships between
+ * two components, with different descriptions), so that two results for the same code are equal.
+ */
+public final class AnalysisResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // components
+    private final String[] componentNames;
+    private final String[] componentTypes;
+    private final String[] componentDescriptions;
+    private final String[] componentTechnologies;
+    private final String[] componentTags;
+    private final long[] componentSizes;
+
+    // code elements, where those of component i are at codeElementOffsets[i] (inclusive) to codeElementOffsets[i+1] (exclusive)
+    private final int[] codeElementOffsets;
+    private final String[] codeElementTypes;
+    private final boolean[] codeElementSupporting;
+    private final String[] codeElementDescriptions;
+    private final String[] codeElementUrls;
+    private final String[] codeElementLanguages;
+    private final String[] codeElementCategories;
+    private final String[] codeElementVisibilities;
+    private final long[] codeElementSizes;
+
+    // edges (i.e. relationships between components)
+    private final int[] edgeSources;
+    private final int[] edgeDestinations;
+    private final int[] edgeWeights;
+    private final String[] edgeDescriptions;
+    private final String[] edgeTechnologies;
+    private final String[] edgeTags;
+    private final String[][] edgeProperties; // key, value, key, value, ...
+
+    private AnalysisResult(List<Component> components, TypeRepository typeRepository) {
+        int numberOfComponents = components.size();
+        componentNames = new String[numberOfComponents];
+        componentTypes = new String[numberOfComponents];
+        componentDescriptions = new String[numberOfComponents];
+        componentTechnologies = new String[numberOfComponents];
+        componentTags = new String[numberOfComponents];
+        componentSizes = new long[numberOfComponents];
+        codeElementOffsets = new int[numberOfComponents + 1];
+
+        Map<Component, Integer> indexes = new HashMap<>();
+        List<CodeElement> codeElements = new ArrayList<>();
+        for (int i = 0; i < numberOfComponents; i++) {
+            Component component = components.get(i);
+            indexes.put(component, i);
+            componentNames[i] = component.getName();
+            componentTypes[i] = component.getType() != null ? component.getType().getType() : null;
+            componentDescriptions[i] = component.getDescription();
+            componentTechnologies[i] = component.getTechnology();
+            componentTags[i] = component.getTags();
+            componentSizes[i] = component.getSize();
+
+            codeElementOffsets[i] = codeElements.size();
+            List<CodeElement> code = new ArrayList<>(component.getCode());
+            code.sort(Comparator.comparing((CodeElement ce) -> ce.getRole() == CodeElementRole.Primary ? 0 : 1).thenComparing(CodeElement::getType));
+            codeElements.addAll(code);
+        }
+        codeElementOffsets[numberOfComponents] = codeElements.size();
+
+        int numberOfCodeElements = codeElements.size();
+        codeElementTypes = new String[numberOfCodeElements];
+        codeElementSupporting = new boolean[numberOfCodeElements];
+        codeElementDescriptions = new String[numberOfCodeElements];
+        codeElementUrls = new String[numberOfCodeElements];
+        codeElementLanguages = new String[numberOfCodeElements];
+        codeElementCategories = new String[numberOfCodeElements];
+        codeElementVisibilities = new String[numberOfCodeElements];
+        codeElementSizes = new long[numberOfCodeElements];
+        for (int i = 0; i < numberOfCodeElements; i++) {
+            CodeElement codeElement = codeElements.get(i);
+            codeElementTypes[i] = codeElement.getType();
+            codeElementSupporting[i] = codeElement.getRole() == CodeElementRole.Supporting;
+            codeElementDescriptions[i] = codeElement.getDescription();
+            codeElementUrls[i] = codeElement.getUrl();
+            codeElementLanguages[i] = codeElement.getLanguage();
+            codeElementCategories[i] = codeElement.getCategory();
+            codeElementVisibilities[i] = codeElement.getVisibility();
+            codeElementSizes[i] = codeElement.getSize();
+        }
+
+        List<Relationship> relationships = new ArrayList<>();
+        for (Component component : components) {
+            for (Relationship relationship : component.getRelationships()) {
+                if (indexes.containsKey(relationship.getDestination())) {
+                    relationships.add(relationship);
+                }
+            }
+        }
+        relationships.sort(Comparator.comparing((Relationship r) -> indexes.get(r.getSource()))
+                .thenComparing(r -> indexes.get(r.getDestination()))
+                .thenComparing(Relationship::getDescription, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Map<Long, Integer> references = countReferences(indexes, typeRepository);
+        int numberOfEdges = relationships.size();
+        edgeSources = new int[numberOfEdges];
+        edgeDestinations = new int[numberOfEdges];
+        edgeWeights = new int[numberOfEdges];
+        edgeDescriptions = new String[numberOfEdges];
+        edgeTechnologies = new String[numberOfEdges];
+        edgeTags = new String[numberOfEdges];
+        edgeProperties = new String[numberOfEdges][];
+        for (int i = 0; i < numberOfEdges; i++) {
+            Relationship relationship = relationships.get(i);
+            edgeSources[i] = indexes.get(relationship.getSource());
+            edgeDestinations[i] = indexes.get(relationship.getDestination());
+            edgeWeights[i] = Math.max(1, references.getOrDefault(edgeKey(edgeSources[i], edgeDestinations[i]), 0));
+            edgeDescriptions[i] = relationship.getDescription();
+            edgeTechnologies[i] = relationship.getTechnology();
+            edgeTags[i] = relationship.getTags();
+
+            Map<String, String> properties = new TreeMap<>(relationship.getProperties());
+            edgeProperties[i] = new String[properties.size() * 2];
+            int j = 0;
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                edgeProperties[i][j++] = property.getKey();
+                edgeProperties[i][j++] = property.getValue();
+            }
+        }
+    }
+
+    /**
+     * Counts the direct references from the code elements of each component to the code elements of the others
+     * (the referenced types are cached by the type repository, having been found already).
+     */
+    private Map<Long, Integer> countReferences(Map<Component, Integer> indexes, TypeRepository typeRepository) {
+        Map<String, Integer> componentsByType = new HashMap<>();
+        for (int i = 0; i < componentNames.length; i++) {
+            for (int j = codeElementOffsets[i]; j < codeElementOffsets[i + 1]; j++) {
+                componentsByType.putIfAbsent(codeElementTypes[j], i);
+            }
+        }
+
+        Map<Long, Integer> references = new HashMap<>();
+        if (typeRepository != null) {
+            for (int i = 0; i < componentNames.length; i++) {
+                for (int j = codeElementOffsets[i]; j < codeElementOffsets[i + 1]; j++) {
+                    for (Class<?> referencedType : typeRepository.findReferencedTypes(codeElementTypes[j])) {
+                        Integer destination = componentsByType.get(referencedType.getCanonicalName());
+                        if (destination != null && destination != i) {
+                            references.merge(edgeKey(i, destination), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        }
+
+        return references;
+    }
+
+    private static long edgeKey(int source, int destination) {
+        return ((long)source << 32) | destination;
+    }
+
+    /**
+     * Creates a result from the components in the specified container, and the relationships between them.
+     *
+     * @param container         the Container
+     * @param typeRepository    the TypeRepository used to weight edges, or null (in which case all weights are 1)
+     * @return  an AnalysisResult
+     */
+    static AnalysisResult of(Container container, TypeRepository typeRepository) {
+        List<Component> components = new ArrayList<>(container.getComponents());
+        components.sort(Comparator.comparing(Component::getName));
+
+        return new AnalysisResult(components, typeRepository);
+    }
+
+    /**
+     * Adds the components, code elements and relationships in this result to the specified container.
+     * Components that already exist in the container (with the same name) are reused, and have the code elements
+     * and relationships from this result added to them.
+     *
+     * @param container     the Container to add components to
+     * @return  the components in this result, in order
+     */
+    public List<Component> apply(Container container) {
+        if (container == null) {
+            throw new IllegalArgumentException("A container must be specified.");
+        }
+
+        Component[] components = new Component[componentNames.length];
+        for (int i = 0; i < components.length; i++) {
+            Component component = container.getComponentWithName(componentNames[i]);
+            if (component == null) {
+                if (componentTypes[i] != null) {
+                    component = container.addComponent(componentNames[i], componentTypes[i], componentDescriptions[i], componentTechnologies[i]);
+                } else {
+                    component = container.addComponent(componentNames[i], componentDescriptions[i], componentTechnologies[i]);
+                }
+                component.setSize(componentSizes[i]);
+                component.addTags(split(componentTags[i]));
+            }
+            components[i] = component;
+
+            for (int j = codeElementOffsets[i]; j < codeElementOffsets[i + 1]; j++) {
+                CodeElement codeElement;
+                if (!codeElementSupporting[j] && component.getType() != null && component.getType().getType().equals(codeElementTypes[j])) {
+                    codeElement = component.getType();
+                } else {
+                    codeElement = component.addSupportingType(codeElementTypes[j]);
+                }
+
+                codeElement.setDescription(codeElementDescriptions[j]);
+                codeElement.setUrl(codeElementUrls[j]);
+                codeElement.setLanguage(codeElementLanguages[j]);
+                codeElement.setCategory(codeElementCategories[j]);
+                codeElement.setVisibility(codeElementVisibilities[j]);
+                codeElement.setSize(codeElementSizes[j]);
+            }
+        }
+
+        for (int i = 0; i < edgeSources.length; i++) {
+            Component source = components[edgeSources[i]];
+            Component destination = components[edgeDestinations[i]];
+            Relationship relationship = source.uses(destination, edgeDescriptions[i], edgeTechnologies[i]);
+            if (relationship == null) {
+                relationship = findRelationship(source, destination, edgeDescriptions[i]);
+            }
+
+            if (relationship != null) {
+                relationship.addTags(split(edgeTags[i]));
+                for (int j = 0; j < edgeProperties[i].length; j += 2) {
+                    relationship.addProperty(edgeProperties[i][j], edgeProperties[i][j + 1]);
+                }
+            }
+        }
+
+        return Arrays.asList(components);
+    }
+
+    private static Relationship findRelationship(Component source, Component destination, String description) {
+        for (Relationship relationship : source.getRelationships()) {
+            if (relationship.getDestination().equals(destination) && Objects.equals(relationship.getDescription(), description)) {
+                return relationship;
+            }
+        }
+
+        return null;
+    }
+
+    private static String[] split(String tags) {
+        return tags == null || tags.isEmpty() ? new String[0] : tags.split(",");
+    }
+
+    public int getNumberOfComponents() {
+        return componentNames.length;
+    }
+
+    /**
+     * Finds the index of the component with the specified name.
+     *
+     * @param name  the name of a component
+     * @return  the index of the component, or -1 if there is no component with that name
+     */
+    public int getComponentIndex(String name) {
+        int index = Arrays.binarySearch(componentNames, name);
+        return index >= 0 ? index : -1;
+    }
+
+    public String getComponentName(int component) {
+        return componentNames[component];
+    }
+
+    public String getComponentType(int component) {
+        return componentTypes[component];
+    }
+
+    public String getComponentDescription(int component) {
+        return componentDescriptions[component];
+    }
+
+    public String getComponentTechnology(int component) {
+        return componentTechnologies[component];
+    }
+
+    public long getComponentSize(int component) {
+        return componentSizes[component];
+    }
+
+    /**
+     * Gets the types of the code elements belonging to the specified component.
+     *
+     * @param component     the index of a component
+     * @return  a List of fully qualified type names, primary type first
+     */
+    public List<String> getCodeElementTypes(int component) {
+        return Collections.unmodifiableList(Arrays.asList(codeElementTypes).subList(codeElementOffsets[component], codeElementOffsets[component + 1]));
+    }
+
+    public int getNumberOfCodeElements() {
+        return codeElementTypes.length;
+    }
+
+    public int getNumberOfEdges() {
+        return edgeSources.length;
+    }
+
+    /**
+     * Finds the index of the edge between the specified components, with the specified description.
+     *
+     * @param source        the index of the source component
+     * @param destination   the index of the destination component
+     * @param description   the description of the relationship
+     * @return  the index of the edge, or -1 if there is no such relationship between the components
+     */
+    public int getEdgeIndex(int source, int destination, String description) {
+        int low = 0;
+        int high = edgeSources.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison;
+            if (edgeSources[middle] != source) {
+                comparison = Integer.compare(edgeSources[middle], source);
+            } else if (edgeDestinations[middle] != destination) {
+                comparison = Integer.compare(edgeDestinations[middle], destination);
+            } else {
+                comparison = Objects.compare(edgeDescriptions[middle], description, Comparator.nullsFirst(Comparator.naturalOrder()));
+            }
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    public int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    public int getEdgeDestination(int edge) {
+        return edgeDestinations[edge];
+    }
+
+    /**
+     * Gets the weight of the specified edge, which is the number of direct references from the types
+     * of the source component to the types of the destination component (or 1, if the dependency is only indirect).
+     * Edges between the same two components have the same weight.
+     *
+     * @param edge  the index of an edge
+     * @return  the weight, which is 1 or more
+     */
+    public int getEdgeWeight(int edge) {
+        return edgeWeights[edge];
+    }
+
+    public String getEdgeDescription(int edge) {
+        return edgeDescriptions[edge];
+    }
+
+    public String getEdgeTechnology(int edge) {
+        return edgeTechnologies[edge];
+    }
+
+    /**
+     * Determines whether the specified edge has the specified tag (e.g. {@link IncrementalComponentFinder#REMOVED_TAG}).
+     */
+    boolean hasEdgeTag(int edge, String tag) {
+        return Arrays.asList(split(edgeTags[edge])).contains(tag);
+    }
+
+    /**
+     * Gets the value of a property of the specified edge (e.g. {@link DependencyAnalysisBudget#APPROXIMATE_PROPERTY}).
+     *
+     * @param edge  the index of an edge
+     * @param key   the property key
+     * @return  the property value, or null if the edge doesn't have the property
+     */
+    public String getEdgeProperty(int edge, String key) {
+        String[] properties = edgeProperties[edge];
+        for (int i = 0; i < properties.length; i += 2) {
+            if (properties[i].equals(key)) {
+                return properties[i + 1];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Determines whether a component in this result is the same (including its code elements) as one in another result.
+     */
+    boolean isSameComponent(int component, AnalysisResult other, int otherComponent) {
+        if (!Objects.equals(componentNames[component], other.componentNames[otherComponent]) ||
+                !Objects.equals(componentTypes[component], other.componentTypes[otherComponent]) ||
+                !Objects.equals(componentDescriptions[component], other.componentDescriptions[otherComponent]) ||
+                !Objects.equals(componentTechnologies[component], other.componentTechnologies[otherComponent]) ||
+                !Objects.equals(componentTags[component], other.componentTags[otherComponent]) ||
+                componentSizes[component] != other.componentSizes[otherComponent]) {
+            return false;
+        }
+
+        int from = codeElementOffsets[component];
+        int otherFrom = other.codeElementOffsets[otherComponent];
+        int numberOfCodeElements = codeElementOffsets[component + 1] - from;
+        if (numberOfCodeElements != other.codeElementOffsets[otherComponent + 1] - otherFrom) {
+            return false;
+        }
+
+        for (int i = 0; i < numberOfCodeElements; i++) {
+            int j = from + i;
+            int k = otherFrom + i;
+            if (!Objects.equals(codeElementTypes[j], other.codeElementTypes[k]) ||
+                    codeElementSupporting[j] != other.codeElementSupporting[k] ||
+                    !Objects.equals(codeElementDescriptions[j], other.codeElementDescriptions[k]) ||
+                    !Objects.equals(codeElementUrls[j], other.codeElementUrls[k]) ||
+                    !Objects.equals(codeElementLanguages[j], other.codeElementLanguages[k]) ||
+                    !Objects.equals(codeElementCategories[j], other.codeElementCategories[k]) ||
+                    !Objects.equals(codeElementVisibilities[j], other.codeElementVisibilities[k]) ||
+                    codeElementSizes[j] != other.codeElementSizes[k]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines whether an edge in this result has the same weight, technology, tags and properties
+     * as one in another result (the source and destination components, and the description, are not compared).
+     */
+    boolean isSameEdge(int edge, AnalysisResult other, int otherEdge) {
+        return edgeWeights[edge] == other.edgeWeights[otherEdge] &&
+                Objects.equals(edgeTechnologies[edge], other.edgeTechnologies[otherEdge]) &&
+                Objects.equals(edgeTags[edge], other.edgeTags[otherEdge]) &&
+                Arrays.equals(edgeProperties[edge], other.edgeProperties[otherEdge]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AnalysisResult that = (AnalysisResult) o;
+        return Arrays.equals(componentNames, that.componentNames) &&
+                Arrays.equals(componentTypes, that.componentTypes) &&
+                Arrays.equals(componentDescriptions, that.componentDescriptions) &&
+                Arrays.equals(componentTechnologies, that.componentTechnologies) &&
+                Arrays.equals(componentTags, that.componentTags) &&
+                Arrays.equals(componentSizes, that.componentSizes) &&
+                Arrays.equals(codeElementOffsets, that.codeElementOffsets) &&
+                Arrays.equals(codeElementTypes, that.codeElementTypes) &&
+                Arrays.equals(codeElementSupporting, that.codeElementSupporting) &&
+                Arrays.equals(codeElementDescriptions, that.codeElementDescriptions) &&
+                Arrays.equals(codeElementUrls, that.codeElementUrls) &&
+                Arrays.equals(codeElementLanguages, that.codeElementLanguages) &&
+                Arrays.equals(codeElementCategories, that.codeElementCategories) &&
+                Arrays.equals(codeElementVisibilities, that.codeElementVisibilities) &&
+                Arrays.equals(codeElementSizes, that.codeElementSizes) &&
+                Arrays.equals(edgeSources, that.edgeSources) &&
+                Arrays.equals(edgeDestinations, that.edgeDestinations) &&
+                Arrays.equals(edgeWeights, that.edgeWeights) &&
+                Arrays.equals(edgeDescriptions, that.edgeDescriptions) &&
+                Arrays.equals(edgeTechnologies, that.edgeTechnologies) &&
+                Arrays.equals(edgeTags, that.edgeTags) &&
+                Arrays.deepEquals(edgeProperties, that.edgeProperties);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(componentNames);
+        result = 31 * result + Arrays.hashCode(codeElementTypes);
+        result = 31 * result + Arrays.hashCode(edgeSources);
+        result = 31 * result + Arrays.hashCode(edgeDestinations);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisResult{" +
+                "components=" + componentNames.length +
+                ", codeElements=" + codeElementTypes.length +
+                ", edges=" + edgeSources.length +
+                '}';
+    }
+
+}
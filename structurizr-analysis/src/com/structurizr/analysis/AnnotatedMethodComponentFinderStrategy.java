@@ -98,7 +98,7 @@ public class AnnotatedMethodComponentFinderStrategy extends AbstractComponentFin
         if (classAnnotation != null) {
             classes.addAll(findTypesAnnotatedWith(classAnnotation));
         } else {
-            classes.addAll(getComponentFinder().getTypeRepository().getAllTypes());
+            classes.addAll(getComponentFinder().getTypeRepository().getTypes().asSet());
         }
         for (Class<?> clazz : classes) {
             Set<SimpleImmutableEntry<Class, Class>> allMethods = ReflectionUtils.getAllMethods(clazz, m -> m.isAnnotationPresent(methodAnnotation))
@@ -120,7 +120,7 @@ public class AnnotatedMethodComponentFinderStrategy extends AbstractComponentFin
         }
         Class returnFirstImpl = method.getReturnType();
         if (returnInterface.isInterface()) {
-            Class firstImplementationOfInterface = TypeUtils.findFirstImplementationOfInterface(returnInterface, getTypeRepository().getAllTypes());
+            Class firstImplementationOfInterface = TypeUtils.findFirstImplementationOfInterface(returnInterface, getTypeRepository().getTypes().asSet());
             //firstImplementationOfInterface could be null when bean is defined inside class of packageToScan but impl is located in non scan package
             if (firstImplementationOfInterface != null) {
                 returnFirstImpl = firstImplementationOfInterface;
@@ -19,6 +19,10 @@ public class AnnotationTypeMatcher extends AbstractTypeMatcher {
         this.annotation = annotation;
     }
 
+    Class<? extends Annotation> getAnnotation() {
+        return annotation;
+    }
+
     @Override
     public boolean matches(Class type) {
         return type.getAnnotation(annotation) != null;
@@ -0,0 +1,102 @@
+package com.structurizr.analysis;
+
+import static com.structurizr.util.StringUtils.isNullOrEmpty;
+
+/**
+ * A rule about the dependencies between components, such as "controllers must not use repositories directly".
+ * Rules are evaluated against a container by an {@link ArchitectureRuleEngine}.
+ */
+public final class ArchitectureRule {
+
+    enum Kind {
+
+        /** Selected source components must not have a relationship with selected destination components. */
+        MUST_NOT_USE,
+
+        /** Selected source components must not depend (directly or indirectly) on selected destination components. */
+        MUST_NOT_DEPEND_ON,
+
+        /** Selected source components may only have relationships with selected destination components. */
+        MAY_ONLY_USE
+
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final ComponentSelector sources;
+    private final ComponentSelector destinations;
+
+    private ArchitectureRule(String name, Kind kind, ComponentSelector sources, ComponentSelector destinations) {
+        if (isNullOrEmpty(name)) {
+            throw new IllegalArgumentException("A rule name must be specified.");
+        }
+
+        if (sources == null || destinations == null) {
+            throw new IllegalArgumentException("Both source and destination selectors must be specified.");
+        }
+
+        this.name = name;
+        this.kind = kind;
+        this.sources = sources;
+        this.destinations = destinations;
+    }
+
+    /**
+     * Creates a rule that the source components must not use (i.e. have a relationship with) the destination components.
+     *
+     * @param name          the name of the rule, used in the report
+     * @param sources       selects the source components
+     * @param destinations  selects the components that must not be used
+     * @return  an ArchitectureRule
+     */
+    public static ArchitectureRule mustNotUse(String name, ComponentSelector sources, ComponentSelector destinations) {
+        return new ArchitectureRule(name, Kind.MUST_NOT_USE, sources, destinations);
+    }
+
+    /**
+     * Creates a rule that the source components must not depend on the destination components,
+     * either directly or via any number of other components.
+     *
+     * @param name          the name of the rule, used in the report
+     * @param sources       selects the source components
+     * @param destinations  selects the components that must not be depended upon
+     * @return  an ArchitectureRule
+     */
+    public static ArchitectureRule mustNotDependOn(String name, ComponentSelector sources, ComponentSelector destinations) {
+        return new ArchitectureRule(name, Kind.MUST_NOT_DEPEND_ON, sources, destinations);
+    }
+
+    /**
+     * Creates a rule that the source components may only use the destination components.
+     *
+     * @param name          the name of the rule, used in the report
+     * @param sources       selects the source components
+     * @param destinations  selects the only components that may be used
+     * @return  an ArchitectureRule
+     */
+    public static ArchitectureRule mayOnlyUse(String name, ComponentSelector sources, ComponentSelector destinations) {
+        return new ArchitectureRule(name, Kind.MAY_ONLY_USE, sources, destinations);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    ComponentSelector getSources() {
+        return sources;
+    }
+
+    ComponentSelector getDestinations() {
+        return destinations;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Evaluates architecture rules against the components in a container and the relationships between them
+ * (e.g. after running a {@link ComponentFinder}), without scanning any bytecode again.
+ *
+ * <pre>
+ * ArchitectureRuleEngine engine = new ArchitectureRuleEngine();
+ * engine.addRule(ArchitectureRule.mustNotUse("Controllers must not use repositories directly",
+ *     ComponentSelector.withTechnology("Spring MVC Controller"),
+ *     ComponentSelector.withTechnology("Spring Repository")));
+ *
+ * ArchitectureRuleReport report = engine.evaluate(container);
+ * </pre>
+ *
+ * The sources and destinations of each rule are selected once, as BitSets, and each source's successors (or the
+ * components reachable from it) are intersected with the destinations, so the cost is mostly proportional
+ * to the number of components rather than the number of paths.
+ */
+public class ArchitectureRuleEngine {
+
+    private final List<ArchitectureRule> rules = new ArrayList<>();
+
+    /**
+     * Adds a rule.
+     *
+     * @param rule  an ArchitectureRule
+     * @return  this engine, so that calls can be chained
+     */
+    public ArchitectureRuleEngine addRule(ArchitectureRule rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("A rule must be specified.");
+        }
+
+        rules.add(rule);
+
+        return this;
+    }
+
+    public List<ArchitectureRule> getRules() {
+        return new ArrayList<>(rules);
+    }
+
+    /**
+     * Evaluates all of the rules against the specified container.
+     *
+     * @param container     the Container to check
+     * @return  an ArchitectureRuleReport
+     */
+    public ArchitectureRuleReport evaluate(Container container) {
+        if (container == null) {
+            throw new IllegalArgumentException("A container must be specified.");
+        }
+
+        ComponentGraph graph = new ComponentGraph(container);
+        List<ArchitectureRuleViolation> violations = new ArrayList<>();
+
+        for (ArchitectureRule rule : rules) {
+            BitSet sources = graph.select(rule.getSources());
+            BitSet destinations = graph.select(rule.getDestinations());
+
+            for (int source = sources.nextSetBit(0); source >= 0; source = sources.nextSetBit(source + 1)) {
+                BitSet violatingDestinations;
+                switch (rule.getKind()) {
+                    case MUST_NOT_DEPEND_ON:
+                        violatingDestinations = (BitSet)graph.getReachable(source).clone();
+                        violatingDestinations.and(destinations);
+                        break;
+                    case MAY_ONLY_USE:
+                        violatingDestinations = (BitSet)graph.getSuccessors(source).clone();
+                        violatingDestinations.andNot(destinations);
+                        break;
+                    default:
+                        violatingDestinations = (BitSet)graph.getSuccessors(source).clone();
+                        violatingDestinations.and(destinations);
+                        break;
+                }
+                violatingDestinations.clear(source);
+
+                for (int destination = violatingDestinations.nextSetBit(0); destination >= 0; destination = violatingDestinations.nextSetBit(destination + 1)) {
+                    List<Component> path = new ArrayList<>();
+                    if (graph.getSuccessors(source).get(destination)) {
+                        path.add(graph.getComponent(source));
+                        path.add(graph.getComponent(destination));
+                    } else {
+                        for (int i : graph.findShortestPath(source, destination)) {
+                            path.add(graph.getComponent(i));
+                        }
+                    }
+
+                    violations.add(new ArchitectureRuleViolation(rule, path));
+                }
+            }
+        }
+
+        return new ArchitectureRuleReport(rules, violations);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.structurizr.analysis;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The result of evaluating a set of architecture rules against a container.
+ */
+public final class ArchitectureRuleReport {
+
+    private final List<ArchitectureRule> rules;
+    private final List<ArchitectureRuleViolation> violations;
+
+    ArchitectureRuleReport(List<ArchitectureRule> rules, List<ArchitectureRuleViolation> violations) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.violations = Collections.unmodifiableList(new ArrayList<>(violations));
+    }
+
+    /**
+     * Gets the rules that were evaluated.
+     *
+     * @return  a List of ArchitectureRule objects
+     */
+    public List<ArchitectureRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets all violations, grouped by rule (in the order the rules were added), then by source and destination component name.
+     *
+     * @return  a List of ArchitectureRuleViolation objects
+     */
+    public List<ArchitectureRuleViolation> getViolations() {
+        return violations;
+    }
+
+    public List<ArchitectureRuleViolation> getViolations(ArchitectureRule rule) {
+        return violations.stream().filter(v -> v.getRule() == rule).collect(Collectors.toList());
+    }
+
+    public boolean hasViolations() {
+        return !violations.isEmpty();
+    }
+
+    /**
+     * Gets the violations as tab separated lines of rule name, source, destination and path.
+     *
+     * @return  a String (empty if there are no violations)
+     */
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        for (ArchitectureRuleViolation violation : violations) {
+            buf.append(violation).append(System.lineSeparator());
+        }
+
+        return buf.toString();
+    }
+
+}
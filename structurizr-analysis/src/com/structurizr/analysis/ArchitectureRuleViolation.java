@@ -0,0 +1,53 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A dependency between two components that breaks an architecture rule.
+ */
+public final class ArchitectureRuleViolation {
+
+    private final ArchitectureRule rule;
+    private final List<Component> path;
+
+    ArchitectureRuleViolation(ArchitectureRule rule, List<Component> path) {
+        this.rule = rule;
+        this.path = Collections.unmodifiableList(path);
+    }
+
+    public ArchitectureRule getRule() {
+        return rule;
+    }
+
+    public Component getSource() {
+        return path.get(0);
+    }
+
+    public Component getDestination() {
+        return path.get(path.size() - 1);
+    }
+
+    /**
+     * Gets a shortest chain of relationships from the source to the destination component.
+     *
+     * @return  a List of Component objects, starting with the source and ending with the destination
+     */
+    public List<Component> getPath() {
+        return path;
+    }
+
+    public boolean isDirect() {
+        return path.size() == 2;
+    }
+
+    @Override
+    public String toString() {
+        return rule.getName() + "\t" + getSource().getName() + "\t" + getDestination().getName() + "\t" +
+                path.stream().map(Component::getName).collect(Collectors.joining(" -> "));
+    }
+
+}
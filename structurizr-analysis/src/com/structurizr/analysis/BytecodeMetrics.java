@@ -0,0 +1,125 @@
+package com.structurizr.analysis;
+
+import javassist.bytecode.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Size and complexity metrics for a single class, read from its class file.
+ */
+final class BytecodeMetrics {
+
+    static final BytecodeMetrics NONE = new BytecodeMetrics(0, 0, 0, 0);
+
+    private final int numberOfMethods;
+    private final long numberOfInstructions;
+    private final long cyclomaticComplexity;
+    private final int maximumMethodComplexity;
+
+    BytecodeMetrics(int numberOfMethods, long numberOfInstructions, long cyclomaticComplexity, int maximumMethodComplexity) {
+        this.numberOfMethods = numberOfMethods;
+        this.numberOfInstructions = numberOfInstructions;
+        this.cyclomaticComplexity = cyclomaticComplexity;
+        this.maximumMethodComplexity = maximumMethodComplexity;
+    }
+
+    /**
+     * Reads the metrics from a class file. The cyclomatic complexity of each method with a body is 1, plus 1 for each
+     * conditional branch, switch case (excluding the default) and exception handler; that of the class is the sum of these.
+     *
+     * @param in    an InputStream of the class file (this is not closed)
+     * @return  the metrics
+     * @throws IOException  if the class file can't be read
+     */
+    static BytecodeMetrics read(InputStream in) throws IOException {
+        ClassFile classFile = new ClassFile(new DataInputStream(in));
+
+        int numberOfMethods = 0;
+        long numberOfInstructions = 0;
+        long cyclomaticComplexity = 0;
+        int maximumMethodComplexity = 0;
+
+        for (Object m : classFile.getMethods()) {
+            MethodInfo method = (MethodInfo)m;
+            numberOfMethods++;
+
+            CodeAttribute code = method.getCodeAttribute();
+            if (code == null) {
+                continue; // abstract and native methods
+            }
+
+            int complexity = 1 + code.getExceptionTable().size();
+            CodeIterator iterator = code.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    int index = iterator.next();
+                    numberOfInstructions++;
+                    complexity += decisions(iterator, index);
+                }
+            } catch (BadBytecode bb) {
+                throw new IOException(bb);
+            }
+
+            cyclomaticComplexity += complexity;
+            maximumMethodComplexity = Math.max(maximumMethodComplexity, complexity);
+        }
+
+        return new BytecodeMetrics(numberOfMethods, numberOfInstructions, cyclomaticComplexity, maximumMethodComplexity);
+    }
+
+    private static int decisions(CodeIterator iterator, int index) {
+        int opcode = iterator.byteAt(index);
+        switch (opcode) {
+            case Opcode.IFEQ: case Opcode.IFNE: case Opcode.IFLT: case Opcode.IFGE: case Opcode.IFGT: case Opcode.IFLE:
+            case Opcode.IF_ICMPEQ: case Opcode.IF_ICMPNE: case Opcode.IF_ICMPLT: case Opcode.IF_ICMPGE: case Opcode.IF_ICMPGT: case Opcode.IF_ICMPLE:
+            case Opcode.IF_ACMPEQ: case Opcode.IF_ACMPNE: case Opcode.IFNULL: case Opcode.IFNONNULL:
+                return 1;
+            case Opcode.TABLESWITCH: {
+                int position = (index & ~3) + 4; // skip the padding
+                int defaultTarget = iterator.s32bitAt(position);
+                int low = iterator.s32bitAt(position + 4);
+                int high = iterator.s32bitAt(position + 8);
+                int cases = 0;
+                for (int i = 0; i <= high - low; i++) {
+                    if (iterator.s32bitAt(position + 12 + i * 4) != defaultTarget) {
+                        cases++;
+                    }
+                }
+                return cases;
+            }
+            case Opcode.LOOKUPSWITCH: {
+                int position = (index & ~3) + 4;
+                return iterator.s32bitAt(position + 4);
+            }
+            default:
+                return 0;
+        }
+    }
+
+    BytecodeMetrics plus(BytecodeMetrics other) {
+        return new BytecodeMetrics(
+                numberOfMethods + other.numberOfMethods,
+                numberOfInstructions + other.numberOfInstructions,
+                cyclomaticComplexity + other.cyclomaticComplexity,
+                Math.max(maximumMethodComplexity, other.maximumMethodComplexity));
+    }
+
+    int getNumberOfMethods() {
+        return numberOfMethods;
+    }
+
+    long getNumberOfInstructions() {
+        return numberOfInstructions;
+    }
+
+    long getCyclomaticComplexity() {
+        return cyclomaticComplexity;
+    }
+
+    int getMaximumMethodComplexity() {
+        return maximumMethodComplexity;
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This component finder strategy doesn't really find components, it instead calculates the size and complexity
+ * of components from their class files, which means that (unlike the {@link SourceCodeComponentFinderStrategy})
+ * no source code is needed. For each component:
+ * <ul>
+ * <li>The size of each code element, and of the component, is set to the number of bytecode instructions.</li>
+ * <li>The number of methods, number of instructions, cyclomatic complexity and maximum method complexity
+ * (summed over the code elements) are added as properties.</li>
+ * </ul>
+ * The class files are read in parallel, using the component finder's executor if concurrent mode is on,
+ * or the common fork-join pool otherwise.
+ */
+public class BytecodeMetricsComponentFinderStrategy implements ComponentFinderStrategy {
+
+    private static final Log log = LogFactory.getLog(BytecodeMetricsComponentFinderStrategy.class);
+
+    public static final String NUMBER_OF_METHODS_PROPERTY = "Number of methods";
+    public static final String NUMBER_OF_INSTRUCTIONS_PROPERTY = "Number of instructions";
+    public static final String CYCLOMATIC_COMPLEXITY_PROPERTY = "Cyclomatic complexity";
+    public static final String MAXIMUM_METHOD_COMPLEXITY_PROPERTY = "Maximum method complexity";
+
+    private ComponentFinder componentFinder;
+
+    @Override
+    public void setComponentFinder(ComponentFinder componentFinder) {
+        this.componentFinder = componentFinder;
+    }
+
+    @Override
+    public void beforeFindComponents() throws Exception {
+    }
+
+    @Override
+    public Set<Component> findComponents() throws Exception {
+        return new HashSet<>(); // this component finder doesn't find components
+    }
+
+    @Override
+    public void afterFindComponents() throws Exception {
+        calculateMetrics(componentFinder.getContainer().getComponents());
+    }
+
+    @Override
+    public void afterUpdateComponents(Set<Component> components) throws Exception {
+        calculateMetrics(components);
+    }
+
+    private void calculateMetrics(Set<Component> components) {
+        Set<String> types = new TreeSet<>();
+        for (Component component : components) {
+            for (CodeElement codeElement : component.getCode()) {
+                types.add(codeElement.getType());
+            }
+        }
+
+        Map<String, BytecodeMetrics> metricsByType = readMetrics(types);
+
+        for (Component component : components) {
+            BytecodeMetrics metricsForComponent = BytecodeMetrics.NONE;
+
+            for (CodeElement codeElement : component.getCode()) {
+                BytecodeMetrics metrics = metricsByType.get(codeElement.getType());
+                if (metrics != null) {
+                    codeElement.setSize(metrics.getNumberOfInstructions());
+                    metricsForComponent = metricsForComponent.plus(metrics);
+                }
+            }
+
+            if (metricsForComponent != BytecodeMetrics.NONE) {
+                component.setSize(metricsForComponent.getNumberOfInstructions());
+                component.addProperty(NUMBER_OF_METHODS_PROPERTY, String.valueOf(metricsForComponent.getNumberOfMethods()));
+                component.addProperty(NUMBER_OF_INSTRUCTIONS_PROPERTY, String.valueOf(metricsForComponent.getNumberOfInstructions()));
+                component.addProperty(CYCLOMATIC_COMPLEXITY_PROPERTY, String.valueOf(metricsForComponent.getCyclomaticComplexity()));
+                component.addProperty(MAXIMUM_METHOD_COMPLEXITY_PROPERTY, String.valueOf(metricsForComponent.getMaximumMethodComplexity()));
+            }
+        }
+    }
+
+    private Map<String, BytecodeMetrics> readMetrics(Set<String> types) {
+        Executor executor = componentFinder.getExecutor() != null ? componentFinder.getExecutor() : ForkJoinPool.commonPool();
+        TypeRepository typeRepository = componentFinder.getTypeRepository();
+
+        Map<String, CompletableFuture<BytecodeMetrics>> futures = new LinkedHashMap<>();
+        for (String type : types) {
+            futures.put(type, CompletableFuture.supplyAsync(() -> readMetrics(typeRepository, type), executor));
+        }
+
+        Map<String, BytecodeMetrics> metricsByType = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<BytecodeMetrics>> entry : futures.entrySet()) {
+            BytecodeMetrics metrics = entry.getValue().join();
+            if (metrics != null) {
+                metricsByType.put(entry.getKey(), metrics);
+            }
+        }
+
+        return metricsByType;
+    }
+
+    private BytecodeMetrics readMetrics(TypeRepository typeRepository, String type) {
+        try {
+            // the type is loaded to find its binary name and class loader (it has usually been loaded already)
+            Class<?> clazz = typeRepository.loadClass(type);
+            String resource = clazz.getName().replace('.', '/') + ".class";
+            ClassLoader classLoader = clazz.getClassLoader() != null ? clazz.getClassLoader() : ClassLoader.getSystemClassLoader();
+
+            try (InputStream in = classLoader.getResourceAsStream(resource)) {
+                if (in != null) {
+                    return BytecodeMetrics.read(in);
+                } else {
+                    log.warn("The class file for " + type + " could not be found.");
+                }
+            }
+        } catch (Throwable t) {
+            log.warn("Bytecode metrics for " + type + " could not be calculated: " + t);
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.structurizr.analysis;
+
+/**
+ * Allows a component finder run started via {@link ComponentFinder#findComponentsAsync(CancellationToken, java.time.Instant, ProgressListener)}
+ * to be stopped early. The run checks the token between types, strategies and components, so it stops shortly
+ * after {@link #cancel()} has been called (from any thread).
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * Requests that the run be stopped.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.structurizr.analysis;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Container;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Compares the components (and relationships between them) found in two versions of a codebase, by analysing
+ * two classpaths (e.g. the jars of two releases) concurrently.
+ *
+ * The classes in each jar are indexed once per jar content, rather than once per classpath, so jars that are
+ * the same on both sides (typically most of the third-party libraries) are only read once; and the indexes are
+ * kept, so that a series of versions can be compared with the same instance. Directories of class files are
+ * indexed on each side.
+ */
+public class ClasspathComparison {
+
+    private final Function<Container, ComponentFinder> componentFinderFactory;
+
+    // jar indexes, by content hash and packages
+    private final Map<String, CompletableFuture<JarIndex>> jarIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new classpath comparison.
+     *
+     * @param componentFinderFactory    a function that creates a component finder (with new strategies) for the
+     *                                  given container, which is called once per classpath
+     */
+    public ClasspathComparison(Function<Container, ComponentFinder> componentFinderFactory) {
+        if (componentFinderFactory == null) {
+            throw new IllegalArgumentException("A component finder factory must be specified.");
+        }
+
+        this.componentFinderFactory = componentFinderFactory;
+    }
+
+    /**
+     * Analyses the two classpaths concurrently, and compares the results.
+     *
+     * @param before    the classpath of the earlier version (jar files and/or directories)
+     * @param after     the classpath of the later version (jar files and/or directories)
+     * @return  an AnalysisDelta
+     * @throws Exception    if something goes wrong
+     */
+    public AnalysisDelta compare(URL[] before, URL[] after) throws Exception {
+        if (before == null || after == null) {
+            throw new IllegalArgumentException("Two classpaths must be specified.");
+        }
+
+        CompletableFuture<AnalysisResult> beforeResult = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                beforeResult.complete(analyse(before));
+            } catch (Throwable t) {
+                beforeResult.completeExceptionally(t);
+            }
+        }, "structurizr-classpath-comparison");
+        thread.setDaemon(true);
+        thread.start();
+
+        AnalysisResult afterResult = analyse(after);
+
+        try {
+            return AnalysisDelta.between(beforeResult.get(), afterResult);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof Exception) {
+                throw (Exception)ee.getCause();
+            } else {
+                throw ee;
+            }
+        }
+    }
+
+    /**
+     * Analyses a single classpath, without comparing it to anything.
+     *
+     * @param classpath     the classpath (jar files and/or directories)
+     * @return  an AnalysisResult
+     * @throws Exception    if something goes wrong
+     */
+    public AnalysisResult analyse(URL[] classpath) throws Exception {
+        Container container = new Workspace("", "").getModel()
+                .addSoftwareSystem("Software System", "")
+                .addContainer("Container", "", "");
+        ComponentFinder componentFinder = componentFinderFactory.apply(container);
+        List<String> packageNames = componentFinder.getPackageNames();
+
+        List<JarIndex> indexes = new ArrayList<>();
+        for (URL url : classpath) {
+            indexes.add(getJarIndex(toFile(url), packageNames));
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(classpath, ClasspathComparison.class.getClassLoader())) {
+            DefaultTypeRepository typeRepository = new DefaultTypeRepository(packageNames, componentFinder.getExclusions(), classLoader);
+            typeRepository.setJarIndexes(indexes);
+
+            componentFinder.setUrlClassLoader(classLoader);
+            componentFinder.setTypeRepository(typeRepository);
+
+            return componentFinder.analyse();
+        }
+    }
+
+    private JarIndex getJarIndex(File file, List<String> packageNames) throws Exception {
+        String hash = JarIndex.hash(file);
+        if (hash == null) {
+            return JarIndex.read(file, packageNames);
+        }
+
+        // if both sides need the same jar at the same time, one reads it while the other waits
+        String key = hash + ":" + String.join(",", packageNames);
+        CompletableFuture<JarIndex> index = new CompletableFuture<>();
+        CompletableFuture<JarIndex> existingIndex = jarIndexes.putIfAbsent(key, index);
+        if (existingIndex != null) {
+            try {
+                return existingIndex.get();
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof Exception) {
+                    throw (Exception)ee.getCause();
+                } else {
+                    throw ee;
+                }
+            }
+        }
+
+        try {
+            index.complete(JarIndex.read(file, packageNames));
+        } catch (Throwable t) {
+            // the index is completed whatever happens, so that the other side doesn't wait forever
+            index.completeExceptionally(t);
+            jarIndexes.remove(key, index);
+            throw t;
+        }
+
+        return index.get();
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            throw new IllegalArgumentException(url + " is not a jar file or directory.");
+        }
+
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(url + " is not a jar file or directory.", e);
+        }
+    }
+
+    /**
+     * Gets the number of distinct jars that have been indexed.
+     */
+    int getNumberOfJarIndexes() {
+        return jarIndexes.size();
+    }
+
+}
@@ -1,10 +1,16 @@
 package com.structurizr.analysis;
 
+import com.structurizr.Workspace;
 import com.structurizr.model.Component;
 import com.structurizr.model.Container;
+import com.structurizr.model.Model;
+import com.structurizr.model.Person;
+import com.structurizr.model.SoftwareSystem;
 
 import java.net.URLClassLoader;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 
 import static com.structurizr.util.StringUtils.isNullOrEmpty;
@@ -30,6 +36,21 @@ public class ComponentFinder {
     // the list of strategies, which will be executed in the order they are added
     private List<ComponentFinderStrategy> componentFinderStrategies = new ArrayList<>();
 
+    // when set, the discovery phase of concurrent strategies is run using this executor
+    private Executor executor;
+
+    // when set, dependencies between components are found within this budget
+    private DependencyAnalysisBudget dependencyAnalysisBudget;
+
+    // when set, the type paths that explain dependencies between components are recorded here
+    private DependencyPaths dependencyPaths;
+
+    // when set, the dependencies found for each component are reported here
+    private DependencyListener dependencyListener;
+
+    // the cancellation token, deadline and progress listener for the current run
+    private volatile AnalysisMonitor monitor = AnalysisMonitor.NONE;
+
     /**
      * Create a new component finder.
      *
@@ -67,23 +88,290 @@ public class ComponentFinder {
      * @throws Exception    if something goes wrong
      */
     public Set<Component> findComponents() throws Exception {
-        Set<Component> componentsFound = new HashSet<>();
+        return findComponents(AnalysisMonitor.NONE);
+    }
 
-        for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
-            componentFinderStrategy.beforeFindComponents();
+    /**
+     * Finds components using all of the configured component finder strategies, without modifying the container.
+     * The strategies are run against a scratch copy of the model (the people, software systems and containers,
+     * without their relationships or components), and the components, code elements and relationships between
+     * components that they create are returned as a compact, immutable result instead.
+     * Use {@link AnalysisResult#apply(Container)} to add them to a container later.
+     *
+     * Relationships between components and other elements (e.g. those created from the @UsesContainer or
+     * @UsedByPerson annotations) are created in the scratch model, but are not part of the result.
+     *
+     * @return  an AnalysisResult
+     * @throws Exception    if something goes wrong
+     */
+    public synchronized AnalysisResult analyse() throws Exception {
+        Container target = this.container;
+        Container scratch = createScratchContainer(target);
+
+        this.container = scratch;
+        try {
+            findComponents(AnalysisMonitor.NONE);
+
+            return AnalysisResult.of(scratch, getTypeRepository());
+        } finally {
+            this.container = target;
+
+            // the strategies shouldn't carry the scratch components over to subsequent runs
+            for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
+                componentFinderStrategy.discardComponents(scratch.getComponents());
+            }
+        }
+    }
+
+    /**
+     * Copies the people, software systems and containers in the model of the specified container into a new model,
+     * so that strategies can find the same elements as they would in the real model.
+     */
+    private static Container createScratchContainer(Container target) {
+        Model model = new Workspace("", "").getModel();
+        for (Person person : target.getModel().getPeople()) {
+            model.addPerson(person.getLocation(), person.getName(), person.getDescription());
+        }
+
+        Container scratch = null;
+        for (SoftwareSystem softwareSystem : target.getModel().getSoftwareSystems()) {
+            SoftwareSystem softwareSystemCopy = model.addSoftwareSystem(softwareSystem.getLocation(), softwareSystem.getName(), softwareSystem.getDescription());
+            for (Container container : softwareSystem.getContainers()) {
+                Container containerCopy = softwareSystemCopy.addContainer(container.getName(), container.getDescription(), container.getTechnology());
+                if (container == target) {
+                    scratch = containerCopy;
+                }
+            }
+        }
+
+        return scratch;
+    }
+
+    /**
+     * Find components asynchronously (on a new thread), using all of the configured component finder strategies
+     * in the order they were added.
+     *
+     * @return  a CompletableFuture that completes with the set of Components that were found
+     */
+    public CompletableFuture<Set<Component>> findComponentsAsync() {
+        return findComponentsAsync(null, null, null);
+    }
+
+    /**
+     * Find components asynchronously (on a new thread), using all of the configured component finder strategies
+     * in the order they were added. Cancelling the returned future (or the token) stops the run shortly afterwards,
+     * at which point the container may contain some, but not all, of the components and relationships.
+     *
+     * @param cancellationToken     a CancellationToken, or null
+     * @param deadline              the time by which the run must complete (or null for no deadline); if this passes,
+     *                              the future completes exceptionally with a TimeoutException
+     * @param progressListener      a ProgressListener, or null
+     * @return  a CompletableFuture that completes with the set of Components that were found
+     */
+    public CompletableFuture<Set<Component>> findComponentsAsync(CancellationToken cancellationToken, Instant deadline, ProgressListener progressListener) {
+        CancellationToken token = cancellationToken != null ? cancellationToken : new CancellationToken();
+        AnalysisMonitor monitor = new AnalysisMonitor(token, deadline, progressListener);
+        CompletableFuture<Set<Component>> future = new CompletableFuture<>();
+
+        // the run is long and blocking, so it gets its own thread rather than tying up a shared pool
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(findComponents(monitor));
+            } catch (CancellationException ce) {
+                if (monitor.isCancelled()) {
+                    future.cancel(false);
+                } else {
+                    future.completeExceptionally(new TimeoutException(ce.getMessage()));
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, "structurizr-component-finder");
+        thread.setDaemon(true);
+
+        future.whenComplete((components, throwable) -> {
+            if (future.isCancelled()) {
+                token.cancel();
+            }
+        });
+        thread.start();
+
+        return future;
+    }
+
+    private synchronized Set<Component> findComponents(AnalysisMonitor monitor) throws Exception {
+        this.monitor = monitor;
+        TypeRepository typeRepository = getTypeRepository();
+        if (typeRepository instanceof DefaultTypeRepository) {
+            ((DefaultTypeRepository)typeRepository).setMonitor(monitor);
         }
 
+        try {
+            Set<Component> componentsFound = new HashSet<>();
+
+            for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
+                monitor.checkpoint();
+                componentFinderStrategy.beforeFindComponents();
+            }
+
+            if (executor != null) {
+                componentsFound.addAll(findComponentsConcurrently());
+            } else {
+                for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
+                    monitor.checkpoint();
+                    componentsFound.addAll(componentFinderStrategy.findComponents());
+                    monitor.progress(ProgressListener.Phase.FINDING_COMPONENTS, componentsFound.size(), -1);
+                }
+            }
+
+            for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
+                monitor.checkpoint();
+                componentFinderStrategy.afterFindComponents();
+            }
+
+            return componentsFound;
+        } finally {
+            this.monitor = AnalysisMonitor.NONE;
+            if (typeRepository instanceof DefaultTypeRepository) {
+                ((DefaultTypeRepository)typeRepository).setMonitor(AnalysisMonitor.NONE);
+            }
+        }
+    }
+
+    AnalysisMonitor getMonitor() {
+        return monitor;
+    }
+
+    private Set<Component> findComponentsConcurrently() throws Exception {
+        Set<Component> componentsFound = new HashSet<>();
+
+        // make sure the type repository exists before the strategies run concurrently
+        getTypeRepository();
+
+        // discovery only reads the type repository, so run it concurrently ...
+        Map<ComponentFinderStrategy, CompletableFuture<List<ComponentProposal>>> proposals = new HashMap<>();
         for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
-            componentsFound.addAll(componentFinderStrategy.findComponents());
+            if (componentFinderStrategy instanceof ConcurrentComponentFinderStrategy) {
+                ConcurrentComponentFinderStrategy strategy = (ConcurrentComponentFinderStrategy)componentFinderStrategy;
+                proposals.put(strategy, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return strategy.proposeComponents();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
         }
 
+        // ... and then add the components to the container in strategy order,
+        // so that the results (including duplicate handling) are the same as running sequentially
         for (ComponentFinderStrategy componentFinderStrategy : componentFinderStrategies) {
-            componentFinderStrategy.afterFindComponents();
+            if (componentFinderStrategy instanceof ConcurrentComponentFinderStrategy) {
+                List<ComponentProposal> proposalsForStrategy;
+                try {
+                    proposalsForStrategy = proposals.get(componentFinderStrategy).join();
+                } catch (CompletionException ce) {
+                    if (ce.getCause() instanceof Exception) {
+                        throw (Exception)ce.getCause();
+                    }
+                    throw ce;
+                }
+
+                componentsFound.addAll(((ConcurrentComponentFinderStrategy)componentFinderStrategy).addComponents(proposalsForStrategy));
+            } else {
+                monitor.checkpoint();
+                componentsFound.addAll(componentFinderStrategy.findComponents());
+            }
+            monitor.progress(ProgressListener.Phase.FINDING_COMPONENTS, componentsFound.size(), -1);
         }
 
         return componentsFound;
     }
 
+    /**
+     * Sets whether the component finder runs in concurrent mode. In concurrent mode, strategies that implement
+     * {@link ConcurrentComponentFinderStrategy} discover components concurrently (against the type repository),
+     * and the discovered components are then added to the container in the order the strategies were added.
+     * The before and after phases are always run sequentially.
+     *
+     * @param concurrent    true to use concurrent mode (using the common fork-join pool), false otherwise (the default)
+     */
+    public void setConcurrent(boolean concurrent) {
+        this.executor = concurrent ? ForkJoinPool.commonPool() : null;
+    }
+
+    /**
+     * Sets the executor used in concurrent mode.
+     *
+     * @param executor  an Executor, or null to turn concurrent mode off
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Determines whether the component finder runs in concurrent mode.
+     *
+     * @return  true if concurrent mode is on, false otherwise
+     */
+    public boolean isConcurrent() {
+        return executor != null;
+    }
+
+    /**
+     * Gets the budget used when finding dependencies between components.
+     *
+     * @return  a DependencyAnalysisBudget, or null if dependencies are found exactly (the default)
+     */
+    public DependencyAnalysisBudget getDependencyAnalysisBudget() {
+        return dependencyAnalysisBudget;
+    }
+
+    /**
+     * Sets a budget for finding dependencies between components, in which case the relationships found
+     * may be approximate. See {@link DependencyAnalysisBudget} for details.
+     *
+     * @param dependencyAnalysisBudget  a DependencyAnalysisBudget, or null to find dependencies exactly
+     */
+    public void setDependencyAnalysisBudget(DependencyAnalysisBudget dependencyAnalysisBudget) {
+        this.dependencyAnalysisBudget = dependencyAnalysisBudget;
+    }
+
+    /**
+     * Gets the object in which the type paths that explain the dependencies between components are recorded.
+     *
+     * @return  a DependencyPaths object, or null if paths are not recorded (the default)
+     */
+    public DependencyPaths getDependencyPaths() {
+        return dependencyPaths;
+    }
+
+    /**
+     * Sets an object in which to record the type paths that explain the dependencies between components,
+     * when they are found. See {@link DependencyPaths} for details.
+     *
+     * @param dependencyPaths   a DependencyPaths object, or null to not record paths
+     */
+    public void setDependencyPaths(DependencyPaths dependencyPaths) {
+        this.dependencyPaths = dependencyPaths;
+    }
+
+    DependencyListener getDependencyListener() {
+        return dependencyListener;
+    }
+
+    void setDependencyListener(DependencyListener dependencyListener) {
+        this.dependencyListener = dependencyListener;
+    }
+
+    List<ComponentFinderStrategy> getComponentFinderStrategies() {
+        return new ArrayList<>(componentFinderStrategies);
+    }
+
     /**
      * Gets the Container that components will be added to.
      *
@@ -42,4 +42,24 @@ public interface ComponentFinderStrategy {
      */
     void afterFindComponents() throws Exception;
 
-}
\ No newline at end of file
+    /**
+     * Called after an incremental update (see {@link IncrementalComponentFinder}) has re-analysed the specified
+     * components, so that anything this strategy adds to them (e.g. the size of their code elements) can be
+     * calculated again, including for any supporting types that have been added.
+     *
+     * @param components    the Set of Components that were re-analysed
+     * @throws Exception    if something goes wrong
+     */
+    default void afterUpdateComponents(Set<Component> components) throws Exception {
+    }
+
+    /**
+     * Called after a dry run (see {@link ComponentFinder#analyse()}), so that any state referring to the
+     * throwaway components that were found can be discarded before the next run.
+     *
+     * @param components    the Set of Components found by the dry run
+     */
+    default void discardComponents(Set<Component> components) {
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Element;
+import com.structurizr.model.Relationship;
+
+import java.util.*;
+
+/**
+ * The components in a container, and the relationships between them, as an indexed graph where the
+ * direct successors of each component are held in a BitSet. Components are numbered in name order.
+ * Relationships tagged "Removed" by the {@link IncrementalComponentFinder} are ignored.
+ */
+final class ComponentGraph {
+
+    private final List<Component> components;
+    private final Map<Component, Integer> indexes = new HashMap<>();
+    private final BitSet[] successors;
+
+    private BitSet[] reachable;
+
+    ComponentGraph(Container container) {
+        components = new ArrayList<>(container.getComponents());
+        components.sort(Comparator.comparing(Component::getName));
+
+        for (int i = 0; i < components.size(); i++) {
+            indexes.put(components.get(i), i);
+        }
+
+        successors = new BitSet[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            successors[i] = new BitSet(components.size());
+            for (Relationship relationship : components.get(i).getRelationships()) {
+                Integer destination = indexes.get(relationship.getDestination());
+                if (destination != null && destination != i && !relationship.hasTag(IncrementalComponentFinder.REMOVED_TAG)) {
+                    successors[i].set(destination);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return components.size();
+    }
+
+    Component getComponent(int index) {
+        return components.get(index);
+    }
+
+    List<Component> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    int indexOf(Element element) {
+        Integer index = indexes.get(element);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets the components that the specified component has a relationship with (do not modify this).
+     */
+    BitSet getSuccessors(int index) {
+        return successors[index];
+    }
+
+    /**
+     * Gets the components that the specified component depends on, directly or indirectly (do not modify this).
+     * The reachability of all components is computed on first use.
+     */
+    BitSet getReachable(int index) {
+        if (reachable == null) {
+            reachable = computeReachability(successors);
+        }
+
+        return reachable[index];
+    }
+
+    /**
+     * Computes the transitive closure of a graph, by condensing it into its strongly connected components and
+     * visiting those in dependency order, so that the reachability of each group is the union of that of the
+     * groups it depends upon (one BitSet "or" per edge, rather than the cubic cost of Warshall's algorithm).
+     * Components in a cycle can reach themselves.
+     */
+    static BitSet[] computeReachability(BitSet[] successors) {
+        StronglyConnectedComponents scc = StronglyConnectedComponents.of(successors);
+        int numberOfGroups = scc.getNumberOfGroups();
+
+        List<List<Integer>> members = new ArrayList<>(numberOfGroups);
+        for (int group = 0; group < numberOfGroups; group++) {
+            members.add(new ArrayList<>());
+        }
+        for (int i = 0; i < successors.length; i++) {
+            members.get(scc.getGroup(i)).add(i);
+        }
+
+        BitSet[] reachableFromGroup = new BitSet[numberOfGroups];
+        for (int group = 0; group < numberOfGroups; group++) {
+            BitSet reachableFromThisGroup = new BitSet(successors.length);
+            for (int i : members.get(group)) {
+                reachableFromThisGroup.or(successors[i]);
+                for (int j = successors[i].nextSetBit(0); j >= 0; j = successors[i].nextSetBit(j + 1)) {
+                    if (scc.getGroup(j) != group) {
+                        // groups are numbered dependencies first, so this has been computed already
+                        reachableFromThisGroup.or(reachableFromGroup[scc.getGroup(j)]);
+                    }
+                }
+            }
+            reachableFromGroup[group] = reachableFromThisGroup;
+        }
+
+        BitSet[] reachable = new BitSet[successors.length];
+        for (int i = 0; i < successors.length; i++) {
+            reachable[i] = reachableFromGroup[scc.getGroup(i)];
+        }
+
+        return reachable;
+    }
+
+    /**
+     * Selects components.
+     *
+     * @param selector  a ComponentSelector
+     * @return  a BitSet of the selected component indexes
+     */
+    BitSet select(ComponentSelector selector) {
+        BitSet selected = new BitSet(components.size());
+        for (int i = 0; i < components.size(); i++) {
+            if (selector.selects(components.get(i))) {
+                selected.set(i);
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * Finds a shortest path between two components.
+     *
+     * @return  the component indexes from source to destination (inclusive), or an empty list if there is no path
+     */
+    List<Integer> findShortestPath(int source, int destination) {
+        int[] predecessors = new int[components.size()];
+        Arrays.fill(predecessors, -1);
+        BitSet visited = new BitSet(components.size());
+        Deque<Integer> queue = new ArrayDeque<>();
+        visited.set(source);
+        queue.add(source);
+
+        while (!queue.isEmpty()) {
+            int i = queue.poll();
+            if (i == destination) {
+                LinkedList<Integer> path = new LinkedList<>();
+                for (int j = destination; j != -1; j = predecessors[j]) {
+                    path.addFirst(j);
+                }
+                return path;
+            }
+
+            for (int j = successors[i].nextSetBit(0); j >= 0; j = successors[i].nextSetBit(j + 1)) {
+                if (!visited.get(j)) {
+                    visited.set(j);
+                    predecessors[j] = i;
+                    queue.add(j);
+                }
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+}
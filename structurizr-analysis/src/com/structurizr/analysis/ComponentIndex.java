@@ -0,0 +1,140 @@
+package com.structurizr.analysis;
+
+import com.structurizr.annotation.processing.ComponentIndexProcessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.*;
+
+/**
+ * The index of types annotated with the Structurizr annotations, as written by the
+ * {@link ComponentIndexProcessor} at compile time. Since each classpath root (directory or jar) has its own index,
+ * the roots that were indexed are recorded too.
+ */
+class ComponentIndex {
+
+    private static final String JAR_URL_PREFIX = "jar:";
+    private static final String JAR_URL_SEPARATOR = "!/";
+
+    private final Map<String, Set<String>> annotationsByType = new LinkedHashMap<>();
+    private final Properties properties = new Properties();
+    private final Set<String> roots = new HashSet<>();
+
+    /**
+     * Loads and merges all of the indexes that are visible to the specified class loader.
+     *
+     * @param classLoader   the ClassLoader to load the indexes from
+     * @return  a ComponentIndex, or null if no indexes could be found
+     * @throws IOException  if an index can't be read
+     */
+    static ComponentIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> urls = classLoader.getResources(ComponentIndexProcessor.INDEX_LOCATION);
+        if (!urls.hasMoreElements()) {
+            return null;
+        }
+
+        ComponentIndex index = new ComponentIndex();
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            try (InputStream in = url.openStream()) {
+                Properties properties = new Properties();
+                properties.load(in);
+                index.add(properties);
+            }
+            index.roots.add(getRoot(url));
+        }
+
+        return index;
+    }
+
+    void add(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(ComponentIndexProcessor.DESCRIPTION_SUFFIX) || key.endsWith(ComponentIndexProcessor.TECHNOLOGY_SUFFIX)) {
+                this.properties.setProperty(key, properties.getProperty(key));
+            } else {
+                Set<String> annotations = annotationsByType.computeIfAbsent(key, k -> new HashSet<>());
+                annotations.addAll(Arrays.asList(properties.getProperty(key).split(",")));
+            }
+        }
+    }
+
+    /**
+     * Gets the location of the classpath root containing the specified index, in the same form as the location
+     * of a CodeSource (e.g. "file:/path/to/classes/" or "file:/path/to/library.jar").
+     */
+    static String getRoot(URL indexUrl) {
+        String location = indexUrl.toExternalForm();
+        location = location.substring(0, location.length() - ComponentIndexProcessor.INDEX_LOCATION.length());
+
+        if (location.startsWith(JAR_URL_PREFIX) && location.endsWith(JAR_URL_SEPARATOR)) {
+            location = location.substring(JAR_URL_PREFIX.length(), location.length() - JAR_URL_SEPARATOR.length());
+        }
+
+        return location;
+    }
+
+    /**
+     * Determines whether the specified type was loaded from a classpath root that has an index. Types from other roots
+     * (e.g. compiled without the annotation processor) aren't in the index, whether or not they're annotated.
+     *
+     * @param type  a Class object
+     * @return  true if the root of the type has an index, false otherwise
+     */
+    boolean isIndexed(Class<?> type) {
+        try {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            return codeSource != null && codeSource.getLocation() != null && roots.contains(codeSource.getLocation().toExternalForm());
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the names of all types annotated @Component.
+     *
+     * @return  a List of fully qualified type names
+     */
+    List<String> getComponentTypes() {
+        List<String> types = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : annotationsByType.entrySet()) {
+            if (entry.getValue().contains("Component")) {
+                types.add(entry.getKey());
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * Determines whether the specified type is in the index.
+     *
+     * @param type          the fully qualified type name
+     * @return  true if the type (or one of its fields) has at least one Structurizr annotation, false otherwise
+     */
+    boolean containsType(String type) {
+        return annotationsByType.containsKey(type);
+    }
+
+    /**
+     * Determines whether the specified type has the specified Structurizr annotation.
+     *
+     * @param type          the fully qualified type name
+     * @param annotation    the simple name of the annotation (e.g. "UsesContainer")
+     * @return  true if the type (or one of its fields) has the annotation, false otherwise
+     */
+    boolean hasAnnotation(String type, String annotation) {
+        Set<String> annotations = annotationsByType.get(type);
+        return annotations != null && annotations.contains(annotation);
+    }
+
+    String getDescription(String type) {
+        return properties.getProperty(type + ComponentIndexProcessor.DESCRIPTION_SUFFIX, "");
+    }
+
+    String getTechnology(String type) {
+        return properties.getProperty(type + ComponentIndexProcessor.TECHNOLOGY_SUFFIX, "");
+    }
+
+}
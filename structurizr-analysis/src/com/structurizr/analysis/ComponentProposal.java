@@ -0,0 +1,41 @@
+package com.structurizr.analysis;
+
+/**
+ * A component that has been discovered by a component finder strategy, but not yet added to the container.
+ */
+public final class ComponentProposal {
+
+    private final String name;
+    private final String type;
+    private final String description;
+    private final String technology;
+
+    public ComponentProposal(String name, String type, String description, String technology) {
+        this.name = name;
+        this.type = type;
+        this.description = description;
+        this.technology = technology;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getTechnology() {
+        return technology;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + type + ")";
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Selects components (e.g. by technology, tag or name), for use in architecture rules.
+ */
+@FunctionalInterface
+public interface ComponentSelector {
+
+    boolean selects(Component component);
+
+    default ComponentSelector and(ComponentSelector other) {
+        return component -> selects(component) && other.selects(component);
+    }
+
+    default ComponentSelector or(ComponentSelector other) {
+        return component -> selects(component) || other.selects(component);
+    }
+
+    default ComponentSelector negate() {
+        return component -> !selects(component);
+    }
+
+    static ComponentSelector all() {
+        return component -> true;
+    }
+
+    /**
+     * Selects components with the specified technology (e.g. "Spring MVC Controller").
+     *
+     * @param technology    the technology, as a String
+     * @return  a ComponentSelector
+     */
+    static ComponentSelector withTechnology(String technology) {
+        if (technology == null) {
+            throw new IllegalArgumentException("A technology must be specified.");
+        }
+
+        return component -> technology.equals(component.getTechnology());
+    }
+
+    /**
+     * Selects components with the specified tag.
+     *
+     * @param tag   the tag, as a String
+     * @return  a ComponentSelector
+     */
+    static ComponentSelector withTag(String tag) {
+        if (tag == null) {
+            throw new IllegalArgumentException("A tag must be specified.");
+        }
+
+        return component -> component.hasTag(tag);
+    }
+
+    /**
+     * Selects components whose name matches the specified regex.
+     *
+     * @param regex     a regular expression, as a String
+     * @return  a ComponentSelector
+     */
+    static ComponentSelector withName(String regex) {
+        if (regex == null) {
+            throw new IllegalArgumentException("A regex must be specified.");
+        }
+
+        Pattern pattern = Pattern.compile(regex);
+        return component -> pattern.matcher(component.getName()).matches();
+    }
+
+    /**
+     * Selects components whose (primary) type matches the specified regex, e.g. "com\\.mycompany\\.web\\..*".
+     *
+     * @param regex     a regular expression, as a String
+     * @return  a ComponentSelector
+     */
+    static ComponentSelector withType(String regex) {
+        if (regex == null) {
+            throw new IllegalArgumentException("A regex must be specified.");
+        }
+
+        Pattern pattern = Pattern.compile(regex);
+        return component -> component.getType() != null && pattern.matcher(component.getType().getType()).matches();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A component finder strategy that can discover components without modifying the container (i.e. by only
+ * reading the type repository), which allows the discovery to run concurrently with other strategies
+ * when the component finder is in concurrent mode (see {@link ComponentFinder#setConcurrent(boolean)}).
+ */
+public interface ConcurrentComponentFinderStrategy extends ComponentFinderStrategy {
+
+    /**
+     * Discovers components, without modifying the container. This may be called concurrently with
+     * other strategies, so implementations must only read shared state.
+     *
+     * @return  a List of ComponentProposal objects, in the order they should be added
+     * @throws Exception    if something goes wrong
+     */
+    List<ComponentProposal> proposeComponents() throws Exception;
+
+    /**
+     * Adds the proposed components to the container. This is called for each strategy in turn,
+     * in the order the strategies were added to the component finder.
+     *
+     * @param proposals     the proposals returned by {@link #proposeComponents()}
+     * @return  the set of components found
+     * @throws Exception    if something goes wrong
+     */
+    Set<Component> addComponents(List<ComponentProposal> proposals) throws Exception;
+
+}
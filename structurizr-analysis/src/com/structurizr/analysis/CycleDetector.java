@@ -0,0 +1,173 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Finds cyclic dependencies between the components in a container (or between the types in a type repository),
+ * using Tarjan's strongly connected components algorithm.
+ *
+ * <pre>
+ * componentFinder.findComponents();
+ * List&lt;Set&lt;Component&gt;&gt; cycles = new CycleDetector().tagCycles(container);
+ * </pre>
+ */
+public class CycleDetector {
+
+    /** The tag given to components and relationships that are part of any cycle. */
+    public static final String CYCLE_TAG = "Cycle";
+
+    /** Components and relationships in the nth cycle are also tagged "Cycle n", so that tangles can be told apart. */
+    private static final String CYCLE_TAG_PREFIX = CYCLE_TAG + " ";
+
+    /**
+     * Finds the groups of components that depend on each other, directly or indirectly.
+     *
+     * @param container     the Container whose components should be checked
+     * @return  a List of cycles, each of which is a Set of two or more components (ordered by name), with the cycles
+     *          in dependency order (i.e. a cycle comes after any cycles it depends upon)
+     */
+    public List<Set<Component>> findCycles(Container container) {
+        List<Set<Component>> cycles = new ArrayList<>();
+        for (Set<Component> group : condense(container)) {
+            if (group.size() > 1) {
+                cycles.add(group);
+            }
+        }
+
+        return cycles;
+    }
+
+    /**
+     * Condenses the dependency graph of the specified container, so that each group of components that
+     * depend on each other becomes a single node.
+     *
+     * @param container     the Container whose components should be condensed
+     * @return  every component, in groups (most of which will have a single component), in dependency order
+     */
+    public List<Set<Component>> condense(Container container) {
+        if (container == null) {
+            throw new IllegalArgumentException("A container must be specified.");
+        }
+
+        ComponentGraph graph = new ComponentGraph(container);
+        BitSet[] successors = new BitSet[graph.size()];
+        for (int i = 0; i < successors.length; i++) {
+            successors[i] = graph.getSuccessors(i);
+        }
+
+        StronglyConnectedComponents scc = StronglyConnectedComponents.of(successors);
+        List<Set<Component>> groups = new ArrayList<>();
+        for (int group = 0; group < scc.getNumberOfGroups(); group++) {
+            groups.add(new LinkedHashSet<>());
+        }
+
+        for (int i = 0; i < graph.size(); i++) {
+            groups.get(scc.getGroup(i)).add(graph.getComponent(i));
+        }
+
+        return groups;
+    }
+
+    /**
+     * Finds cycles (as per {@link #findCycles(Container)}) and tags the components and relationships in each one
+     * with "Cycle" and "Cycle n". Cycle tags from any previous run are removed first.
+     *
+     * @param container     the Container whose components should be checked
+     * @return  a List of cycles, each of which is a Set of components
+     */
+    public List<Set<Component>> tagCycles(Container container) {
+        List<Set<Component>> cycles = findCycles(container);
+
+        for (Component component : container.getComponents()) {
+            removeCycleTags(component.getTagsAsSet(), component::removeTag);
+            for (Relationship relationship : component.getRelationships()) {
+                removeCycleTags(relationship.getTagsAsSet(), relationship::removeTag);
+            }
+        }
+
+        int n = 1;
+        for (Set<Component> cycle : cycles) {
+            String[] tags = { CYCLE_TAG, CYCLE_TAG_PREFIX + n };
+            for (Component component : cycle) {
+                component.addTags(tags);
+                for (Relationship relationship : component.getRelationships()) {
+                    if (cycle.contains(relationship.getDestination()) && !relationship.hasTag(IncrementalComponentFinder.REMOVED_TAG)) {
+                        relationship.addTags(tags);
+                    }
+                }
+            }
+            n++;
+        }
+
+        return cycles;
+    }
+
+    private void removeCycleTags(Set<String> tags, Consumer<String> removeTag) {
+        for (String tag : tags) {
+            if (tag.equals(CYCLE_TAG) || tag.startsWith(CYCLE_TAG_PREFIX)) {
+                removeTag.accept(tag);
+            }
+        }
+    }
+
+    /**
+     * Finds the groups of types (in the packages scanned by the type repository) that refer to each other,
+     * directly or indirectly.
+     *
+     * @param typeRepository    a TypeRepository
+     * @return  a List of cycles, each of which is a Set of two or more fully qualified type names, in dependency order
+     */
+    public List<Set<String>> findTypeCycles(TypeRepository typeRepository) {
+        if (typeRepository == null) {
+            throw new IllegalArgumentException("A type repository must be specified.");
+        }
+
+        List<String> typeNames = new ArrayList<>();
+        for (Class<?> type : typeRepository.getAllTypes()) {
+            if (type.getCanonicalName() != null) {
+                typeNames.add(type.getCanonicalName());
+            }
+        }
+        Collections.sort(typeNames);
+
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < typeNames.size(); i++) {
+            indexes.put(typeNames.get(i), i);
+        }
+
+        BitSet[] successors = new BitSet[typeNames.size()];
+        for (int i = 0; i < successors.length; i++) {
+            successors[i] = new BitSet();
+            for (Class<?> referencedType : typeRepository.findReferencedTypes(typeNames.get(i))) {
+                Integer j = indexes.get(referencedType.getCanonicalName());
+                if (j != null && j != i) {
+                    successors[i].set(j);
+                }
+            }
+        }
+
+        StronglyConnectedComponents scc = StronglyConnectedComponents.of(successors);
+        List<Set<String>> groups = new ArrayList<>();
+        for (int group = 0; group < scc.getNumberOfGroups(); group++) {
+            groups.add(new LinkedHashSet<>());
+        }
+        for (int i = 0; i < typeNames.size(); i++) {
+            groups.get(scc.getGroup(i)).add(typeNames.get(i));
+        }
+
+        List<Set<String>> cycles = new ArrayList<>();
+        for (Set<String> group : groups) {
+            if (group.size() > 1) {
+                cycles.add(group);
+            }
+        }
+
+        return cycles;
+    }
+
+}
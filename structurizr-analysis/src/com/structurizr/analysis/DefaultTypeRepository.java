@@ -3,6 +3,7 @@ package com.structurizr.analysis;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.LoaderClassPath;
+import javassist.NotFoundException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.reflections.ReflectionUtils;
@@ -31,14 +32,17 @@ public class DefaultTypeRepository implements TypeRepository {
 
     private static final Log log = LogFactory.getLog(DefaultTypeRepository.class);
 
-    private final Set<Class<?>> types;
+    private TypeView types;
     private final ClassLoader classLoader;
+    private final Collection<URL> urls;
 
     private List<String> packagesToScan;
     private Set<Pattern> exclusions = new HashSet<>();
 
     private ClassPool classPool;
-    private Map<String, Set<Class<?>>> referencedTypesCache = new HashMap<>();
+    private volatile AnalysisMonitor monitor = AnalysisMonitor.NONE;
+    private ReferencedTypesCache referencedTypesCache = new ReferencedTypesCache();
+    private List<JarIndex> jarIndexes;
 
     /**
      * Creates a new instance based upon a package to scan, and a set of exclusions.
@@ -57,12 +61,11 @@ public class DefaultTypeRepository implements TypeRepository {
      * @param exclusions        a Set of Pattern objects
      */
     DefaultTypeRepository(List<String> packagesToScan, Set<Pattern> exclusions, URLClassLoader urlClassLoader) {
-        final Collection<URL> urls;
-
         if (urlClassLoader == null) {
             classLoader = ClassLoader.getSystemClassLoader();
             urls = ClasspathHelper.forJavaClassPath();
-            classPool = ClassPool.getDefault();
+            // a private pool (backed by the system class path), since parsed classes are detached from it
+            classPool = new ClassPool(true);
         } else {
             classLoader = urlClassLoader;
             urls = asList(urlClassLoader.getURLs());
@@ -74,16 +77,34 @@ public class DefaultTypeRepository implements TypeRepository {
         if (exclusions != null) {
             this.exclusions.addAll(exclusions);
         }
+    }
 
-        AllTypesScanner allTypesScanner = new AllTypesScanner();
-        Reflections reflections = new Reflections(new ConfigurationBuilder()
-                .setUrls(urls)
-                .filterInputsBy(new FilterBuilder().includePackage(packagesToScan.toArray(new String[packagesToScan.size()])))
-                .setScanners(new SubTypesScanner(false), allTypesScanner)
-        );
+    /**
+     * Scans the classpath for types, which is deferred until the set of all types is actually needed.
+     */
+    private synchronized TypeView scan() {
+        if (types == null) {
+            AllTypesScanner allTypesScanner = new AllTypesScanner();
+            if (jarIndexes != null) {
+                for (JarIndex jarIndex : jarIndexes) {
+                    jarIndex.getTypeNames().forEach(allTypesScanner::add);
+                }
+            } else {
+                new Reflections(new ConfigurationBuilder()
+                        .setUrls(urls)
+                        .filterInputsBy(new FilterBuilder().includePackage(packagesToScan.toArray(new String[packagesToScan.size()])))
+                        .setScanners(new SubTypesScanner(false), allTypesScanner)
+                );
+            }
+
+            // a partial scan must not be kept
+            monitor.checkpoint();
+            monitor.progress(ProgressListener.Phase.SCANNING_TYPES, allTypesScanner.types.size(), allTypesScanner.types.size());
+
+            types = new TypeView(ReflectionUtils.forNames(allTypesScanner.types, classLoader));
+        }
 
-        types = new HashSet<>();
-        types.addAll(ReflectionUtils.forNames(allTypesScanner.types, classLoader));
+        return types;
     }
 
     @Override
@@ -106,7 +127,40 @@ public class DefaultTypeRepository implements TypeRepository {
      * @return  a Set of Class objects, or an empty set of no classes were found
      */
     public Set<Class<?>> getAllTypes() {
-        return new HashSet<>(types);
+        return new HashSet<>(scan().asSet());
+    }
+
+    /**
+     * Gets an immutable view of all of the types found by this type repository, without copying.
+     *
+     * @return  a TypeView
+     */
+    @Override
+    public TypeView getTypes() {
+        return scan();
+    }
+
+    /**
+     * Gets the facts about the specified type, using those computed during the scan where possible.
+     *
+     * @param typeName  the fully qualified type name
+     * @return  a TypeFacts object, or null if the type can't be loaded
+     */
+    @Override
+    public TypeFacts getTypeFacts(String typeName) {
+        TypeView scannedTypes;
+        synchronized (this) {
+            scannedTypes = types;
+        }
+
+        if (scannedTypes != null) {
+            TypeFacts facts = scannedTypes.getFacts(typeName);
+            if (facts != null) {
+                return facts;
+            }
+        }
+
+        return TypeRepository.super.getTypeFacts(typeName);
     }
 
     /**
@@ -116,18 +170,15 @@ public class DefaultTypeRepository implements TypeRepository {
      * @return          a Set of Class objects, or an empty set if none were found
      */
     public Set<Class<?>> findReferencedTypes(String typeName) {
-        Set<Class<?>> referencedTypes = new HashSet<>();
-
         // use the cached version if possible
-        if (referencedTypesCache.containsKey(typeName)) {
-            return referencedTypesCache.get(typeName);
+        Set<Class<?>> cachedReferencedTypes = referencedTypesCache.get(typeName);
+        if (cachedReferencedTypes != null) {
+            return cachedReferencedTypes;
         }
 
+        Set<Class<?>> referencedTypes = new HashSet<>();
         try {
-            CtClass cc = classPool.get(typeName);
-            for (Object referencedType : cc.getRefClasses()) {
-                String referencedTypeName = (String)referencedType;
-
+            for (String referencedTypeName : findReferencedTypeNames(typeName)) {
                 if (!isExcluded(referencedTypeName)) {
                     try {
                         referencedTypes.add(loadClass(referencedTypeName));
@@ -141,15 +192,83 @@ public class DefaultTypeRepository implements TypeRepository {
             referencedTypes.remove(loadClass(typeName));
         } catch (Exception e) {
             log.debug("Error finding referenced types for " + typeName + " ... ignoring.");
-
-            // since there was an error, we can't find the set of referenced types from it, so...
-            referencedTypesCache.put(typeName, new HashSet<>());
         }
 
         // cache for the next time
-        referencedTypesCache.put(typeName, referencedTypes);
+        return referencedTypesCache.put(typeName, referencedTypes);
+    }
 
-        return referencedTypes;
+    private Collection<String> findReferencedTypeNames(String typeName) throws NotFoundException {
+        if (jarIndexes != null) {
+            for (JarIndex jarIndex : jarIndexes) {
+                Set<String> referencedTypeNames = jarIndex.getReferencedTypeNames(typeName);
+                if (referencedTypeNames != null) {
+                    return referencedTypeNames;
+                }
+            }
+        }
+
+        CtClass cc = null;
+        try {
+            cc = classPool.get(typeName);
+
+            List<String> referencedTypeNames = new ArrayList<>();
+            for (Object referencedType : cc.getRefClasses()) {
+                referencedTypeNames.add((String)referencedType);
+            }
+
+            return referencedTypeNames;
+        } finally {
+            // the class pool would otherwise retain every CtClass that it has parsed
+            if (cc != null) {
+                cc.detach();
+            }
+        }
+    }
+
+    /**
+     * Discards the cached referenced types for the specified type, so that they are read from the class file again.
+     *
+     * @param typeName  the fully qualified type name
+     */
+    @Override
+    public void invalidate(String typeName) {
+        referencedTypesCache.remove(typeName);
+    }
+
+    /**
+     * Uses pre-built indexes of the jars on the classpath (in classpath order), instead of scanning the classpath
+     * and parsing class files. Types that aren't in any of the indexes are still parsed via the class pool.
+     */
+    void setJarIndexes(List<JarIndex> jarIndexes) {
+        this.jarIndexes = jarIndexes;
+    }
+
+    void setMonitor(AnalysisMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Gets the cache used by {@link #findReferencedTypes(String)}, which provides hit, miss and eviction counts.
+     *
+     * @return  a ReferencedTypesCache
+     */
+    public ReferencedTypesCache getReferencedTypesCache() {
+        return referencedTypesCache;
+    }
+
+    /**
+     * Sets the cache used by {@link #findReferencedTypes(String)}; by default, this holds the referenced types
+     * for up to {@link ReferencedTypesCache#DEFAULT_MAXIMUM_SIZE} types.
+     *
+     * @param referencedTypesCache  a ReferencedTypesCache
+     */
+    public void setReferencedTypesCache(ReferencedTypesCache referencedTypesCache) {
+        if (referencedTypesCache == null) {
+            throw new IllegalArgumentException("A referenced types cache must be specified.");
+        }
+
+        this.referencedTypesCache = referencedTypesCache;
     }
 
     private Set<Class<?>> filter(Set<Class<?>> types) {
@@ -176,10 +295,17 @@ public class DefaultTypeRepository implements TypeRepository {
 
         @Override
         public void scan(Object cls) {
-            String typeName = getMetadataAdapter().getClassName(cls);
+            add(getMetadataAdapter().getClassName(cls));
+        }
+
+        void add(String typeName) {
+            // Reflections swallows exceptions thrown by scanners, so skip the remaining types instead
+            if (monitor.isStopRequested()) {
+                return;
+            }
 
-            if (!isExcluded(typeName)) {
-                types.add(typeName);
+            if (!isExcluded(typeName) && types.add(typeName)) {
+                monitor.progress(ProgressListener.Phase.SCANNING_TYPES, types.size(), -1);
             }
         }
     }
@@ -0,0 +1,105 @@
+package com.structurizr.analysis;
+
+/**
+ * Bounds the work done when finding the dependencies between components, trading completeness for speed
+ * (e.g. for exploratory views of very large codebases). Set one on a component finder with
+ * {@link ComponentFinder#setDependencyAnalysisBudget(DependencyAnalysisBudget)}.
+ *
+ * The types referenced directly by the code elements of each component are always examined, so direct
+ * component to component references are always found. Beyond those, intermediate (non-component) types are
+ * followed breadth-first, up to the maximum depth, and only while the number of types visited and the time
+ * limit allow. When a sampling interval greater than 1 is set, only around 1 in N intermediate types are followed.
+ *
+ * When the dependencies of a component could not be fully explored, the relationships found beyond those
+ * direct references are given an {@value #APPROXIMATE_PROPERTY} property of "true", meaning the dependencies
+ * of the source component may be incomplete. Relationships found from direct references are always exact.
+ */
+public final class DependencyAnalysisBudget {
+
+    public static final String APPROXIMATE_PROPERTY = "approximate";
+
+    private int maximumDepth = 3;
+    private int maximumTypesVisited = 1000;
+    private long timeLimitInMilliseconds = 0;
+    private int samplingInterval = 1;
+
+    /**
+     * Gets the maximum depth; 1 means only the types referenced directly by the code elements of each
+     * component are examined.
+     *
+     * @return  the maximum depth (the default is 3)
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    public void setMaximumDepth(int maximumDepth) {
+        if (maximumDepth < 1) {
+            throw new IllegalArgumentException("The maximum depth must be 1 or more.");
+        }
+
+        this.maximumDepth = maximumDepth;
+    }
+
+    /**
+     * Gets the maximum number of intermediate types visited per component.
+     *
+     * @return  the maximum number of types (the default is 1000)
+     */
+    public int getMaximumTypesVisited() {
+        return maximumTypesVisited;
+    }
+
+    public void setMaximumTypesVisited(int maximumTypesVisited) {
+        if (maximumTypesVisited < 0) {
+            throw new IllegalArgumentException("The maximum number of types visited must be 0 or more.");
+        }
+
+        this.maximumTypesVisited = maximumTypesVisited;
+    }
+
+    /**
+     * Gets the time limit for finding the dependencies of all components; once this has passed,
+     * only direct references are examined for the remaining components.
+     *
+     * @return  the time limit in milliseconds, or 0 for no limit (the default)
+     */
+    public long getTimeLimitInMilliseconds() {
+        return timeLimitInMilliseconds;
+    }
+
+    public void setTimeLimitInMilliseconds(long timeLimitInMilliseconds) {
+        if (timeLimitInMilliseconds < 0) {
+            throw new IllegalArgumentException("The time limit must be 0 or more.");
+        }
+
+        this.timeLimitInMilliseconds = timeLimitInMilliseconds;
+    }
+
+    /**
+     * Gets the sampling interval for intermediate types; which types are followed is decided by the
+     * type name, so the results are the same from run to run.
+     *
+     * @return  N, where around 1 in N intermediate types are followed (the default is 1, meaning all of them)
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public void setSamplingInterval(int samplingInterval) {
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("The sampling interval must be 1 or more.");
+        }
+
+        this.samplingInterval = samplingInterval;
+    }
+
+    boolean isSampled(String typeName) {
+        return samplingInterval == 1 || Math.floorMod(typeName.hashCode(), samplingInterval) == 0;
+    }
+
+    long getDeadline(long startTime) {
+        return timeLimitInMilliseconds > 0 ? startTime + timeLimitInMilliseconds * 1000000L : Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Element;
+import com.structurizr.model.Relationship;
+import com.structurizr.util.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Finds the components that a component depends upon, by following the types referenced by its code elements
+ * (and, transitively, by any types referenced that aren't components themselves). When a budget is specified,
+ * the transitive part of this is bounded, and the results may be approximate. When dependency paths are specified,
+ * the path followed to each dependency is recorded.
+ */
+class DependencyFinder {
+
+    private static final Log log = LogFactory.getLog(DependencyFinder.class);
+
+    private final Container container;
+    private final TypeRepository typeRepository;
+    private final DependencyAnalysisBudget budget;
+    private final long deadline;
+    private final DependencyPaths paths;
+
+    private boolean approximate;
+    private final Set<Component> directDependencies = new HashSet<>();
+
+    DependencyFinder(Container container, TypeRepository typeRepository) {
+        this(container, typeRepository, null);
+    }
+
+    DependencyFinder(Container container, TypeRepository typeRepository, DependencyAnalysisBudget budget) {
+        this(container, typeRepository, budget, null);
+    }
+
+    DependencyFinder(Container container, TypeRepository typeRepository, DependencyAnalysisBudget budget, DependencyPaths paths) {
+        this.container = container;
+        this.typeRepository = typeRepository;
+        this.budget = budget;
+        this.deadline = budget != null ? budget.getDeadline(System.nanoTime()) : Long.MAX_VALUE;
+        this.paths = paths;
+    }
+
+    /**
+     * Finds the components that the specified component depends upon.
+     *
+     * @param component     the source component
+     * @param typesVisited  a Set to which the names of all types visited are added
+     * @return  an ordered Set of Component objects
+     */
+    Set<Component> findEfferentDependencies(Component component, Set<String> typesVisited) {
+        List<String> codeTypes = new ArrayList<>();
+        for (CodeElement codeElement : component.getCode()) {
+            codeTypes.add(codeElement.getType());
+        }
+
+        return findEfferentDependencies(component, codeTypes, typesVisited);
+    }
+
+    /**
+     * Finds the components that the specified component depends upon, starting from the specified types
+     * rather than the code elements of the component (e.g. when some of those no longer apply).
+     *
+     * @param component     the source component
+     * @param codeTypes     the names of the types that make up the component
+     * @param typesVisited  a Set to which the names of all types visited are added
+     * @return  an ordered Set of Component objects
+     */
+    Set<Component> findEfferentDependencies(Component component, Collection<String> codeTypes, Set<String> typesVisited) {
+        approximate = false;
+        directDependencies.clear();
+        if (paths != null) {
+            paths.start();
+        }
+
+        Set<Component> dependencies;
+        if (budget != null) {
+            dependencies = findEfferentDependenciesWithinBudget(component, codeTypes, typesVisited);
+        } else {
+            dependencies = new LinkedHashSet<>();
+            for (String codeType : codeTypes) {
+                if (!typesVisited.contains(codeType)) {
+                    int typeId = -1;
+                    if (paths != null) {
+                        typeId = paths.getId(codeType);
+                        paths.visitCodeElement(typeId);
+                    }
+                    findEfferentDependencies(component, codeType, typeId, typesVisited, dependencies);
+                }
+            }
+        }
+
+        if (paths != null) {
+            paths.finish(component);
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Follows the types referenced by the specified type (typeId is only used when recording dependency paths).
+     */
+    private void findEfferentDependencies(Component component, String type, int typeId, Set<String> typesVisited, Set<Component> dependencies) {
+        typesVisited.add(type);
+
+        for (Class<?> referencedType : typeRepository.findReferencedTypes(type)) {
+            try {
+                if (!isNestedClass(referencedType)) {
+                    String referencedTypeName = referencedType.getCanonicalName();
+                    if (!StringUtils.isNullOrEmpty(referencedTypeName)) {
+                        Component destinationComponent = findComponent(container, referencedTypeName);
+                        if (destinationComponent != null) {
+                            if (component != destinationComponent && dependencies.add(destinationComponent) && paths != null) {
+                                paths.reach(destinationComponent, typeId, paths.getId(referencedTypeName));
+                            }
+                        } else if (!typesVisited.contains(referencedTypeName)) {
+                            int referencedTypeId = -1;
+                            if (paths != null) {
+                                referencedTypeId = paths.getId(referencedTypeName);
+                                paths.visit(referencedTypeId, typeId);
+                            }
+                            findEfferentDependencies(component, referencedTypeName, referencedTypeId, typesVisited, dependencies);
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                log.warn(t);
+            }
+        }
+    }
+
+    /**
+     * Determines whether the last call to findEfferentDependencies stopped short of exploring every type,
+     * because of the budget.
+     *
+     * @return  true if the dependencies found may be incomplete, false otherwise
+     */
+    boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * Determines whether a dependency found by the last call to findEfferentDependencies is approximate;
+     * i.e. the budget stopped short of exploring every type, and the dependency wasn't found via a type referenced
+     * directly by a code element (those are always found, so are exact).
+     *
+     * @param destination   a Component returned by the last call to findEfferentDependencies
+     * @return  true if the dependency is approximate, false otherwise
+     */
+    boolean isApproximate(Component destination) {
+        return approximate && !directDependencies.contains(destination);
+    }
+
+    /**
+     * A breadth-first version of the above, so that the nearest types are examined first. The first level
+     * (the types referenced by the code elements) is always examined in full.
+     */
+    private Set<Component> findEfferentDependenciesWithinBudget(Component component, Collection<String> codeTypes, Set<String> typesVisited) {
+        Set<Component> dependencies = new LinkedHashSet<>();
+        List<String> typesAtThisDepth = new ArrayList<>();
+        for (String codeType : codeTypes) {
+            if (typesVisited.add(codeType)) {
+                typesAtThisDepth.add(codeType);
+                if (paths != null) {
+                    paths.visitCodeElement(paths.getId(codeType));
+                }
+            }
+        }
+
+        int depth = 1;
+        int intermediateTypesVisited = 0;
+        while (!typesAtThisDepth.isEmpty()) {
+            List<String> typesAtNextDepth = new ArrayList<>();
+
+            for (String type : typesAtThisDepth) {
+                if (depth > 1) {
+                    if (intermediateTypesVisited >= budget.getMaximumTypesVisited() || isDeadlinePassed()) {
+                        approximate = true;
+                        return dependencies;
+                    }
+                    intermediateTypesVisited++;
+                }
+
+                int typeId = paths != null ? paths.getId(type) : -1;
+                for (Class<?> referencedType : typeRepository.findReferencedTypes(type)) {
+                    try {
+                        if (!isNestedClass(referencedType)) {
+                            String referencedTypeName = referencedType.getCanonicalName();
+                            if (!StringUtils.isNullOrEmpty(referencedTypeName)) {
+                                Component destinationComponent = findComponent(container, referencedTypeName);
+                                if (destinationComponent != null) {
+                                    if (component != destinationComponent && dependencies.add(destinationComponent)) {
+                                        if (depth == 1) {
+                                            directDependencies.add(destinationComponent);
+                                        }
+                                        if (paths != null) {
+                                            paths.reach(destinationComponent, typeId, paths.getId(referencedTypeName));
+                                        }
+                                    }
+                                } else if (!typesVisited.contains(referencedTypeName)) {
+                                    if (depth >= budget.getMaximumDepth() || !budget.isSampled(referencedTypeName)) {
+                                        approximate = true;
+                                    } else {
+                                        typesVisited.add(referencedTypeName);
+                                        typesAtNextDepth.add(referencedTypeName);
+                                        if (paths != null) {
+                                            paths.visit(paths.getId(referencedTypeName), typeId);
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    } catch (Throwable t) {
+                        log.warn(t);
+                    }
+                }
+            }
+
+            typesAtThisDepth = typesAtNextDepth;
+            depth++;
+        }
+
+        return dependencies;
+    }
+
+    private boolean isDeadlinePassed() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0;
+    }
+
+    /**
+     * Adds a "uses" relationship (with no description) from each source component to each of its dependencies,
+     * unless such a relationship exists already. The existing relationships of each source component are read once,
+     * rather than being scanned for every dependency.
+     *
+     * @param dependencies  a Map of source component to the components it depends upon
+     * @return  the relationships that were added, in order
+     */
+    static List<Relationship> addRelationships(Map<Component, Set<Component>> dependencies) {
+        List<Relationship> relationshipsAdded = new ArrayList<>();
+
+        for (Map.Entry<Component, Set<Component>> entry : dependencies.entrySet()) {
+            Component source = entry.getKey();
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+
+            Set<Element> existingDestinations = new HashSet<>();
+            for (Relationship relationship : source.getRelationships()) {
+                if ("".equalsIgnoreCase(relationship.getDescription())) {
+                    existingDestinations.add(relationship.getDestination());
+                }
+            }
+
+            for (Component destination : entry.getValue()) {
+                if (existingDestinations.add(destination)) {
+                    Relationship relationship = source.uses(destination, "");
+                    if (relationship != null) {
+                        relationshipsAdded.add(relationship);
+                    }
+                }
+            }
+        }
+
+        return relationshipsAdded;
+    }
+
+    static boolean isNestedClass(Class<?> type) {
+        return type != null && type.getName().indexOf('$') > -1;
+    }
+
+    static Component findComponent(Container container, String typeName) {
+        Component componentOfType = container.getComponentOfType(typeName);
+        if (componentOfType == null) {
+            componentOfType = container.getComponentWithName(typeName);
+        }
+        return componentOfType;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+
+import java.util.Set;
+
+/**
+ * Notified as the (exact) dependencies of each component are found, so that the results of a full run
+ * can be captured without walking the types again.
+ */
+interface DependencyListener {
+
+    /**
+     * Called when the dependencies of a component have been found.
+     *
+     * @param component     the source Component
+     * @param typesVisited  the names of the types visited
+     * @param dependencies  the components that the source component depends upon
+     */
+    void dependenciesFound(Component component, Set<String> typesVisited, Set<Component> dependencies);
+
+}
@@ -0,0 +1,206 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+
+import java.util.*;
+
+/**
+ * Records why one component depends upon another: the chain of types, from a code element of the source component
+ * to the type of the destination component, that was followed when the dependency was found.
+ *
+ * While finding dependencies, each type visited is given an int id, and a predecessor (the type that referenced it)
+ * is recorded in an int array; no strings or objects are created per type visited. When the dependencies of a
+ * component have been found, the predecessors of the types visited are kept in sorted arrays, from which the path
+ * for any relationship can be reconstructed on demand.
+ *
+ * To use this, set an instance on the component finder before finding components:
+ * <pre>
+ * DependencyPaths dependencyPaths = new DependencyPaths();
+ * componentFinder.setDependencyPaths(dependencyPaths);
+ * componentFinder.findComponents();
+ *
+ * List&lt;String&gt; path = dependencyPaths.getPath(source, destination);
+ * </pre>
+ */
+public final class DependencyPaths {
+
+    public static final String PATH_PROPERTY = "Path";
+
+    private static final int NOT_VISITED = -2;
+    private static final int NO_PREDECESSOR = -1;
+
+    // type ids
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] typeNames = new String[64];
+
+    // the predecessors of the types visited during the current traversal, indexed by type id
+    private int[] predecessors = new int[64];
+    private int[] typesVisited = new int[64];
+    private int numberOfTypesVisited;
+
+    // the components reached during the current traversal, and the types via which they were reached
+    private Component[] destinations = new Component[8];
+    private long[] destinationTypes = new long[8];
+    private int numberOfDestinations;
+
+    private final Map<Component, Paths> pathsByComponent = new HashMap<>();
+
+    public DependencyPaths() {
+        Arrays.fill(predecessors, NOT_VISITED);
+    }
+
+    /**
+     * Gets the type path that explains why the source component depends upon the destination component.
+     *
+     * @param source        the source Component
+     * @param destination   the destination Component
+     * @return  a List of fully qualified type names (starting with a code element of the source component, and
+     *          ending with the type of the destination component), or an empty list if no path was recorded
+     */
+    public synchronized List<String> getPath(Component source, Component destination) {
+        Paths paths = pathsByComponent.get(source);
+        if (paths == null) {
+            return Collections.emptyList();
+        }
+
+        Long destinationType = paths.destinationTypes.get(destination);
+        if (destinationType == null) {
+            return Collections.emptyList();
+        }
+
+        LinkedList<String> path = new LinkedList<>();
+        path.add(typeNames[(int)destinationType.longValue()]);
+
+        int type = (int)(destinationType >>> 32);
+        for (int i = 0; type >= 0 && i <= paths.types.length; i++) {
+            path.addFirst(typeNames[type]);
+            type = paths.getPredecessor(type);
+        }
+
+        return path;
+    }
+
+    /**
+     * Adds a property ({@link #PATH_PROPERTY}) to each of the relationships between the components in the specified
+     * container for which a path has been recorded, with the type names separated by " -> ".
+     *
+     * @param container     a Container
+     */
+    public void addPathProperties(Container container) {
+        for (Component component : container.getComponents()) {
+            for (Relationship relationship : component.getRelationships()) {
+                if (relationship.getDestination() instanceof Component) {
+                    List<String> path = getPath(component, (Component)relationship.getDestination());
+                    if (!path.isEmpty()) {
+                        relationship.addProperty(PATH_PROPERTY, String.join(" -> ", path));
+                    }
+                }
+            }
+        }
+    }
+
+    int getId(String typeName) {
+        Integer id = ids.get(typeName);
+        if (id == null) {
+            id = ids.size();
+            ids.put(typeName, id);
+
+            if (id == typeNames.length) {
+                typeNames = Arrays.copyOf(typeNames, id * 2);
+                predecessors = Arrays.copyOf(predecessors, id * 2);
+                Arrays.fill(predecessors, id, id * 2, NOT_VISITED);
+            }
+            typeNames[id] = typeName;
+        }
+
+        return id;
+    }
+
+    void start() {
+        numberOfTypesVisited = 0;
+        numberOfDestinations = 0;
+    }
+
+    /**
+     * Records that a type was visited, having been referenced by another (or NO_PREDECESSOR for a code element).
+     */
+    void visit(int type, int predecessor) {
+        if (predecessors[type] != NOT_VISITED) {
+            return;
+        }
+
+        predecessors[type] = predecessor;
+        if (numberOfTypesVisited == typesVisited.length) {
+            typesVisited = Arrays.copyOf(typesVisited, numberOfTypesVisited * 2);
+        }
+        typesVisited[numberOfTypesVisited++] = type;
+    }
+
+    void visitCodeElement(int type) {
+        visit(type, NO_PREDECESSOR);
+    }
+
+    /**
+     * Records that a component was reached, via a reference from a visited type to the component's type.
+     */
+    void reach(Component destination, int type, int destinationType) {
+        if (numberOfDestinations == destinations.length) {
+            destinations = Arrays.copyOf(destinations, numberOfDestinations * 2);
+            destinationTypes = Arrays.copyOf(destinationTypes, numberOfDestinations * 2);
+        }
+
+        destinations[numberOfDestinations] = destination;
+        destinationTypes[numberOfDestinations] = ((long)type << 32) | destinationType;
+        numberOfDestinations++;
+    }
+
+    /**
+     * Keeps the paths found by the current traversal (replacing any previously recorded for the component),
+     * and resets the predecessor array for the next.
+     */
+    synchronized void finish(Component source) {
+        long[] typesAndPredecessors = new long[numberOfTypesVisited];
+        for (int i = 0; i < numberOfTypesVisited; i++) {
+            int type = typesVisited[i];
+            typesAndPredecessors[i] = ((long)type << 32) | (predecessors[type] & 0xffffffffL);
+            predecessors[type] = NOT_VISITED;
+        }
+        Arrays.sort(typesAndPredecessors);
+
+        Map<Component, Long> destinationTypesByComponent = new HashMap<>();
+        for (int i = 0; i < numberOfDestinations; i++) {
+            destinationTypesByComponent.putIfAbsent(destinations[i], destinationTypes[i]);
+            destinations[i] = null;
+        }
+
+        pathsByComponent.put(source, new Paths(typesAndPredecessors, destinationTypesByComponent));
+        numberOfTypesVisited = 0;
+        numberOfDestinations = 0;
+    }
+
+    private static final class Paths {
+
+        private final int[] types;
+        private final int[] predecessors;
+        private final Map<Component, Long> destinationTypes;
+
+        Paths(long[] typesAndPredecessors, Map<Component, Long> destinationTypes) {
+            this.types = new int[typesAndPredecessors.length];
+            this.predecessors = new int[typesAndPredecessors.length];
+            for (int i = 0; i < typesAndPredecessors.length; i++) {
+                types[i] = (int)(typesAndPredecessors[i] >>> 32);
+                predecessors[i] = (int)typesAndPredecessors[i];
+            }
+            this.destinationTypes = destinationTypes;
+        }
+
+        int getPredecessor(int type) {
+            int index = Arrays.binarySearch(types, type);
+            return index >= 0 ? predecessors[index] : NO_PREDECESSOR;
+        }
+
+    }
+
+}
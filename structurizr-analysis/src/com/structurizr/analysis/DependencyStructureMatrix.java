@@ -0,0 +1,339 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.Container;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A dependency structure matrix (DSM) of the components found by a {@link ComponentFinder}, built from the
+ * relationships between them. Row i, column j holds the weight of the dependency of component i on component j,
+ * which is the number of direct references from the types of component i to the types of component j
+ * (see {@link AnalysisResult#getEdgeWeight(int)}), and whether component j can be reached from component i at all.
+ *
+ * Components are ordered so that dependencies come first, with the components in each cycle next to one another,
+ * which leaves most dependencies below the diagonal. The direct dependencies are held sparsely (per row), and
+ * the reachability is held as one packed BitSet per row, so that containers with thousands of components
+ * fit into a few megabytes.
+ */
+public final class DependencyStructureMatrix {
+
+    private static final int BINARY_FORMAT_MAGIC = 0x44534D31; // "DSM1"
+
+    private final String[] names;
+
+    // the direct dependencies of row i are columns[rowOffsets[i]] to columns[rowOffsets[i+1] - 1], with weights alongside
+    private final int[] rowOffsets;
+    private final int[] columns;
+    private final int[] weights;
+
+    private final BitSet[] reachable;
+
+    private DependencyStructureMatrix(String[] names, int[] rowOffsets, int[] columns, int[] weights, BitSet[] reachable) {
+        this.names = names;
+        this.rowOffsets = rowOffsets;
+        this.columns = columns;
+        this.weights = weights;
+        this.reachable = reachable;
+    }
+
+    /**
+     * Builds a dependency structure matrix from the components in the specified container. The types referenced
+     * by the code elements of each component aren't known, so every dependency has a weight of 1;
+     * use {@link #build(Container, TypeRepository)} or {@link #build(AnalysisResult)} to weight them.
+     *
+     * @param container     a Container
+     * @return  a DependencyStructureMatrix
+     */
+    public static DependencyStructureMatrix build(Container container) {
+        return build(container, null);
+    }
+
+    /**
+     * Builds a dependency structure matrix from the components in the specified container
+     * (e.g. after {@link ComponentFinder#findComponents()}), weighting the dependencies with the type references
+     * found by the specified type repository (e.g. that returned by {@link ComponentFinder#getTypeRepository()}).
+     *
+     * @param container         a Container
+     * @param typeRepository    the TypeRepository used to weight dependencies, or null (in which case all weights are 1)
+     * @return  a DependencyStructureMatrix
+     */
+    public static DependencyStructureMatrix build(Container container, TypeRepository typeRepository) {
+        if (container == null) {
+            throw new IllegalArgumentException("A container must be specified.");
+        }
+
+        return build(AnalysisResult.of(container, typeRepository));
+    }
+
+    /**
+     * Builds a dependency structure matrix from the components in the specified analysis result
+     * (e.g. that returned by {@link ComponentFinder#analyse()}).
+     * Relationships tagged "Removed" by the {@link IncrementalComponentFinder} are ignored.
+     *
+     * @param result    an AnalysisResult
+     * @return  a DependencyStructureMatrix
+     */
+    public static DependencyStructureMatrix build(AnalysisResult result) {
+        if (result == null) {
+            throw new IllegalArgumentException("An analysis result must be specified.");
+        }
+
+        int size = result.getNumberOfComponents();
+
+        // there can be several edges between two components (with different descriptions), all with the same weight
+        BitSet[] successors = new BitSet[size];
+        List<TreeMap<Integer, Integer>> weightsByComponent = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            successors[i] = new BitSet(size);
+            weightsByComponent.add(new TreeMap<>());
+        }
+        for (int edge = 0; edge < result.getNumberOfEdges(); edge++) {
+            int source = result.getEdgeSource(edge);
+            int destination = result.getEdgeDestination(edge);
+            if (source != destination && !result.hasEdgeTag(edge, IncrementalComponentFinder.REMOVED_TAG)) {
+                successors[source].set(destination);
+                weightsByComponent.get(source).merge(destination, result.getEdgeWeight(edge), Math::max);
+            }
+        }
+
+        // order components by group (dependencies first), and then by name
+        StronglyConnectedComponents scc = StronglyConnectedComponents.of(successors);
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> scc.getGroup(i)).thenComparingInt(i -> i));
+
+        int[] positions = new int[size];
+        String[] names = new String[size];
+        for (int position = 0; position < size; position++) {
+            positions[order[position]] = position;
+            names[position] = result.getComponentName(order[position]);
+        }
+
+        int[] rowOffsets = new int[size + 1];
+        int[] columns = new int[0];
+        int[] weights = new int[0];
+        int numberOfEntries = 0;
+        for (int position = 0; position < size; position++) {
+            TreeMap<Integer, Integer> row = new TreeMap<>();
+            weightsByComponent.get(order[position]).forEach((destination, weight) -> row.put(positions[destination], weight));
+
+            if (numberOfEntries + row.size() > columns.length) {
+                columns = Arrays.copyOf(columns, Math.max(numberOfEntries + row.size(), columns.length * 2));
+                weights = Arrays.copyOf(weights, columns.length);
+            }
+            for (Map.Entry<Integer, Integer> entry : row.entrySet()) {
+                columns[numberOfEntries] = entry.getKey();
+                weights[numberOfEntries] = entry.getValue();
+                numberOfEntries++;
+            }
+            rowOffsets[position + 1] = numberOfEntries;
+        }
+
+        BitSet[] reachableByComponent = ComponentGraph.computeReachability(successors);
+        BitSet[] reachable = new BitSet[size];
+        for (int position = 0; position < size; position++) {
+            BitSet reachableByIndex = reachableByComponent[order[position]];
+            reachable[position] = new BitSet(size);
+            for (int j = reachableByIndex.nextSetBit(0); j >= 0; j = reachableByIndex.nextSetBit(j + 1)) {
+                reachable[position].set(positions[j]);
+            }
+        }
+
+        return new DependencyStructureMatrix(names, rowOffsets, Arrays.copyOf(columns, numberOfEntries), Arrays.copyOf(weights, numberOfEntries), reachable);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Gets the names of the components, in row (and column) order.
+     *
+     * @return  a List of component names
+     */
+    public List<String> getComponentNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Gets the weight of the direct dependency of one component on another, which is the number of direct references
+     * from the types of the source component to the types of the destination component (or 1, if those aren't known).
+     *
+     * @param row       the row (source component) index
+     * @param column    the column (destination component) index
+     * @return  the weight, or 0 if the source component doesn't depend on the destination component directly
+     */
+    public int getDependencyWeight(int row, int column) {
+        int index = Arrays.binarySearch(columns, rowOffsets[row], rowOffsets[row + 1], column);
+        return index >= 0 ? weights[index] : 0;
+    }
+
+    /**
+     * Determines whether one component depends on another, directly or indirectly.
+     *
+     * @param row       the row (source component) index
+     * @param column    the column (destination component) index
+     * @return  true if the destination can be reached from the source, false otherwise
+     */
+    public boolean isReachable(int row, int column) {
+        return reachable[row].get(column);
+    }
+
+    /**
+     * Writes the direct dependency weights as CSV, with a header row and column of component names,
+     * and an empty cell where there is no dependency.
+     *
+     * @param writer    the Writer to write to
+     * @throws IOException  if the CSV can't be written
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writeCsv(writer, (row, column) -> {
+            int weight = getDependencyWeight(row, column);
+            return weight > 0 ? String.valueOf(weight) : "";
+        });
+    }
+
+    /**
+     * Writes the reachability as CSV, with a header row and column of component names,
+     * and a 1 where the column component can be reached from the row component.
+     *
+     * @param writer    the Writer to write to
+     * @throws IOException  if the CSV can't be written
+     */
+    public void writeReachabilityCsv(Writer writer) throws IOException {
+        writeCsv(writer, (row, column) -> isReachable(row, column) ? "1" : "");
+    }
+
+    private interface CellFormatter {
+        String format(int row, int column);
+    }
+
+    private void writeCsv(Writer writer, CellFormatter cellFormatter) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (String name : names) {
+            line.append(',').append(escape(name));
+        }
+        writer.write(line.append("\n").toString());
+
+        for (int row = 0; row < names.length; row++) {
+            line.setLength(0);
+            line.append(escape(names[row]));
+            for (int column = 0; column < names.length; column++) {
+                line.append(',').append(cellFormatter.format(row, column));
+            }
+            writer.write(line.append("\n").toString());
+        }
+        writer.flush();
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf(',') > -1 || value.indexOf('"') > -1 || value.indexOf('\n') > -1) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * Writes this matrix in a compact binary format, which can be read back with {@link #readBinary(InputStream)}.
+     *
+     * @param out   the OutputStream to write to
+     * @throws IOException  if the matrix can't be written
+     */
+    public void writeBinary(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(BINARY_FORMAT_MAGIC);
+        data.writeInt(names.length);
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+
+        for (int row = 0; row < names.length; row++) {
+            data.writeInt(rowOffsets[row + 1] - rowOffsets[row]);
+            for (int i = rowOffsets[row]; i < rowOffsets[row + 1]; i++) {
+                data.writeInt(columns[i]);
+                data.writeInt(weights[i]);
+            }
+
+            long[] words = reachable[row].toLongArray();
+            data.writeInt(words.length);
+            for (long word : words) {
+                data.writeLong(word);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a matrix written by {@link #writeBinary(OutputStream)}.
+     *
+     * @param in    the InputStream to read from
+     * @return  a DependencyStructureMatrix
+     * @throws IOException  if the matrix can't be read
+     */
+    public static DependencyStructureMatrix readBinary(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != BINARY_FORMAT_MAGIC) {
+            throw new IOException("This is not a dependency structure matrix.");
+        }
+
+        int size = data.readInt();
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[data.readInt()];
+            data.readFully(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int[] rowOffsets = new int[size + 1];
+        List<int[]> entries = new ArrayList<>();
+        BitSet[] reachable = new BitSet[size];
+        for (int row = 0; row < size; row++) {
+            int numberOfEntries = data.readInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                entries.add(new int[] { data.readInt(), data.readInt() });
+            }
+            rowOffsets[row + 1] = entries.size();
+
+            long[] words = new long[data.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = data.readLong();
+            }
+            reachable[row] = BitSet.valueOf(words);
+        }
+
+        int[] columns = new int[entries.size()];
+        int[] weights = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            columns[i] = entries.get(i)[0];
+            weights[i] = entries.get(i)[1];
+        }
+
+        return new DependencyStructureMatrix(names, rowOffsets, columns, weights, reachable);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        DependencyStructureMatrix that = (DependencyStructureMatrix) o;
+        return Arrays.equals(names, that.names) &&
+                Arrays.equals(rowOffsets, that.rowOffsets) &&
+                Arrays.equals(columns, that.columns) &&
+                Arrays.equals(weights, that.weights) &&
+                Arrays.equals(reachable, that.reachable);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(names) + Arrays.hashCode(columns);
+    }
+
+}
@@ -17,6 +17,10 @@ public class ExtendsClassTypeMatcher extends AbstractTypeMatcher {
         this.classType = classType;
     }
 
+    Class<?> getClassType() {
+        return classType;
+    }
+
     @Override
     public boolean matches(Class type) {
         return classType.isAssignableFrom(type);
@@ -21,7 +21,7 @@ public class FirstImplementationOfInterfaceSupportingTypesStrategy extends Suppo
         try {
             Class componentType = getTypeRepository().loadClass(component.getType().getType());
             if (componentType.isInterface()) {
-                Class type = TypeUtils.findFirstImplementationOfInterface(componentType, getTypeRepository().getAllTypes());
+                Class type = TypeUtils.findFirstImplementationOfInterface(componentType, getTypeRepository().getTypes().asSet());
                 if (type != null) {
                     set.add(type);
                 }
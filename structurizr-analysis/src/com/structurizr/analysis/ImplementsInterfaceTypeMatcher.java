@@ -17,6 +17,10 @@ public class ImplementsInterfaceTypeMatcher extends AbstractTypeMatcher {
         this.interfaceType = interfaceType;
     }
 
+    Class<?> getInterfaceType() {
+        return interfaceType;
+    }
+
     @Override
     public boolean matches(Class type) {
         return interfaceType.isAssignableFrom(type);
@@ -0,0 +1,406 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * <p>
+ *     Wraps a {@link ComponentFinder} so that, after a full run, the container can be updated from the set of class files
+ *     that have changed or been removed (e.g. as reported by a WatchService on the compiler output directories),
+ *     rather than analysing the whole codebase again.
+ * </p>
+ *
+ * <p>
+ *     The full run records, for every component, the types visited when finding its dependencies. An update then
+ *     re-analyses only those components that visited (or depend upon) a changed type: their supporting types are found
+ *     again, their dependencies are recalculated, the differences are applied to the container, and then each strategy
+ *     is given the chance to supplement the components again (e.g. with the size of their code elements).
+ *     Since components and relationships can't be removed from a container, those that no longer exist
+ *     are tagged "Removed" instead (and the tag is removed again if they reappear). Likewise, code elements can't be
+ *     removed from a component, so supporting types that no longer apply are reported by the update and left in place,
+ *     but are no longer followed when finding dependencies.
+ * </p>
+ *
+ * <p>
+ *     Components are not discovered again, so a full run is still needed to pick up new components
+ *     (e.g. a type that has been newly annotated). Types added since the full run aren't known to the type repository
+ *     (which scans the classpath once), so an update that includes them makes no changes, and instead reports that
+ *     a full analysis is required (see {@link IncrementalUpdate#isFullAnalysisRequired()}).
+ * </p>
+ */
+public class IncrementalComponentFinder {
+
+    private static final Log log = LogFactory.getLog(IncrementalComponentFinder.class);
+
+    public static final String REMOVED_TAG = "Removed";
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final ComponentFinder componentFinder;
+    private final List<File> classDirectories = new ArrayList<>();
+
+    private boolean indexed = false;
+    private final Map<String, Set<Component>> componentsByType = new HashMap<>();
+    private final Map<Component, Set<String>> typesByComponent = new HashMap<>();
+    private final Map<Component, Set<Component>> dependenciesByComponent = new HashMap<>();
+    private final Map<Component, Set<String>> codeTypesByComponent = new HashMap<>();
+    private final Set<Component> removedComponents = new HashSet<>();
+
+    /**
+     * Creates a new incremental component finder.
+     *
+     * @param componentFinder   the ComponentFinder to wrap
+     * @param classDirectories  the directories containing the compiled classes (used to convert class files to type names)
+     */
+    public IncrementalComponentFinder(ComponentFinder componentFinder, File... classDirectories) {
+        if (componentFinder == null) {
+            throw new IllegalArgumentException("A component finder must be specified.");
+        }
+
+        this.componentFinder = componentFinder;
+        for (File classDirectory : classDirectories) {
+            this.classDirectories.add(classDirectory.getAbsoluteFile());
+        }
+    }
+
+    public ComponentFinder getComponentFinder() {
+        return componentFinder;
+    }
+
+    /**
+     * Finds components using the wrapped component finder (a full run), and indexes the result for subsequent updates.
+     *
+     * @return  the set of Components that were found
+     * @throws Exception    if something goes wrong
+     */
+    public Set<Component> findComponents() throws Exception {
+        componentsByType.clear();
+        typesByComponent.clear();
+        dependenciesByComponent.clear();
+        codeTypesByComponent.clear();
+        removedComponents.clear();
+        indexed = false;
+
+        // the dependencies found by the full run are indexed as they are found (the last result for a component wins,
+        // since each strategy finds the dependencies of all components) ...
+        Set<Component> componentsIndexed = new HashSet<>();
+        Set<Component> componentsFound;
+        componentFinder.setDependencyListener((component, typesVisited, dependencies) -> {
+            index(component, typesVisited, dependencies);
+            componentsIndexed.add(component);
+        });
+        try {
+            componentsFound = componentFinder.findComponents();
+        } finally {
+            componentFinder.setDependencyListener(null);
+        }
+
+        // ... so only those components whose dependencies weren't found exactly (e.g. because of a budget,
+        // or a strategy that doesn't extend AbstractComponentFinderStrategy) need to be walked here
+        DependencyFinder dependencyFinder = null;
+        for (Component component : getContainer().getComponents()) {
+            if (!componentsIndexed.contains(component)) {
+                if (dependencyFinder == null) {
+                    dependencyFinder = createDependencyFinder();
+                }
+
+                Set<String> typesVisited = new HashSet<>();
+                index(component, typesVisited, dependencyFinder.findEfferentDependencies(component, typesVisited));
+            }
+        }
+        indexed = true;
+
+        return componentsFound;
+    }
+
+    /**
+     * Updates the container from the class files that have changed or been removed since the last run.
+     *
+     * @param changedClassFiles     the class files that have been added or modified
+     * @param removedClassFiles     the class files that have been deleted
+     * @return  an IncrementalUpdate describing the changes made to the container
+     * @throws Exception    if something goes wrong
+     */
+    public IncrementalUpdate update(Collection<File> changedClassFiles, Collection<File> removedClassFiles) throws Exception {
+        return updateTypes(toTypeNames(changedClassFiles), toTypeNames(removedClassFiles));
+    }
+
+    /**
+     * Updates the container from the types that have changed or been removed since the last run.
+     *
+     * @param changedTypes  the fully qualified names of the types that have been added or modified
+     * @param removedTypes  the fully qualified names of the types that have been deleted
+     * @return  an IncrementalUpdate describing the changes made to the container
+     * @throws Exception    if something goes wrong
+     */
+    public IncrementalUpdate updateTypes(Collection<String> changedTypes, Collection<String> removedTypes) throws Exception {
+        if (!indexed) {
+            throw new IllegalStateException("findComponents() must be called before the container can be updated.");
+        }
+
+        Set<String> changed = new HashSet<>(changedTypes);
+        Set<String> removed = new HashSet<>(removedTypes);
+        Set<String> types = new HashSet<>(changed);
+        types.addAll(removed);
+
+        TypeRepository typeRepository = componentFinder.getTypeRepository();
+        Set<String> added = findTypesAdded(typeRepository, changed);
+        if (!added.isEmpty()) {
+            log.info("Types " + added + " have been added since the full run ... a full analysis is required.");
+            return IncrementalUpdate.fullAnalysisRequired(added);
+        }
+
+        types.forEach(typeRepository::invalidate);
+
+        Set<Component> componentsToAnalyse = new LinkedHashSet<>();
+        for (String type : types) {
+            componentsToAnalyse.addAll(componentsByType.getOrDefault(type, Collections.emptySet()));
+        }
+
+        Set<Component> componentsRemoved = new LinkedHashSet<>();
+        Set<Relationship> relationshipsAdded = new LinkedHashSet<>();
+        Set<Relationship> relationshipsRemoved = new LinkedHashSet<>();
+
+        for (Component component : getContainer().getComponents()) {
+            if (removed.contains(typeOf(component)) && removedComponents.add(component)) {
+                component.addTags(REMOVED_TAG);
+                componentsRemoved.add(component);
+                componentsToAnalyse.remove(component);
+
+                for (Component destination : dependenciesByComponent.getOrDefault(component, Collections.emptySet())) {
+                    removeRelationship(component, destination, relationshipsRemoved);
+                }
+                unindex(component);
+            } else if (changed.contains(typeOf(component)) && removedComponents.remove(component)) {
+                // the type has been restored
+                component.removeTag(REMOVED_TAG);
+                componentsToAnalyse.add(component);
+            }
+        }
+
+        // the types that make up each component are recorded before any supporting types are added
+        Map<Component, Set<String>> previousCodeTypes = new HashMap<>();
+        for (Component component : componentsToAnalyse) {
+            previousCodeTypes.put(component, getCodeTypes(component));
+        }
+
+        Map<Component, Set<String>> refreshedCodeTypes = new HashMap<>();
+        for (ComponentFinderStrategy strategy : componentFinder.getComponentFinderStrategies()) {
+            if (strategy instanceof AbstractComponentFinderStrategy) {
+                ((AbstractComponentFinderStrategy)strategy).refreshSupportingTypes(componentsToAnalyse).forEach(
+                        (component, codeTypes) -> refreshedCodeTypes.computeIfAbsent(component, c -> new LinkedHashSet<>()).addAll(codeTypes));
+            }
+        }
+
+        Map<Component, Set<CodeElement>> supportingTypesAdded = new LinkedHashMap<>();
+        Map<Component, Set<CodeElement>> supportingTypesRemoved = new LinkedHashMap<>();
+
+        DependencyFinder dependencyFinder = createDependencyFinder();
+        for (Component component : componentsToAnalyse) {
+            Set<String> codeTypes = previousCodeTypes.get(component);
+            if (refreshedCodeTypes.containsKey(component)) {
+                Set<String> codeTypesBefore = codeTypes;
+                codeTypes = refreshedCodeTypes.get(component);
+
+                for (CodeElement codeElement : component.getCode()) {
+                    boolean before = codeTypesBefore.contains(codeElement.getType());
+                    boolean after = codeTypes.contains(codeElement.getType());
+                    if (before && !after) {
+                        supportingTypesRemoved.computeIfAbsent(component, c -> new LinkedHashSet<>()).add(codeElement);
+                    } else if (!before && after) {
+                        supportingTypesAdded.computeIfAbsent(component, c -> new LinkedHashSet<>()).add(codeElement);
+                    }
+                }
+                codeTypesByComponent.put(component, codeTypes);
+            }
+
+            Set<String> typesVisited = new HashSet<>();
+            Set<Component> dependencies = dependencyFinder.findEfferentDependencies(component, codeTypes, typesVisited);
+            dependencies.removeAll(removedComponents);
+
+            Set<Component> previousDependencies = dependenciesByComponent.getOrDefault(component, Collections.emptySet());
+            for (Component destination : dependencies) {
+                if (!previousDependencies.contains(destination)) {
+                    addRelationship(component, destination, relationshipsAdded);
+                }
+            }
+            for (Component destination : previousDependencies) {
+                if (!dependencies.contains(destination)) {
+                    removeRelationship(component, destination, relationshipsRemoved);
+                }
+            }
+
+            index(component, typesVisited, dependencies);
+        }
+
+        // the size, description, etc of the code elements (including any supporting types added) are calculated again
+        for (ComponentFinderStrategy strategy : componentFinder.getComponentFinderStrategies()) {
+            strategy.afterUpdateComponents(componentsToAnalyse);
+        }
+
+        IncrementalUpdate update = new IncrementalUpdate(componentsToAnalyse, componentsRemoved, relationshipsAdded, relationshipsRemoved, supportingTypesAdded, supportingTypesRemoved);
+        log.debug(update);
+
+        return update;
+    }
+
+    /**
+     * Finds the types (in the packages being scanned) that weren't found by the type repository during the full run.
+     */
+    private Set<String> findTypesAdded(TypeRepository typeRepository, Set<String> changedTypes) {
+        Set<String> typesAdded = new HashSet<>();
+        TypeView types = typeRepository.getTypes();
+        for (String type : changedTypes) {
+            if (!types.contains(type) && isInPackagesScanned(typeRepository, type)) {
+                typesAdded.add(type);
+            }
+        }
+
+        return typesAdded;
+    }
+
+    private boolean isInPackagesScanned(TypeRepository typeRepository, String type) {
+        for (String packageName : typeRepository.getPackages()) {
+            if (type.startsWith(packageName + ".")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void addRelationship(Component source, Component destination, Set<Relationship> relationshipsAdded) {
+        Relationship relationship = findRelationship(source, destination);
+        if (relationship == null) {
+            relationship = source.uses(destination, "");
+        } else {
+            relationship.removeTag(REMOVED_TAG);
+        }
+
+        if (relationship != null) {
+            relationshipsAdded.add(relationship);
+        }
+    }
+
+    private void removeRelationship(Component source, Component destination, Set<Relationship> relationshipsRemoved) {
+        Relationship relationship = findRelationship(source, destination);
+        if (relationship != null) {
+            relationship.addTags(REMOVED_TAG);
+            relationshipsRemoved.add(relationship);
+        }
+    }
+
+    // relationships created from dependencies have no description, unlike those created from annotations
+    private Relationship findRelationship(Component source, Component destination) {
+        for (Relationship relationship : source.getRelationships()) {
+            if (relationship.getDestination() == destination && "".equals(relationship.getDescription())) {
+                return relationship;
+            }
+        }
+
+        return null;
+    }
+
+    private void index(Component component, Set<String> typesVisited, Set<Component> dependencies) {
+        unindex(component);
+
+        Set<String> types = new HashSet<>(typesVisited);
+        for (Component destination : dependencies) {
+            if (destination.getType() != null) {
+                types.add(typeOf(destination));
+            }
+        }
+
+        for (String type : types) {
+            componentsByType.computeIfAbsent(type, t -> new HashSet<>()).add(component);
+        }
+        typesByComponent.put(component, types);
+        dependenciesByComponent.put(component, dependencies);
+    }
+
+    private void unindex(Component component) {
+        Set<String> types = typesByComponent.remove(component);
+        if (types != null) {
+            for (String type : types) {
+                Set<Component> components = componentsByType.get(type);
+                if (components != null) {
+                    components.remove(component);
+                    if (components.isEmpty()) {
+                        componentsByType.remove(type);
+                    }
+                }
+            }
+        }
+        dependenciesByComponent.remove(component);
+    }
+
+    private Set<String> toTypeNames(Collection<File> classFiles) {
+        Set<String> typeNames = new HashSet<>();
+        for (File classFile : classFiles) {
+            String typeName = toTypeName(classFile.getAbsoluteFile());
+            if (typeName != null) {
+                typeNames.add(typeName);
+            } else {
+                log.debug(classFile + " is not a class file in one of the class directories ... ignoring.");
+            }
+        }
+
+        return typeNames;
+    }
+
+    private String toTypeName(File classFile) {
+        String path = classFile.getPath();
+        if (!path.endsWith(CLASS_FILE_EXTENSION)) {
+            return null;
+        }
+
+        for (File classDirectory : classDirectories) {
+            String directory = classDirectory.getPath() + File.separator;
+            if (path.startsWith(directory)) {
+                String typeName = path.substring(directory.length(), path.length() - CLASS_FILE_EXTENSION.length()).replace(File.separatorChar, '.');
+
+                // nested classes are analysed as part of their outer type
+                int dollar = typeName.indexOf('$');
+                return dollar > -1 ? typeName.substring(0, dollar) : typeName;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the names of the types that currently make up the specified component; i.e. all of its code elements,
+     * unless its supporting types have been found again by an update.
+     */
+    private Set<String> getCodeTypes(Component component) {
+        Set<String> codeTypes = codeTypesByComponent.get(component);
+        if (codeTypes == null) {
+            codeTypes = new LinkedHashSet<>();
+            for (CodeElement codeElement : component.getCode()) {
+                codeTypes.add(codeElement.getType());
+            }
+        }
+
+        return codeTypes;
+    }
+
+    private String typeOf(Component component) {
+        return component.getType() != null ? component.getType().getType() : null;
+    }
+
+    private DependencyFinder createDependencyFinder() {
+        return new DependencyFinder(getContainer(), componentFinder.getTypeRepository(), null, componentFinder.getDependencyPaths());
+    }
+
+    private Container getContainer() {
+        return componentFinder.getContainer();
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.structurizr.analysis;
+
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Relationship;
+
+import java.util.*;
+
+/**
+ * The changes made to a container by {@link IncrementalComponentFinder#update(java.util.Collection, java.util.Collection)}.
+ */
+public final class IncrementalUpdate {
+
+    private final Set<Component> componentsAnalysed;
+    private final Set<Component> componentsRemoved;
+    private final Set<Relationship> relationshipsAdded;
+    private final Set<Relationship> relationshipsRemoved;
+    private final Map<Component, Set<CodeElement>> supportingTypesAdded;
+    private final Map<Component, Set<CodeElement>> supportingTypesRemoved;
+    private final Set<String> typesAdded;
+
+    IncrementalUpdate(Set<Component> componentsAnalysed, Set<Component> componentsRemoved, Set<Relationship> relationshipsAdded, Set<Relationship> relationshipsRemoved,
+                      Map<Component, Set<CodeElement>> supportingTypesAdded, Map<Component, Set<CodeElement>> supportingTypesRemoved) {
+        this.componentsAnalysed = Collections.unmodifiableSet(new LinkedHashSet<>(componentsAnalysed));
+        this.componentsRemoved = Collections.unmodifiableSet(new LinkedHashSet<>(componentsRemoved));
+        this.relationshipsAdded = Collections.unmodifiableSet(new LinkedHashSet<>(relationshipsAdded));
+        this.relationshipsRemoved = Collections.unmodifiableSet(new LinkedHashSet<>(relationshipsRemoved));
+        this.supportingTypesAdded = copy(supportingTypesAdded);
+        this.supportingTypesRemoved = copy(supportingTypesRemoved);
+        this.typesAdded = Collections.emptySet();
+    }
+
+    private IncrementalUpdate(Set<String> typesAdded) {
+        this.componentsAnalysed = Collections.emptySet();
+        this.componentsRemoved = Collections.emptySet();
+        this.relationshipsAdded = Collections.emptySet();
+        this.relationshipsRemoved = Collections.emptySet();
+        this.supportingTypesAdded = Collections.emptyMap();
+        this.supportingTypesRemoved = Collections.emptyMap();
+        this.typesAdded = Collections.unmodifiableSet(new TreeSet<>(typesAdded));
+    }
+
+    /**
+     * Creates an update that made no changes to the container, because types have been added.
+     */
+    static IncrementalUpdate fullAnalysisRequired(Set<String> typesAdded) {
+        return new IncrementalUpdate(typesAdded);
+    }
+
+    private static Map<Component, Set<CodeElement>> copy(Map<Component, Set<CodeElement>> codeElementsByComponent) {
+        Map<Component, Set<CodeElement>> copy = new LinkedHashMap<>();
+        codeElementsByComponent.forEach((component, codeElements) -> copy.put(component, Collections.unmodifiableSet(new LinkedHashSet<>(codeElements))));
+
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Gets the components whose supporting types and dependencies were analysed again.
+     *
+     * @return  a Set of Component objects
+     */
+    public Set<Component> getComponentsAnalysed() {
+        return componentsAnalysed;
+    }
+
+    /**
+     * Gets the components whose type has been removed (these are tagged "Removed").
+     *
+     * @return  a Set of Component objects
+     */
+    public Set<Component> getComponentsRemoved() {
+        return componentsRemoved;
+    }
+
+    /**
+     * Gets the relationships that were added (or that are no longer tagged "Removed").
+     *
+     * @return  a Set of Relationship objects
+     */
+    public Set<Relationship> getRelationshipsAdded() {
+        return relationshipsAdded;
+    }
+
+    /**
+     * Gets the relationships that no longer exist in the code (these are tagged "Removed").
+     *
+     * @return  a Set of Relationship objects
+     */
+    public Set<Relationship> getRelationshipsRemoved() {
+        return relationshipsRemoved;
+    }
+
+    /**
+     * Gets the supporting types that were added to components (or that apply to them again).
+     *
+     * @return  a Map of Component to the Set of CodeElement objects added
+     */
+    public Map<Component, Set<CodeElement>> getSupportingTypesAdded() {
+        return supportingTypesAdded;
+    }
+
+    /**
+     * Gets the supporting types that no longer apply to components. Since code elements can't be removed from
+     * a component, these are left in place, but are no longer used to find the dependencies of the component.
+     *
+     * @return  a Map of Component to the Set of CodeElement objects that no longer apply
+     */
+    public Map<Component, Set<CodeElement>> getSupportingTypesRemoved() {
+        return supportingTypesRemoved;
+    }
+
+    /**
+     * Gets the types that have been added since the full run, which couldn't be analysed incrementally.
+     *
+     * @return  a Set of fully qualified type names (empty unless a full analysis is required)
+     */
+    public Set<String> getTypesAdded() {
+        return typesAdded;
+    }
+
+    /**
+     * Determines whether the container could not be updated incrementally, because types have been added since
+     * the full run (these may be new components, and aren't known to the type repository). In this case, the container
+     * hasn't been changed, and {@link IncrementalComponentFinder#findComponents()} should be used to analyse the
+     * codebase again, with a new container.
+     *
+     * @return  true if a full analysis is required, false otherwise
+     */
+    public boolean isFullAnalysisRequired() {
+        return !typesAdded.isEmpty();
+    }
+
+    /**
+     * Determines whether this update changed the container.
+     *
+     * @return  true if no components, relationships or supporting types were added or removed, false otherwise
+     */
+    public boolean isEmpty() {
+        return componentsRemoved.isEmpty() && relationshipsAdded.isEmpty() && relationshipsRemoved.isEmpty() &&
+                supportingTypesAdded.isEmpty() && supportingTypesRemoved.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalUpdate{" +
+                "componentsAnalysed=" + componentsAnalysed.size() +
+                ", componentsRemoved=" + componentsRemoved.size() +
+                ", relationshipsAdded=" + relationshipsAdded.size() +
+                ", relationshipsRemoved=" + relationshipsRemoved.size() +
+                ", supportingTypesAdded=" + supportingTypesAdded.values().stream().mapToInt(Set::size).sum() +
+                ", supportingTypesRemoved=" + supportingTypesRemoved.values().stream().mapToInt(Set::size).sum() +
+                ", typesAdded=" + typesAdded.size() +
+                '}';
+    }
+
+}
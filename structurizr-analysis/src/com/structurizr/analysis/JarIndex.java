@@ -0,0 +1,179 @@
+package com.structurizr.analysis;
+
+import javassist.bytecode.ClassFile;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An immutable index of the classes in a jar file (or directory) that belong to a set of packages,
+ * along with the names of the types referenced by each. The index doesn't depend on a class loader,
+ * so the index of a jar can be shared by analyses of different classpaths that contain the same jar.
+ */
+final class JarIndex {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final Set<String> typeNames;
+    private final Map<String, Set<String>> referencedTypeNames;
+
+    private JarIndex(Set<String> typeNames, Map<String, Set<String>> referencedTypeNames) {
+        this.typeNames = Collections.unmodifiableSet(typeNames);
+        this.referencedTypeNames = referencedTypeNames;
+    }
+
+    /**
+     * Reads the classes belonging to the specified packages from a jar file or directory.
+     *
+     * @param file          a jar file, or a directory of class files
+     * @param packageNames  the fully qualified package names
+     * @return  a JarIndex
+     * @throws IOException  if the jar file or a class file can't be read
+     */
+    static JarIndex read(File file, List<String> packageNames) throws IOException {
+        Set<String> typeNames = new LinkedHashSet<>();
+        Map<String, Set<String>> referencedTypeNames = new HashMap<>();
+
+        if (file.isDirectory()) {
+            Path root = file.toPath();
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : (Iterable<Path>)paths::iterator) {
+                    String typeName = toTypeName(root.relativize(path).toString().replace(File.separatorChar, '/'), packageNames);
+                    if (typeName != null && Files.isRegularFile(path)) {
+                        try (InputStream in = Files.newInputStream(path)) {
+                            index(typeName, in, typeNames, referencedTypeNames);
+                        }
+                    }
+                }
+            }
+        } else {
+            try (ZipFile zipFile = new ZipFile(file)) {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    String typeName = toTypeName(entry.getName(), packageNames);
+                    if (typeName != null && !entry.isDirectory()) {
+                        try (InputStream in = zipFile.getInputStream(entry)) {
+                            index(typeName, in, typeNames, referencedTypeNames);
+                        }
+                    }
+                }
+            }
+        }
+
+        return new JarIndex(typeNames, referencedTypeNames);
+    }
+
+    private static String toTypeName(String path, List<String> packageNames) {
+        if (!path.endsWith(CLASS_FILE_EXTENSION) || path.endsWith("module-info.class") || path.startsWith("META-INF/")) {
+            return null;
+        }
+
+        String typeName = path.substring(0, path.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+        for (String packageName : packageNames) {
+            if (typeName.startsWith(packageName)) {
+                return typeName;
+            }
+        }
+
+        return null;
+    }
+
+    private static void index(String typeName, InputStream in, Set<String> typeNames, Map<String, Set<String>> referencedTypeNames) throws IOException {
+        ClassFile classFile = new ClassFile(new DataInputStream(new BufferedInputStream(in)));
+
+        // this finds the same types as CtClass.getRefClasses(), without needing a class pool
+        ReferencedClassNames names = new ReferencedClassNames();
+        classFile.getRefClasses(names);
+        Set<String> referencedTypes = Collections.unmodifiableSet(names.names);
+
+        typeNames.add(typeName);
+        referencedTypeNames.put(typeName, referencedTypes);
+        referencedTypeNames.putIfAbsent(typeName.replace('$', '.'), referencedTypes); // i.e. the canonical name
+    }
+
+    /**
+     * Calculates a hash of the content of a jar file, which identifies the jar irrespective of its location.
+     *
+     * @param file  a jar file
+     * @return  a hex encoded SHA-256 hash, or null if the file is a directory
+     * @throws IOException  if the jar file can't be read
+     */
+    static String hash(File file) throws IOException {
+        if (file.isDirectory()) {
+            return null;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+
+        return hash.toString();
+    }
+
+    /**
+     * Gets the names of the indexed types.
+     *
+     * @return  a Set of binary type names
+     */
+    Set<String> getTypeNames() {
+        return typeNames;
+    }
+
+    /**
+     * Gets the names of the types referenced by the specified type.
+     *
+     * @param typeName  a binary or canonical type name
+     * @return  a Set of type names, or null if the type isn't in this index
+     */
+    Set<String> getReferencedTypeNames(String typeName) {
+        return referencedTypeNames.get(typeName);
+    }
+
+    /**
+     * Collects the class names that ClassFile.getRefClasses() looks up (in place of a map of class names to rename).
+     */
+    private static final class ReferencedClassNames extends HashMap<String, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Set<String> names = new HashSet<>();
+
+        @Override
+        public String get(Object jvmClassName) {
+            names.add(((String)jvmClassName).replace('/', '.'));
+            return null;
+        }
+
+        @Override
+        public String put(String oldName, String newName) {
+            names.add(newName);
+            return null;
+        }
+
+    }
+
+}
@@ -17,6 +17,10 @@ public class NameSuffixTypeMatcher extends AbstractTypeMatcher {
         this.suffix = suffix;
     }
 
+    String getSuffix() {
+        return suffix;
+    }
+
     @Override
     public boolean matches(Class type) {
         return type.getSimpleName().endsWith(suffix);
@@ -0,0 +1,35 @@
+package com.structurizr.analysis;
+
+/**
+ * Receives progress updates from a component finder run. Updates are delivered on the thread doing the work,
+ * so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    enum Phase {
+
+        /** Scanning the classpath for types (completed is the number of types scanned so far). */
+        SCANNING_TYPES,
+
+        /** Running the component finder strategies (completed is the number of components found so far). */
+        FINDING_COMPONENTS,
+
+        /** Finding the supporting types of each component (completed and total are numbers of components). */
+        FINDING_SUPPORTING_TYPES,
+
+        /** Walking the dependencies of each component (completed and total are numbers of components). */
+        FINDING_DEPENDENCIES
+
+    }
+
+    /**
+     * Called as the run progresses.
+     *
+     * @param phase         the current Phase
+     * @param completed     the amount of work completed in this phase
+     * @param total         the total amount of work in this phase, or -1 if this isn't known
+     */
+    void onProgress(Phase phase, int completed, int total);
+
+}
@@ -0,0 +1,216 @@
+package com.structurizr.analysis;
+
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of the types referenced by a given type, used by {@link DefaultTypeRepository}.
+ *
+ * The cache is split into a number of segments (each with its own lock), and each segment evicts its
+ * least recently used entries when full. Optionally, the cached sets can be held via soft references,
+ * so that they can be reclaimed by the garbage collector when memory is short.
+ */
+public class ReferencedTypesCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static final int MAXIMUM_NUMBER_OF_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final boolean softValues;
+    private final int maximumSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache, with the default maximum size and strongly referenced values.
+     */
+    public ReferencedTypesCache() {
+        this(DEFAULT_MAXIMUM_SIZE, false);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize   the maximum number of types to cache (applied per segment, so this is approximate)
+     * @param softValues    true if the cached sets should be softly referenced, false otherwise
+     */
+    public ReferencedTypesCache(int maximumSize, boolean softValues) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be 1 or greater.");
+        }
+
+        this.maximumSize = maximumSize;
+        this.softValues = softValues;
+
+        int numberOfSegments = Math.min(MAXIMUM_NUMBER_OF_SEGMENTS, Integer.highestOneBit(maximumSize));
+        int segmentSize = (maximumSize + numberOfSegments - 1) / numberOfSegments;
+        segments = new Segment[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Gets the referenced types for the specified type.
+     *
+     * @param typeName  the fully qualified type name
+     * @return  an unmodifiable Set of Class objects, or null if the type isn't cached
+     */
+    public Set<Class<?>> get(String typeName) {
+        Segment segment = segmentFor(typeName);
+        Set<Class<?>> referencedTypes;
+
+        synchronized (segment) {
+            Object value = segment.get(typeName);
+            referencedTypes = unwrap(value);
+
+            if (value != null && referencedTypes == null) {
+                // the soft reference has been cleared
+                segment.remove(typeName);
+                evictions.increment();
+            }
+        }
+
+        if (referencedTypes != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return referencedTypes;
+    }
+
+    /**
+     * Caches the referenced types for the specified type.
+     *
+     * @param typeName          the fully qualified type name
+     * @param referencedTypes   a Set of Class objects
+     * @return  the (unmodifiable) set that was cached
+     */
+    public Set<Class<?>> put(String typeName, Set<Class<?>> referencedTypes) {
+        Set<Class<?>> value = Collections.unmodifiableSet(referencedTypes);
+        Segment segment = segmentFor(typeName);
+
+        synchronized (segment) {
+            segment.put(typeName, softValues ? new SoftReference<>(value) : value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Removes the entry for the specified type, if there is one.
+     *
+     * @param typeName  the fully qualified type name
+     */
+    public void remove(String typeName) {
+        Segment segment = segmentFor(typeName);
+
+        synchronized (segment) {
+            segment.remove(typeName);
+        }
+    }
+
+    /**
+     * Removes all entries from the cache (the statistics are retained).
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return  the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public boolean isSoftValues() {
+        return softValues;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries evicted, either because the cache was full or because a soft reference was cleared.
+     *
+     * @return  the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ReferencedTypesCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    private Segment segmentFor(String typeName) {
+        int hash = typeName.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (segments.length - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Class<?>> unwrap(Object value) {
+        if (value instanceof SoftReference) {
+            return ((SoftReference<Set<Class<?>>>)value).get();
+        } else {
+            return (Set<Class<?>>)value;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<String, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            if (size() > maximumSize) {
+                evictions.increment();
+                return true;
+            }
+
+            return false;
+        }
+
+    }
+
+}
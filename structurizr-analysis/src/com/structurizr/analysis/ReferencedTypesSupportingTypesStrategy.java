@@ -48,11 +48,21 @@ public class ReferencedTypesSupportingTypesStrategy extends SupportingTypesStrat
 
     @Override
     public Set<Class<?>> findSupportingTypes(Component component) {
+        Set<String> codeTypes = new HashSet<>();
+        for (CodeElement codeElement : component.getCode()) {
+            codeTypes.add(codeElement.getType());
+        }
+
+        return findSupportingTypes(component, codeTypes);
+    }
+
+    @Override
+    Set<Class<?>> findSupportingTypes(Component component, Set<String> codeTypes) {
         Set<Class<?>> referencedTypes = new HashSet<>();
         referencedTypes.addAll(getReferencedTypesInPackage(component.getType().getType()));
 
-        for (CodeElement codeElement : component.getCode()) {
-            referencedTypes.addAll(getReferencedTypesInPackage(codeElement.getType()));
+        for (String codeType : codeTypes) {
+            referencedTypes.addAll(getReferencedTypesInPackage(codeType));
         }
 
         if (includeIndirectlyReferencedTypes) {
@@ -29,10 +29,14 @@ public class RegexTypeMatcher extends AbstractTypeMatcher {
         this.regex = regex;
     }
 
+    Pattern getRegex() {
+        return regex;
+    }
+
     @Override
     public boolean matches(Class type) {
         if (type != null && type.getCanonicalName() != null) {
-            return Pattern.matches(regex.pattern(), type.getCanonicalName());
+            return regex.matcher(type.getCanonicalName()).matches();
         } else {
             return false;
         }
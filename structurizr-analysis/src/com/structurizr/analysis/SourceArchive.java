@@ -0,0 +1,226 @@
+package com.structurizr.analysis;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads Java source files directly from a zip or jar file (e.g. a -sources.jar), without extracting it.
+ * Only the entries for the requested types are read.
+ */
+class SourceArchive implements Closeable {
+
+    private final File file;
+    private final ZipFile zipFile;
+    private final Charset charset;
+
+    static boolean isSourceArchive(File file) {
+        String name = file.getName().toLowerCase();
+        return file.isFile() && (name.endsWith(".jar") || name.endsWith(".zip"));
+    }
+
+    SourceArchive(File file, String encoding) throws IOException {
+        this.file = file;
+        this.zipFile = new ZipFile(file);
+        this.charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
+    }
+
+    /**
+     * Finds the source file for the specified type.
+     *
+     * @param type  a fully qualified type name (nested types are found in the source file of their top-level type)
+     * @return  the SourceFile, or null if there is no source file for the type
+     * @throws IOException  if the source file can't be read
+     */
+    SourceFile find(String type) throws IOException {
+        // for a.b.Outer.Inner, try a/b/Outer/Inner.java, then a/b/Outer.java, etc
+        String path = type.replace('.', '/');
+        int end = path.length();
+        while (end > 0) {
+            ZipEntry entry = zipFile.getEntry(path.substring(0, end) + ".java");
+            if (entry != null && !entry.isDirectory()) {
+                return read(entry, type.substring(type.lastIndexOf('.') + 1));
+            }
+            end = path.lastIndexOf('/', end - 1);
+        }
+
+        return null;
+    }
+
+    private SourceFile read(ZipEntry entry, String simpleName) throws IOException {
+        StringBuilder source = new StringBuilder();
+        long numberOfLines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), charset))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                source.append(line).append('\n');
+                numberOfLines++;
+            }
+        }
+
+        String url = "jar:" + file.toURI() + "!/" + entry.getName();
+        return new SourceFile(url, numberOfLines, findTypeComment(source.toString(), simpleName));
+    }
+
+    /**
+     * Finds the main description of the Javadoc comment immediately before the declaration of the named type,
+     * in the same form as the doclet API's commentText() (leading asterisks removed, and block tags excluded).
+     *
+     * The source is scanned once, skipping comments and string/character literals, so that text inside them
+     * (e.g. "the class SomeComponent" in a comment) isn't mistaken for code. Only modifiers and annotations
+     * can appear between the comment and the declaration, so a ';', '{' or '}' outside of parentheses
+     * (i.e. not in annotation arguments, such as @Foo({"a"})) discards the comment seen so far.
+     */
+    static String findTypeComment(String source, String simpleName) {
+        String comment = null;
+        int depth = 0; // of parentheses
+        int i = 0;
+        int length = source.length();
+
+        while (i < length) {
+            char c = source.charAt(i);
+            if (source.startsWith("//", i)) {
+                i = skipLineComment(source, i);
+            } else if (source.startsWith("/*", i)) {
+                int end = source.indexOf("*/", i + 2);
+                if (end == -1) {
+                    return null;
+                }
+
+                // "/**/" is an empty block comment, rather than a Javadoc comment
+                if (source.startsWith("/**", i) && end > i + 2 && depth == 0) {
+                    comment = source.substring(i + 3, end);
+                }
+                i = end + 2;
+            } else if (c == '"' || c == '\'') {
+                i = skipLiteral(source, i);
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+                i++;
+            } else if (depth == 0 && (c == ';' || c == '{' || c == '}')) {
+                comment = null;
+                i++;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = skipIdentifier(source, i);
+                if (depth == 0 && isTypeKeyword(source.substring(i, end)) && simpleName.equals(nextIdentifier(source, end))) {
+                    return comment != null ? mainDescription(comment) : null;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isTypeKeyword(String word) {
+        // @interface is matched by its "interface" keyword
+        return word.equals("class") || word.equals("interface") || word.equals("enum");
+    }
+
+    private static String nextIdentifier(String source, int i) {
+        int length = source.length();
+        while (i < length) {
+            if (Character.isWhitespace(source.charAt(i))) {
+                i++;
+            } else if (source.startsWith("//", i)) {
+                i = skipLineComment(source, i);
+            } else if (source.startsWith("/*", i)) {
+                int end = source.indexOf("*/", i + 2);
+                if (end == -1) {
+                    return null;
+                }
+                i = end + 2;
+            } else if (Character.isJavaIdentifierStart(source.charAt(i))) {
+                return source.substring(i, skipIdentifier(source, i));
+            } else {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private static int skipIdentifier(String source, int i) {
+        i++;
+        while (i < source.length() && Character.isJavaIdentifierPart(source.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static int skipLineComment(String source, int i) {
+        int end = source.indexOf('\n', i);
+        return end == -1 ? source.length() : end + 1;
+    }
+
+    private static int skipLiteral(String source, int i) {
+        char quote = source.charAt(i);
+        i++;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+
+        return i;
+    }
+
+    private static String mainDescription(String comment) {
+        StringBuilder text = new StringBuilder();
+        for (String line : comment.split("\n")) {
+            line = line.replaceFirst("^\\s*\\*+", "").trim();
+            if (line.startsWith("@")) {
+                break;
+            }
+            if (text.length() > 0 || !line.isEmpty()) {
+                text.append(line).append('\n');
+            }
+        }
+
+        return text.toString().trim();
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+
+    static final class SourceFile {
+
+        private final String url;
+        private final long numberOfLines;
+        private final String comment;
+
+        SourceFile(String url, long numberOfLines, String comment) {
+            this.url = url;
+            this.numberOfLines = numberOfLines;
+            this.comment = comment;
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        long getNumberOfLines() {
+            return numberOfLines;
+        }
+
+        String getComment() {
+            return comment;
+        }
+
+    }
+
+}
@@ -19,6 +19,8 @@ import java.util.*;
  * <li>Extracts the top-level Javadoc comment from the code so that this can be added to existing component definitions.</li>
  * <li>Calculates the size of components based upon the number of lines of source code.</li>
  * </ul>
+ * The source path can be a directory, or a zip/jar file (e.g. a -sources.jar), which is read in place;
+ * only the source files for the component types are read from it.
  */
 public class SourceCodeComponentFinderStrategy implements ComponentFinderStrategy {
 
@@ -31,6 +33,7 @@ public class SourceCodeComponentFinderStrategy implements ComponentFinderStrateg
 
     private Map<String,File> typeToSourceFile = new HashMap<>();
     private Map<String,String> typeToDescription = new HashMap<>();
+    private Map<String,SourceArchive.SourceFile> typeToArchivedSourceFile = new HashMap<>();
 
     public SourceCodeComponentFinderStrategy(File sourcePath) {
         this.sourcePath = sourcePath;
@@ -61,19 +64,28 @@ public class SourceCodeComponentFinderStrategy implements ComponentFinderStrateg
 
     @Override
     public void afterFindComponents() throws Exception {
-        runJavaDoc();
+        addSourceCodeInformation(componentFinder.getContainer().getComponents());
+    }
 
-        JavadocCommentFilter filter = new JavadocCommentFilter(maxDescriptionLength);
-        for (ClassDoc classDoc : ROOTDOC.classes()) {
-            String type = classDoc.qualifiedTypeName();
-            String comment = filter.filterAndTruncate(classDoc.commentText());
-            String pathToSourceFile = classDoc.position().file().getCanonicalPath();
+    @Override
+    public void afterUpdateComponents(Set<Component> components) throws Exception {
+        // the source code may have changed too
+        typeToSourceFile.clear();
+        typeToDescription.clear();
+        typeToArchivedSourceFile.clear();
 
-            typeToSourceFile.put(type, new File(pathToSourceFile));
-            typeToDescription.put(type, comment);
+        addSourceCodeInformation(components);
+    }
+
+    private void addSourceCodeInformation(Set<Component> components) throws Exception {
+        JavadocCommentFilter filter = new JavadocCommentFilter(maxDescriptionLength);
+        if (SourceArchive.isSourceArchive(sourcePath)) {
+            readSourceArchive(components, filter);
+        } else {
+            readSourceDirectory(filter);
         }
 
-        for (Component component : componentFinder.getContainer().getComponents()) {
+        for (Component component : components) {
             long count = 0;
 
             for (CodeElement codeElement : component.getCode()) {
@@ -95,6 +107,13 @@ public class SourceCodeComponentFinderStrategy implements ComponentFinderStrateg
                     codeElement.setSize(numberOfLinesInFile);
                     count += numberOfLinesInFile;
                 }
+
+                SourceArchive.SourceFile archivedSourceFile = typeToArchivedSourceFile.get(codeElement.getType());
+                if (archivedSourceFile != null) {
+                    codeElement.setUrl(archivedSourceFile.getUrl());
+                    codeElement.setSize(archivedSourceFile.getNumberOfLines());
+                    count += archivedSourceFile.getNumberOfLines();
+                }
             }
 
             if (count > 0) {
@@ -103,6 +122,40 @@ public class SourceCodeComponentFinderStrategy implements ComponentFinderStrateg
         }
     }
 
+    private void readSourceArchive(Set<Component> components, JavadocCommentFilter filter) throws Exception {
+        try (SourceArchive sourceArchive = new SourceArchive(sourcePath, encoding)) {
+            for (Component component : components) {
+                for (CodeElement codeElement : component.getCode()) {
+                    String type = codeElement.getType();
+                    if (typeToArchivedSourceFile.containsKey(type)) {
+                        continue;
+                    }
+
+                    SourceArchive.SourceFile sourceFile = sourceArchive.find(type);
+                    if (sourceFile != null) {
+                        typeToArchivedSourceFile.put(type, sourceFile);
+                        if (sourceFile.getComment() != null) {
+                            typeToDescription.put(type, filter.filterAndTruncate(sourceFile.getComment()));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void readSourceDirectory(JavadocCommentFilter filter) throws Exception {
+        runJavaDoc();
+
+        for (ClassDoc classDoc : ROOTDOC.classes()) {
+            String type = classDoc.qualifiedTypeName();
+            String comment = filter.filterAndTruncate(classDoc.commentText());
+            String pathToSourceFile = classDoc.position().file().getCanonicalPath();
+
+            typeToSourceFile.put(type, new File(pathToSourceFile));
+            typeToDescription.put(type, comment);
+        }
+    }
+
     private void runJavaDoc() throws Exception {
         List<String> parameters = new LinkedList<>();
         parameters.add("-sourcepath");
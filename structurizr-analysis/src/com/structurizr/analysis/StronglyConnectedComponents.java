@@ -0,0 +1,122 @@
+package com.structurizr.analysis;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Finds the strongly connected components of an int-indexed graph, held in compressed sparse row form
+ * (the successors of node i are targets[offsets[i]] to targets[offsets[i+1] - 1]), using an iterative
+ * version of Tarjan's algorithm. This runs in time linear in the number of nodes and edges.
+ *
+ * Groups are numbered in the order they are completed, which means that a group is always numbered after
+ * all of the groups it depends upon (i.e. group numbers are a topological order of the condensed graph,
+ * dependencies first).
+ */
+final class StronglyConnectedComponents {
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    private final int[] groupOfNode;
+    private final int numberOfGroups;
+
+    StronglyConnectedComponents(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+
+        int numberOfNodes = offsets.length - 1;
+        groupOfNode = new int[numberOfNodes];
+
+        int[] index = new int[numberOfNodes];
+        int[] lowLink = new int[numberOfNodes];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[numberOfNodes];
+        int[] stack = new int[numberOfNodes];
+        int stackSize = 0;
+
+        // the explicit call stack (node, and position in its successors)
+        int[] callStack = new int[numberOfNodes];
+        int[] edgePosition = new int[numberOfNodes];
+
+        int nextIndex = 0;
+        int groups = 0;
+
+        for (int root = 0; root < numberOfNodes; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int depth = 0;
+            callStack[0] = root;
+            edgePosition[0] = offsets[root];
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int node = callStack[depth];
+
+                if (edgePosition[depth] < offsets[node + 1]) {
+                    int successor = targets[edgePosition[depth]++];
+                    if (index[successor] == -1) {
+                        index[successor] = lowLink[successor] = nextIndex++;
+                        stack[stackSize++] = successor;
+                        onStack[successor] = true;
+
+                        depth++;
+                        callStack[depth] = successor;
+                        edgePosition[depth] = offsets[successor];
+                    } else if (onStack[successor]) {
+                        lowLink[node] = Math.min(lowLink[node], index[successor]);
+                    }
+                } else {
+                    if (lowLink[node] == index[node]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            groupOfNode[member] = groups;
+                        } while (member != node);
+                        groups++;
+                    }
+
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callStack[depth];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                    }
+                }
+            }
+        }
+
+        this.numberOfGroups = groups;
+    }
+
+    /**
+     * Creates the compressed sparse row form of a graph whose successors are held as BitSets.
+     */
+    static StronglyConnectedComponents of(BitSet[] successors) {
+        int[] offsets = new int[successors.length + 1];
+        for (int i = 0; i < successors.length; i++) {
+            offsets[i + 1] = offsets[i] + successors[i].cardinality();
+        }
+
+        int[] targets = new int[offsets[successors.length]];
+        for (int i = 0, t = 0; i < successors.length; i++) {
+            for (int j = successors[i].nextSetBit(0); j >= 0; j = successors[i].nextSetBit(j + 1)) {
+                targets[t++] = j;
+            }
+        }
+
+        return new StronglyConnectedComponents(offsets, targets);
+    }
+
+    int getNumberOfGroups() {
+        return numberOfGroups;
+    }
+
+    int getGroup(int node) {
+        return groupOfNode[node];
+    }
+
+}
@@ -10,6 +10,8 @@ import org.apache.commons.logging.LogFactory;
 import java.lang.reflect.Field;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * This component finder strategy looks for the following Structurizr annotations.
@@ -17,11 +19,22 @@ import java.util.Set;
  *  - Definitions: @Component
  *  - Efferent dependencies: @UsesSoftwareSystem, @UsesContainer, @UsesComponent
  *  - Afferent dependencies: @UsedByPerson, @UsedBySoftwareSystem, @UsedByContainer
+ *
+ * If the code was compiled with the (optional) structurizr-annotations-processor on the annotation processor path,
+ * an index of the annotated types (META-INF/structurizr.components) will have been written. Passing true to
+ * {@link #setUseComponentIndex(boolean)} finds components from this index, rather than checking the annotations
+ * of every type. The index is only used for the classpath roots (directories and jars) that contain one, and the types
+ * from other roots are still checked. This is off by default, because the index only lists the types that were
+ * compiled with the annotation processor (i.e. not those from incremental builds, or builds using -proc:none),
+ * and @Component types missing from the index of their root won't be found.
  */
 public class StructurizrAnnotationsComponentFinderStrategy extends AbstractComponentFinderStrategy {
 
     private static final Log log = LogFactory.getLog(StructurizrAnnotationsComponentFinderStrategy.class);
 
+    private boolean useComponentIndex = false;
+    private ComponentIndex componentIndex;
+
     public StructurizrAnnotationsComponentFinderStrategy() {
         super(new FirstImplementationOfInterfaceSupportingTypesStrategy());
     }
@@ -30,13 +43,52 @@ public class StructurizrAnnotationsComponentFinderStrategy extends AbstractCompo
         super(strategies);
     }
 
+    /**
+     * Sets whether the compile-time component index should be used, when present.
+     *
+     * @param useComponentIndex     true to use the index, false to always scan the classpath (the default)
+     */
+    public void setUseComponentIndex(boolean useComponentIndex) {
+        this.useComponentIndex = useComponentIndex;
+    }
+
+    @Override
+    public void beforeFindComponents() {
+        super.beforeFindComponents();
+
+        componentIndex = null;
+        if (useComponentIndex) {
+            ClassLoader classLoader = getComponentFinder().getUrlClassLoader();
+            if (classLoader == null) {
+                classLoader = ClassLoader.getSystemClassLoader();
+            }
+
+            try {
+                componentIndex = ComponentIndex.load(classLoader);
+            } catch (Exception e) {
+                log.warn("Could not read the component index ... falling back to classpath scanning.", e);
+            }
+        }
+    }
+
     @Override
     protected Set<Component> doFindComponents() {
         Set<Component> components = new HashSet<>();
         Container container = getComponentFinder().getContainer();
+        Set<Class<?>> types = getTypeRepository().getTypes().asSet();
+
+        if (componentIndex != null) {
+            components.addAll(findComponentsFromIndex());
+
+            // the types from classpath roots without an index (e.g. a library, or classes compiled without
+            // the annotation processor) still need to be checked
+            types = types.stream()
+                    .filter(type -> !componentIndex.isIndexed(type) && container.getComponentOfType(type.getCanonicalName()) == null)
+                    .collect(Collectors.toSet());
+        }
 
         // find all types that have been annotated @Component
-        Set<Class<?>> componentTypes = findTypesAnnotatedWith(com.structurizr.annotation.Component.class);
+        Set<Class<?>> componentTypes = TypeUtils.findTypesAnnotatedWith(com.structurizr.annotation.Component.class, types);
         for (Class<?> componentType : componentTypes) {
             Component component = container.addComponent(
                     componentType.getSimpleName(),
@@ -50,6 +102,46 @@ public class StructurizrAnnotationsComponentFinderStrategy extends AbstractCompo
         return components;
     }
 
+    private Set<Component> findComponentsFromIndex() {
+        Set<Component> components = new HashSet<>();
+        Container container = getComponentFinder().getContainer();
+
+        for (String type : componentIndex.getComponentTypes()) {
+            if (isInPackagesToScan(type)) {
+                Component component = container.addComponent(
+                        type.substring(type.lastIndexOf('.') + 1),
+                        type,
+                        componentIndex.getDescription(type),
+                        componentIndex.getTechnology(type)
+                );
+                components.add(component);
+            }
+        }
+
+        return components;
+    }
+
+    private boolean isInPackagesToScan(String type) {
+        for (Pattern exclusion : getComponentFinder().getExclusions()) {
+            if (exclusion.matcher(type).matches()) {
+                return false;
+            }
+        }
+
+        for (String packageName : getComponentFinder().getPackageNames()) {
+            if (type.startsWith(packageName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean mightHaveAnnotation(String type, String annotation) {
+        // types missing from the index (e.g. compiled without the annotation processor) are always checked
+        return componentIndex == null || !componentIndex.containsType(type) || componentIndex.hasAnnotation(type, annotation);
+    }
+
     @Override
     public void afterFindComponents() {
         // this will find component dependencies, but the relationship descriptions
@@ -58,15 +150,29 @@ public class StructurizrAnnotationsComponentFinderStrategy extends AbstractCompo
 
         for (Component component : getComponentFinder().getContainer().getComponents()) {
             for (CodeElement codeElement : component.getCode()) {
+                String type = codeElement.getType();
+
                 // find the efferent dependencies
-                findUsesComponentAnnotations(component, codeElement.getType());
-                findUsesSoftwareSystemsAnnotations(component, codeElement.getType());
-                findUsesContainerAnnotations(component, codeElement.getType());
+                if (mightHaveAnnotation(type, "UsesComponent")) {
+                    findUsesComponentAnnotations(component, type);
+                }
+                if (mightHaveAnnotation(type, "UsesSoftwareSystem")) {
+                    findUsesSoftwareSystemsAnnotations(component, type);
+                }
+                if (mightHaveAnnotation(type, "UsesContainer")) {
+                    findUsesContainerAnnotations(component, type);
+                }
 
                 // and also the afferent dependencies
-                findUsedByPersonAnnotations(component, codeElement.getType());
-                findUsedBySoftwareSystemAnnotations(component, codeElement.getType());
-                findUsedByContainerAnnotations(component, codeElement.getType());
+                if (mightHaveAnnotation(type, "UsedByPerson")) {
+                    findUsedByPersonAnnotations(component, type);
+                }
+                if (mightHaveAnnotation(type, "UsedBySoftwareSystem")) {
+                    findUsedBySoftwareSystemAnnotations(component, type);
+                }
+                if (mightHaveAnnotation(type, "UsedByContainer")) {
+                    findUsedByContainerAnnotations(component, type);
+                }
             }
         }
     }
@@ -21,4 +21,12 @@ public abstract class SupportingTypesStrategy {
 
     public abstract Set<Class<?>> findSupportingTypes(Component component);
 
+    /**
+     * Finds the supporting types of a component that is made up of the specified types, rather than its code elements
+     * (when re-analysing incrementally, some of those may no longer apply). By default, the types are ignored.
+     */
+    Set<Class<?>> findSupportingTypes(Component component, Set<String> codeTypes) {
+        return findSupportingTypes(component);
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.structurizr.analysis;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * A compact, immutable record of the facts about a type that are needed to describe a code element
+ * (the canonical name, modifiers and category), so that they can be computed once per type rather than
+ * by loading the type each time they're needed.
+ */
+public final class TypeFacts {
+
+    private final String canonicalName;
+    private final int modifiers;
+    private final TypeCategory category;
+
+    private TypeFacts(String canonicalName, int modifiers, TypeCategory category) {
+        this.canonicalName = canonicalName;
+        this.modifiers = modifiers;
+        this.category = category;
+    }
+
+    /**
+     * Creates the facts for the specified type.
+     *
+     * @param type  a Class object
+     * @return  a TypeFacts object
+     */
+    public static TypeFacts of(Class<?> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("A type must be specified.");
+        }
+
+        int modifiers = type.getModifiers();
+        TypeCategory category;
+        if (type.isInterface()) {
+            category = TypeCategory.INTERFACE;
+        } else if (type.isEnum()) {
+            category = TypeCategory.ENUM;
+        } else if (Modifier.isAbstract(modifiers)) {
+            category = TypeCategory.ABSTRACT_CLASS;
+        } else {
+            category = TypeCategory.CLASS;
+        }
+
+        return new TypeFacts(type.getCanonicalName(), modifiers, category);
+    }
+
+    /**
+     * Gets the canonical name of the type.
+     *
+     * @return  the canonical name, or null if the type doesn't have one (e.g. it's anonymous)
+     */
+    public String getCanonicalName() {
+        return canonicalName;
+    }
+
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    public TypeCategory getCategory() {
+        return category;
+    }
+
+    public TypeVisibility getVisibility() {
+        if (Modifier.isPrivate(modifiers)) {
+            return TypeVisibility.PRIVATE;
+        } else if (Modifier.isPublic(modifiers)) {
+            return TypeVisibility.PUBLIC;
+        } else if (Modifier.isProtected(modifiers)) {
+            return TypeVisibility.PROTECTED;
+        } else {
+            return TypeVisibility.PACKAGE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return canonicalName + " (" + getVisibility() + " " + category + ")";
+    }
+
+}
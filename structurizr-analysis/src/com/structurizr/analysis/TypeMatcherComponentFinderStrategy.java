@@ -1,7 +1,6 @@
 package com.structurizr.analysis;
 
 import com.structurizr.model.Component;
-import com.structurizr.model.Container;
 
 import java.util.*;
 
@@ -9,7 +8,7 @@ import java.util.*;
  * A component finder strategy that uses type information to find components, based upon a number
  * of pluggable {@link TypeMatcher} implementations.
  */
-public class TypeMatcherComponentFinderStrategy extends AbstractComponentFinderStrategy {
+public class TypeMatcherComponentFinderStrategy extends AbstractComponentFinderStrategy implements ConcurrentComponentFinderStrategy {
 
     private List<TypeMatcher> typeMatchers = new LinkedList<>();
 
@@ -19,28 +18,25 @@ public class TypeMatcherComponentFinderStrategy extends AbstractComponentFinderS
 
     @Override
     protected Set<Component> doFindComponents() {
-        Set<Component> components = new HashSet<>();
-
-        Set<Class<?>> types = getTypeRepository().getAllTypes();
-        for (Class type : types) {
-            for (TypeMatcher typeMatcher : typeMatchers) {
-                if (typeMatcher.matches(type)) {
-                    final Container container = getComponentFinder().getContainer();
-                    Component newComponent = addComponent(
-                        container,
-                        type.getSimpleName(),
-                        type.getCanonicalName(),
-                        typeMatcher.getDescription(),
-                        typeMatcher.getTechnology());
-
-                    if (newComponent != null) {
-                        components.add(newComponent);
-                    }
-                }
+        return addComponents(proposeComponents());
+    }
+
+    @Override
+    public List<ComponentProposal> proposeComponents() {
+        List<ComponentProposal> proposals = new ArrayList<>();
+        TypeMatcherEngine typeMatcherEngine = new TypeMatcherEngine(typeMatchers);
+
+        for (Class type : getTypeRepository().getTypes()) {
+            for (TypeMatcher typeMatcher : typeMatcherEngine.findMatchers(type)) {
+                proposals.add(new ComponentProposal(
+                    type.getSimpleName(),
+                    type.getCanonicalName(),
+                    typeMatcher.getDescription(),
+                    typeMatcher.getTechnology()));
             }
         }
 
-        return components;
+        return proposals;
     }
 
 }
\ No newline at end of file
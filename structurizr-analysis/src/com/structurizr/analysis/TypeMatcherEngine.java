@@ -0,0 +1,207 @@
+package com.structurizr.analysis;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates a list of type matchers against types, without asking every matcher about every type.
+ * The built-in matchers are grouped by kind and answered from an index: a trie of reversed suffixes
+ * for name suffixes, and maps keyed on annotation and supertype for the others. Regexes are only run against
+ * the types whose name starts with the literal prefix of the regex (if any). Any other type matchers
+ * (including subclasses of the built-in ones) are asked directly.
+ */
+final class TypeMatcherEngine {
+
+    private final List<TypeMatcher> typeMatchers;
+
+    private final SuffixNode suffixes = new SuffixNode();
+    private final Map<Class<?>, List<Integer>> matchersByAnnotation = new HashMap<>();
+    private final Map<Class<?>, List<Integer>> matchersBySupertype = new HashMap<>();
+    private final List<Integer> regexMatchers = new ArrayList<>();
+    private final List<Pattern> regexes = new ArrayList<>();
+    private final List<String> regexPrefixes = new ArrayList<>();
+    private final List<Integer> otherMatchers = new ArrayList<>();
+
+    TypeMatcherEngine(List<TypeMatcher> typeMatchers) {
+        this.typeMatchers = new ArrayList<>(typeMatchers);
+
+        for (int i = 0; i < this.typeMatchers.size(); i++) {
+            TypeMatcher typeMatcher = this.typeMatchers.get(i);
+            Class<?> kind = typeMatcher.getClass();
+
+            if (kind == NameSuffixTypeMatcher.class) {
+                suffixes.add(((NameSuffixTypeMatcher)typeMatcher).getSuffix(), i);
+            } else if (kind == AnnotationTypeMatcher.class) {
+                matchersByAnnotation.computeIfAbsent(((AnnotationTypeMatcher)typeMatcher).getAnnotation(), k -> new ArrayList<>()).add(i);
+            } else if (kind == ExtendsClassTypeMatcher.class) {
+                matchersBySupertype.computeIfAbsent(((ExtendsClassTypeMatcher)typeMatcher).getClassType(), k -> new ArrayList<>()).add(i);
+            } else if (kind == ImplementsInterfaceTypeMatcher.class) {
+                matchersBySupertype.computeIfAbsent(((ImplementsInterfaceTypeMatcher)typeMatcher).getInterfaceType(), k -> new ArrayList<>()).add(i);
+            } else if (kind == RegexTypeMatcher.class) {
+                Pattern regex = ((RegexTypeMatcher)typeMatcher).getRegex();
+                regexMatchers.add(i);
+                regexes.add(regex);
+                regexPrefixes.add(literalPrefix(regex));
+            } else {
+                otherMatchers.add(i);
+            }
+        }
+    }
+
+    /**
+     * Finds the type matchers that match the specified type.
+     *
+     * @param type  the type to match
+     * @return  a List of TypeMatcher objects, in the order they were given to this engine
+     */
+    List<TypeMatcher> findMatchers(Class<?> type) {
+        if (type == null) {
+            return Collections.emptyList();
+        }
+
+        BitSet matches = new BitSet(typeMatchers.size());
+
+        suffixes.findSuffixesOf(type.getSimpleName(), matches);
+
+        if (!matchersByAnnotation.isEmpty()) {
+            for (Annotation annotation : type.getAnnotations()) {
+                setAll(matches, matchersByAnnotation.get(annotation.annotationType()));
+            }
+        }
+
+        if (!matchersBySupertype.isEmpty()) {
+            for (Class<?> supertype : getSupertypes(type)) {
+                setAll(matches, matchersBySupertype.get(supertype));
+            }
+        }
+
+        if (!regexMatchers.isEmpty()) {
+            String name = type.getCanonicalName();
+            if (name != null) {
+                for (int i = 0; i < regexMatchers.size(); i++) {
+                    if (name.startsWith(regexPrefixes.get(i)) && regexes.get(i).matcher(name).matches()) {
+                        matches.set(regexMatchers.get(i));
+                    }
+                }
+            }
+        }
+
+        for (int i : otherMatchers) {
+            if (typeMatchers.get(i).matches(type)) {
+                matches.set(i);
+            }
+        }
+
+        List<TypeMatcher> matchers = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            matchers.add(typeMatchers.get(i));
+        }
+
+        return matchers;
+    }
+
+    private static void setAll(BitSet bits, List<Integer> indexes) {
+        if (indexes != null) {
+            for (int i : indexes) {
+                bits.set(i);
+            }
+        }
+    }
+
+    /**
+     * Gets the type itself, plus all of its superclasses and interfaces (i.e. all of the types it is assignable to,
+     * which includes Object for interfaces, even though Object isn't one of their supertypes).
+     */
+    private static Set<Class<?>> getSupertypes(Class<?> type) {
+        Set<Class<?>> supertypes = new HashSet<>();
+        Deque<Class<?>> typesToVisit = new ArrayDeque<>();
+        typesToVisit.add(type);
+
+        while (!typesToVisit.isEmpty()) {
+            Class<?> t = typesToVisit.poll();
+            if (supertypes.add(t)) {
+                if (t.getSuperclass() != null) {
+                    typesToVisit.add(t.getSuperclass());
+                }
+                typesToVisit.addAll(Arrays.asList(t.getInterfaces()));
+            }
+        }
+
+        if (type.isInterface()) {
+            supertypes.add(Object.class);
+        }
+
+        return supertypes;
+    }
+
+    /**
+     * Finds the literal text that any match of the regex must start with (e.g. "com.mycompany" for
+     * "com\.mycompany\..*Controller"), or an empty string if there isn't any.
+     */
+    static String literalPrefix(Pattern regex) {
+        if (regex.flags() != 0) {
+            return "";
+        }
+
+        String pattern = regex.pattern();
+        StringBuilder prefix = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int length = 1;
+            if (c == '\\') {
+                // only escaped punctuation is literal (e.g. \. but not \d or \Q)
+                if (i + 1 < pattern.length() && !Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    c = pattern.charAt(i + 1);
+                    length = 2;
+                } else {
+                    break;
+                }
+            } else if (".[]{}()*+?^$|".indexOf(c) > -1) {
+                break;
+            }
+
+            // a quantifier applies to the preceding character, which therefore may not appear
+            if (i + length < pattern.length() && "*+?{".indexOf(pattern.charAt(i + length)) > -1) {
+                break;
+            }
+
+            prefix.append(c);
+            i += length;
+        }
+
+        // a top-level alternation means none of the prefix is required
+        return pattern.indexOf('|') > -1 ? "" : prefix.toString();
+    }
+
+    /**
+     * A node in a trie of reversed suffixes.
+     */
+    private static final class SuffixNode {
+
+        private final Map<Character, SuffixNode> children = new HashMap<>();
+        private final List<Integer> matchers = new ArrayList<>();
+
+        void add(String suffix, int matcher) {
+            SuffixNode node = this;
+            for (int i = suffix.length() - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(suffix.charAt(i), c -> new SuffixNode());
+            }
+            node.matchers.add(matcher);
+        }
+
+        void findSuffixesOf(String name, BitSet matches) {
+            SuffixNode node = this;
+            for (int i = name.length() - 1; i >= 0 && !node.children.isEmpty(); i--) {
+                node = node.children.get(name.charAt(i));
+                if (node == null) {
+                    return;
+                }
+                setAll(matches, node.matchers);
+            }
+        }
+
+    }
+
+}
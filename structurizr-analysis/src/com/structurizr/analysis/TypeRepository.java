@@ -22,6 +22,31 @@ public interface TypeRepository {
      */
     Set<Class<?>> getAllTypes();
 
+    /**
+     * Gets an immutable view of all of the types found by this type repository. Unlike {@link #getAllTypes()},
+     * implementations can return the same view every time, without copying. By default, this wraps the set
+     * returned by {@link #getAllTypes()} (so costs no more than calling it).
+     *
+     * @return  a TypeView
+     */
+    default TypeView getTypes() {
+        return TypeView.wrap(getAllTypes());
+    }
+
+    /**
+     * Gets the facts (canonical name, modifiers and category) about the specified type.
+     *
+     * @param typeName  the fully qualified type name
+     * @return  a TypeFacts object, or null if the type can't be loaded
+     */
+    default TypeFacts getTypeFacts(String typeName) {
+        try {
+            return TypeFacts.of(loadClass(typeName));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
     /**
      * Finds the set of types referenced by the specified type.
      *
@@ -30,6 +55,15 @@ public interface TypeRepository {
      */
     Set<Class<?>> findReferencedTypes(String typeName);
 
+    /**
+     * Discards anything cached about the specified type, because it has changed (or been removed) since it was loaded.
+     * Implementations that don't cache anything can ignore this.
+     *
+     * @param typeName  the fully qualified type name
+     */
+    default void invalidate(String typeName) {
+    }
+
     /**
      * Loads the specified type.
      * @param typeName the type to load
@@ -24,17 +24,7 @@ public class TypeUtils {
      */
     public static TypeVisibility getVisibility(TypeRepository typeRepository, String typeName) {
         try {
-            Class<?> type = typeRepository.loadClass(typeName);
-            int modifiers = type.getModifiers();
-            if (Modifier.isPrivate(modifiers)) {
-                return TypeVisibility.PRIVATE;
-            } else if (Modifier.isPublic(modifiers)) {
-                return TypeVisibility.PUBLIC;
-            } else if (Modifier.isProtected(modifiers)) {
-                return TypeVisibility.PROTECTED;
-            } else {
-                return TypeVisibility.PACKAGE;
-            }
+            return TypeFacts.of(typeRepository.loadClass(typeName)).getVisibility();
         } catch (ClassNotFoundException e) {
             log.warn("Visibility for type " + typeName + " could not be found.");
             return null;
@@ -50,18 +40,7 @@ public class TypeUtils {
      */
     public static TypeCategory getCategory(TypeRepository typeRepository, String typeName) {
         try {
-            Class<?> type = typeRepository.loadClass(typeName);
-            if (type.isInterface()) {
-                return TypeCategory.INTERFACE;
-            } else if (type.isEnum()) {
-                return TypeCategory.ENUM;
-            } else {
-                if (Modifier.isAbstract(type.getModifiers())) {
-                    return TypeCategory.ABSTRACT_CLASS;
-                } else{
-                    return TypeCategory.CLASS;
-                }
-            }
+            return TypeFacts.of(typeRepository.loadClass(typeName)).getCategory();
         } catch (ClassNotFoundException e) {
             log.warn("Category for type " + typeName + " could not be found.");
             return null;
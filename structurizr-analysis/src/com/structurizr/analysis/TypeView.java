@@ -0,0 +1,178 @@
+package com.structurizr.analysis;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, indexed view of the types found by a type repository. Unlike
+ * {@link TypeRepository#getAllTypes()}, which returns a copy, the same view can be
+ * shared between callers without allocating. Each type is given an id (0 to size - 1),
+ * which can be used to index into arrays.
+ */
+public final class TypeView implements Iterable<Class<?>> {
+
+    private final Set<Class<?>> set;
+
+    // the ids, facts and names are only computed if they are asked for
+    private volatile Index index;
+
+    /**
+     * Creates a new view of the specified types (which are copied).
+     *
+     * @param types     a Collection of Class objects
+     */
+    public TypeView(Collection<Class<?>> types) {
+        this(new LinkedHashSet<>(types));
+    }
+
+    private TypeView(Set<Class<?>> types) {
+        this.set = Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Creates a view that wraps the specified set, without copying it.
+     *
+     * @param types     a Set of Class objects, which must not be modified afterwards
+     * @return  a TypeView
+     */
+    static TypeView wrap(Set<Class<?>> types) {
+        return new TypeView(types);
+    }
+
+    private Index index() {
+        Index index = this.index;
+        if (index == null) {
+            index = new Index(set);
+            this.index = index;
+        }
+
+        return index;
+    }
+
+    /**
+     * Gets the number of types.
+     *
+     * @return  the number of types
+     */
+    public int size() {
+        return set.size();
+    }
+
+    public boolean isEmpty() {
+        return set.isEmpty();
+    }
+
+    /**
+     * Determines whether this view contains the specified type.
+     *
+     * @param type  a Class object
+     * @return  true if the type is included, false otherwise
+     */
+    public boolean contains(Class<?> type) {
+        return set.contains(type);
+    }
+
+    /**
+     * Determines whether this view contains a type with the specified name.
+     *
+     * @param typeName  a fully qualified (canonical or binary) type name
+     * @return  true if the type is included, false otherwise
+     */
+    public boolean contains(String typeName) {
+        return index().idsByName.containsKey(typeName);
+    }
+
+    /**
+     * Gets the id of the specified type.
+     *
+     * @param typeName  a fully qualified (canonical or binary) type name
+     * @return  the id, or -1 if the type isn't included
+     */
+    public int getId(String typeName) {
+        Integer id = index().idsByName.get(typeName);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the type with the specified id.
+     *
+     * @param id    the id, from 0 to size - 1
+     * @return  a Class object
+     */
+    public Class<?> get(int id) {
+        return index().types[id];
+    }
+
+    /**
+     * Gets the type with the specified name.
+     *
+     * @param typeName  a fully qualified (canonical or binary) type name
+     * @return  a Class object, or null if the type isn't included
+     */
+    public Class<?> get(String typeName) {
+        int id = getId(typeName);
+        return id > -1 ? index().types[id] : null;
+    }
+
+    /**
+     * Gets the facts (canonical name, modifiers and category) about the type with the specified id.
+     *
+     * @param id    the id, from 0 to size - 1
+     * @return  a TypeFacts object
+     */
+    public TypeFacts getFacts(int id) {
+        return index().facts[id];
+    }
+
+    /**
+     * Gets the facts (canonical name, modifiers and category) about the type with the specified name.
+     *
+     * @param typeName  a fully qualified (canonical or binary) type name
+     * @return  a TypeFacts object, or null if the type isn't included
+     */
+    public TypeFacts getFacts(String typeName) {
+        int id = getId(typeName);
+        return id > -1 ? index().facts[id] : null;
+    }
+
+    @Override
+    public Iterator<Class<?>> iterator() {
+        return set.iterator();
+    }
+
+    public Stream<Class<?>> stream() {
+        return set.stream();
+    }
+
+    /**
+     * Gets an unmodifiable Set view of the types (no copy is made).
+     *
+     * @return  an unmodifiable Set of Class objects
+     */
+    public Set<Class<?>> asSet() {
+        return set;
+    }
+
+    private static final class Index {
+
+        private final Class<?>[] types;
+        private final TypeFacts[] facts;
+        private final Map<String, Integer> idsByName = new HashMap<>();
+
+        Index(Set<Class<?>> set) {
+            this.types = set.toArray(new Class<?>[0]);
+            this.facts = new TypeFacts[types.length];
+
+            for (int id = 0; id < types.length; id++) {
+                Class<?> type = types[id];
+                facts[id] = TypeFacts.of(type);
+                idsByName.putIfAbsent(type.getName(), id);
+                if (type.getCanonicalName() != null) {
+                    idsByName.putIfAbsent(type.getCanonicalName(), id);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class AnalysisResultTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+    private ComponentFinder componentFinder;
+
+    @Before
+    public void setUp() {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+
+        TypeMatcherComponentFinderStrategy repositories = new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Repository", "Repository description", ""));
+        repositories.addSupportingTypesStrategy(new FirstImplementationOfInterfaceSupportingTypesStrategy());
+
+        componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "Controller description", "")),
+                repositories
+        );
+    }
+
+    @Test
+    public void test_analyse_DoesNotModifyTheContainer() throws Exception {
+        AnalysisResult result = componentFinder.analyse();
+
+        assertEquals(0, container.getComponents().size());
+        assertEquals(2, result.getNumberOfComponents());
+        assertEquals(3, result.getNumberOfCodeElements());
+        assertEquals(1, result.getNumberOfEdges());
+
+        int controller = result.getComponentIndex("MyController");
+        int repository = result.getComponentIndex("MyRepository");
+        assertEquals("test.TypeMatcherComponentFinderStrategy.MyController", result.getComponentType(controller));
+        assertEquals("Repository description", result.getComponentDescription(repository));
+        assertEquals("test.TypeMatcherComponentFinderStrategy.MyRepository", result.getCodeElementTypes(repository).get(0));
+        assertEquals("test.TypeMatcherComponentFinderStrategy.MyRepositoryImpl", result.getCodeElementTypes(repository).get(1));
+
+        int edge = result.getEdgeIndex(controller, repository, "");
+        assertEquals(0, edge);
+        assertEquals(-1, result.getEdgeIndex(repository, controller, ""));
+        assertEquals(-1, result.getEdgeIndex(controller, repository, "Reads from"));
+        assertEquals(2, result.getEdgeWeight(edge)); // MyController references MyRepository and MyRepositoryImpl
+    }
+
+    @Test
+    public void test_analyse_DoesNotAffectSubsequentRuns() throws Exception {
+        componentFinder.analyse();
+
+        assertEquals(2, componentFinder.findComponents().size());
+        assertEquals(2, container.getComponents().size());
+    }
+
+    @Test
+    public void test_analyse_RunsStrategiesAgainstACopyOfTheModel_AndLetsThemDiscardTheScratchComponents() throws Exception {
+        model.addPerson("User", "");
+        model.addSoftwareSystem("External System", "");
+        container.getSoftwareSystem().addContainer("Database", "", "");
+
+        Set<Component> componentsDiscarded = new HashSet<>();
+        List<Boolean> elementsFound = new ArrayList<>();
+        ComponentFinderStrategy strategy = new ComponentFinderStrategy() {
+            private ComponentFinder componentFinder;
+
+            @Override
+            public void setComponentFinder(ComponentFinder componentFinder) {
+                this.componentFinder = componentFinder;
+            }
+
+            @Override
+            public void beforeFindComponents() {
+            }
+
+            @Override
+            public Set<Component> findComponents() {
+                Container scratch = componentFinder.getContainer();
+                elementsFound.add(scratch != container &&
+                        scratch.getModel().getPersonWithName("User") != null &&
+                        scratch.getModel().getSoftwareSystemWithName("External System") != null &&
+                        scratch.getSoftwareSystem().getContainerWithName("Database") != null);
+
+                return new HashSet<>();
+            }
+
+            @Override
+            public void afterFindComponents() {
+            }
+
+            @Override
+            public void discardComponents(Set<Component> components) {
+                componentsDiscarded.addAll(components);
+            }
+        };
+
+        new ComponentFinder(container, "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "", "")),
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Repository", "", "")),
+                strategy).analyse();
+
+        assertEquals(Collections.singletonList(true), elementsFound);
+        assertEquals(2, componentsDiscarded.size());
+    }
+
+    @Test
+    public void test_apply_AddsTheComponentsCodeElementsAndRelationshipsToTheContainer() throws Exception {
+        AnalysisResult result = componentFinder.analyse();
+
+        List<Component> components = result.apply(container);
+        assertEquals(2, components.size());
+
+        Component controller = container.getComponentWithName("MyController");
+        Component repository = container.getComponentWithName("MyRepository");
+        assertEquals("Controller description", controller.getDescription());
+        assertEquals(2, repository.getCode().size());
+        assertEquals("public", repository.getType().getVisibility());
+        assertTrue(controller.hasEfferentRelationshipWith(repository));
+
+        // and applying the result again changes nothing
+        result.apply(container);
+        assertEquals(2, container.getComponents().size());
+        assertEquals(1, model.getRelationships().size());
+    }
+
+    @Test
+    public void test_apply_AddsEachRelationshipBetweenTwoComponents_WhenTheyHaveDifferentDescriptions() {
+        Container source = model.addSoftwareSystem("Source", "").addContainer("Container", "", "");
+        Component a = source.addComponent("A", "com.example.A", "", "");
+        Component b = source.addComponent("B", "com.example.B", "", "");
+        a.uses(b, "Writes to");
+        a.uses(b, "Reads from");
+
+        AnalysisResult result = AnalysisResult.of(source, null);
+        assertEquals(2, result.getNumberOfEdges());
+        assertEquals(0, result.getEdgeIndex(0, 1, "Reads from"));
+        assertEquals(1, result.getEdgeIndex(0, 1, "Writes to"));
+
+        result.apply(container);
+        result.apply(container);
+        Set<String> descriptions = new HashSet<>();
+        container.getComponentWithName("A").getRelationships().forEach(r -> descriptions.add(r.getDescription()));
+        assertEquals(new HashSet<>(Arrays.asList("Reads from", "Writes to")), descriptions);
+        assertEquals(2, container.getComponentWithName("A").getRelationships().size());
+    }
+
+    @Test
+    public void test_equals_ReturnsTrue_WhenTheCodeIsTheSame() throws Exception {
+        AnalysisResult result = componentFinder.analyse();
+
+        assertEquals(result, componentFinder.analyse());
+        assertEquals(result.hashCode(), componentFinder.analyse().hashCode());
+    }
+
+    @Test
+    public void test_AnalysisResultCanBeSerialised() throws Exception {
+        AnalysisResult result = componentFinder.analyse();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(result);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(result, in.readObject());
+        }
+    }
+
+}
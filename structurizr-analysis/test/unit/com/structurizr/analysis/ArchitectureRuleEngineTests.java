@@ -0,0 +1,110 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class ArchitectureRuleEngineTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+    private Component controller;
+    private Component service;
+    private Component repository;
+    private Component util;
+
+    @Before
+    public void setUp() {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        controller = container.addComponent("SomeController", "", "Controller");
+        service = container.addComponent("SomeService", "", "Service");
+        repository = container.addComponent("SomeRepository", "", "Repository");
+        repository.addTags("Data");
+        util = container.addComponent("Util", "", "");
+
+        controller.uses(service, "");
+        controller.uses(util, "");
+        service.uses(repository, "");
+    }
+
+    @Test
+    public void test_evaluate_ReportsNoViolations_WhenTheRulesAreFollowed() {
+        ArchitectureRuleReport report = new ArchitectureRuleEngine()
+                .addRule(ArchitectureRule.mustNotUse("Controllers must not use repositories directly",
+                        ComponentSelector.withTechnology("Controller"), ComponentSelector.withTechnology("Repository")))
+                .evaluate(container);
+
+        assertFalse(report.hasViolations());
+        assertEquals("", report.toString());
+    }
+
+    @Test
+    public void test_evaluate_ReportsDirectViolations() {
+        controller.uses(repository, "");
+        ArchitectureRule rule = ArchitectureRule.mustNotUse("Controllers must not use repositories directly",
+                ComponentSelector.withTechnology("Controller"), ComponentSelector.withTag("Data"));
+
+        ArchitectureRuleReport report = new ArchitectureRuleEngine().addRule(rule).evaluate(container);
+
+        assertEquals(1, report.getViolations(rule).size());
+        ArchitectureRuleViolation violation = report.getViolations().get(0);
+        assertSame(controller, violation.getSource());
+        assertSame(repository, violation.getDestination());
+        assertTrue(violation.isDirect());
+        assertEquals("Controllers must not use repositories directly\tSomeController\tSomeRepository\tSomeController -> SomeRepository" + System.lineSeparator(), report.toString());
+    }
+
+    @Test
+    public void test_evaluate_ReportsIndirectViolationsWithTheShortestPath() {
+        ArchitectureRule rule = ArchitectureRule.mustNotDependOn("Utilities must not depend on data access",
+                ComponentSelector.withName("Util|SomeController"), ComponentSelector.withTag("Data"));
+        util.uses(controller, "");
+
+        List<ArchitectureRuleViolation> violations = new ArchitectureRuleEngine().addRule(rule).evaluate(container).getViolations();
+
+        assertEquals(2, violations.size());
+        assertEquals(asList(controller, service, repository), violations.get(0).getPath());
+        assertEquals(asList(util, controller, service, repository), violations.get(1).getPath());
+        assertFalse(violations.get(1).isDirect());
+    }
+
+    @Test
+    public void test_evaluate_ReportsUnexpectedDependencies_ForMayOnlyUseRules() {
+        ArchitectureRule rule = ArchitectureRule.mayOnlyUse("Controllers may only use services",
+                ComponentSelector.withTechnology("Controller"), ComponentSelector.withTechnology("Service"));
+
+        List<ArchitectureRuleViolation> violations = new ArchitectureRuleEngine().addRule(rule).evaluate(container).getViolations();
+
+        assertEquals(1, violations.size());
+        assertSame(util, violations.get(0).getDestination());
+    }
+
+    @Test
+    public void test_evaluate_IgnoresRemovedRelationships() {
+        controller.uses(repository, "").addTags(IncrementalComponentFinder.REMOVED_TAG);
+
+        ArchitectureRuleReport report = new ArchitectureRuleEngine()
+                .addRule(ArchitectureRule.mustNotUse("Controllers must not use repositories directly",
+                        ComponentSelector.withTechnology("Controller"), ComponentSelector.withTechnology("Repository")))
+                .evaluate(container);
+
+        assertFalse(report.hasViolations());
+    }
+
+    @Test
+    public void test_mustNotUse_ThrowsAnException_WhenNoNameIsSpecified() {
+        try {
+            ArchitectureRule.mustNotUse(" ", ComponentSelector.all(), ComponentSelector.all());
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("A rule name must be specified.", iae.getMessage());
+        }
+    }
+
+}
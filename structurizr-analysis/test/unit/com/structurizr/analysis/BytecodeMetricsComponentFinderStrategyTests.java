@@ -0,0 +1,52 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+public class BytecodeMetricsComponentFinderStrategyTests extends AbstractWorkspaceTestBase {
+
+    @Test
+    public void test_read_CountsMethodsInstructionsAndComplexity() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/test/BytecodeMetrics/SomeComponent.class")) {
+            BytecodeMetrics metrics = BytecodeMetrics.read(in);
+
+            assertEquals(2, metrics.getNumberOfMethods());
+            assertTrue(metrics.getNumberOfInstructions() > 10);
+            assertEquals(6, metrics.getCyclomaticComplexity()); // constructor (1) + describe (1 + 1 if + 3 cases)
+            assertEquals(5, metrics.getMaximumMethodComplexity());
+        }
+    }
+
+    @Test
+    public void test_afterFindComponents_SetsSizesAndProperties() throws Exception {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+
+        TypeMatcherComponentFinderStrategy strategy = new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Component", "", ""));
+        strategy.addSupportingTypesStrategy(new ReferencedTypesSupportingTypesStrategy(false));
+        ComponentFinder componentFinder = new ComponentFinder(container, "test.BytecodeMetrics", strategy, new BytecodeMetricsComponentFinderStrategy());
+        componentFinder.findComponents();
+
+        Component component = container.getComponentWithName("SomeComponent");
+        assertEquals(2, component.getCode().size());
+
+        long size = 0;
+        for (CodeElement codeElement : component.getCode()) {
+            assertTrue(codeElement.getSize() > 0);
+            size += codeElement.getSize();
+        }
+        assertEquals(size, component.getSize());
+
+        assertEquals("4", component.getProperties().get(BytecodeMetricsComponentFinderStrategy.NUMBER_OF_METHODS_PROPERTY));
+        assertEquals(String.valueOf(size), component.getProperties().get(BytecodeMetricsComponentFinderStrategy.NUMBER_OF_INSTRUCTIONS_PROPERTY));
+        assertEquals("9", component.getProperties().get(BytecodeMetricsComponentFinderStrategy.CYCLOMATIC_COMPLEXITY_PROPERTY)); // plus SomeHelper: constructor (1) + describe (1 + 1 handler)
+        assertEquals("5", component.getProperties().get(BytecodeMetricsComponentFinderStrategy.MAXIMUM_METHOD_COMPLEXITY_PROPERTY));
+    }
+
+}
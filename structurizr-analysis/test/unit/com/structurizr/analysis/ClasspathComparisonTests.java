@@ -0,0 +1,100 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class ClasspathComparisonTests extends AbstractWorkspaceTestBase {
+
+    @Test
+    public void test_compare_ReturnsTheComponentsAndRelationshipsThatHaveChanged() throws Exception {
+        File directory = Files.createTempDirectory("structurizr").toFile();
+        URL[] before = new URL[] {
+                createJar(new File(directory, "app-1.0.jar"), "AComponent", "DComponent"),
+                createJar(new File(directory, "lib-1.0.jar"), "BComponent")
+        };
+        URL[] after = new URL[] {
+                createJar(new File(directory, "app-2.0.jar"), "AComponent", "CComponent"),
+                createJar(new File(directory, "lib-1.0-copy.jar"), "BComponent")
+        };
+
+        ClasspathComparison classpathComparison = new ClasspathComparison(container ->
+                new ComponentFinder(container, "test.ClasspathComparison",
+                        new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Component", "", ""))));
+        AnalysisDelta delta = classpathComparison.compare(before, after);
+
+        assertEquals(singletonList("CComponent"), delta.getAddedComponents());
+        assertEquals(singletonList("DComponent"), delta.getRemovedComponents());
+        assertTrue(delta.getChangedComponents().isEmpty());
+        assertEquals(singletonList(new AnalysisDelta.Edge("CComponent", "BComponent", "")), delta.getAddedRelationships());
+        assertEquals(singletonList(new AnalysisDelta.Edge("DComponent", "BComponent", "")), delta.getRemovedRelationships());
+        assertTrue(delta.getChangedRelationships().isEmpty());
+
+        // the library jar is the same on both sides, so it's only indexed once
+        assertEquals(3, classpathComparison.getNumberOfJarIndexes());
+    }
+
+    @Test
+    public void test_between_FindsChangedComponentsAndRelationships() {
+        Container before = model.addSoftwareSystem("Before", "").addContainer("Container", "", "");
+        Component a = before.addComponent("A", "com.example.A", "", "");
+        Component b = before.addComponent("B", "com.example.B", "", "");
+        a.uses(b, "Uses");
+        a.uses(b, "Writes to");
+
+        Container after = model.addSoftwareSystem("After", "").addContainer("Container", "", "");
+        a = after.addComponent("A", "com.example.A", "", "");
+        b = after.addComponent("B", "com.example.B", "", "");
+        b.addSupportingType("com.example.BImpl");
+        a.uses(b, "Uses", "JDBC");
+        a.uses(b, "Reads from");
+
+        AnalysisDelta delta = AnalysisDelta.between(AnalysisResult.of(before, null), AnalysisResult.of(after, null));
+
+        assertTrue(delta.getAddedComponents().isEmpty());
+        assertTrue(delta.getRemovedComponents().isEmpty());
+        assertEquals(singletonList("B"), delta.getChangedComponents());
+        assertEquals(singletonList(new AnalysisDelta.Edge("A", "B", "Uses")), delta.getChangedRelationships());
+        assertEquals(singletonList(new AnalysisDelta.Edge("A", "B", "Reads from")), delta.getAddedRelationships());
+        assertEquals(singletonList(new AnalysisDelta.Edge("A", "B", "Writes to")), delta.getRemovedRelationships());
+        assertFalse(delta.isEmpty());
+
+        assertTrue(AnalysisDelta.between(AnalysisResult.of(before, null), AnalysisResult.of(before, null)).isEmpty());
+    }
+
+    private URL createJar(File file, String... componentNames) throws Exception {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            for (String componentName : componentNames) {
+                String name = "test/ClasspathComparison/" + componentName + ".class";
+                ZipEntry entry = new ZipEntry(name);
+                entry.setTime(0); // so that jars with the same classes have the same content
+
+                out.putNextEntry(entry);
+                try (InputStream in = getClass().getResourceAsStream("/" + name)) {
+                    byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+        file.deleteOnExit();
+
+        return file.toURI().toURL();
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.structurizr.analysis;
 
 import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
 import com.structurizr.model.Container;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
 
 public class ComponentFinderTests extends AbstractWorkspaceTestBase {
 
@@ -65,4 +70,121 @@ public class ComponentFinderTests extends AbstractWorkspaceTestBase {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_findComponents_GivesTheSameResults_WhenRunningConcurrently() throws Exception {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "Controller description", "")),
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Repository", "Repository description", ""))
+        );
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            componentFinder.setExecutor(executorService);
+            assertTrue(componentFinder.isConcurrent());
+
+            Set<Component> components = componentFinder.findComponents();
+            assertEquals(2, components.size());
+            assertEquals("Controller description", container.getComponentWithName("MyController").getDescription());
+            assertEquals("Repository description", container.getComponentWithName("MyRepository").getDescription());
+            assertTrue(container.getComponentWithName("MyController").hasEfferentRelationshipWith(container.getComponentWithName("MyRepository")));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void test_findComponents_UsesTheDuplicateComponentStrategyInStrategyOrder_WhenRunningConcurrently() throws Exception {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        TypeMatcherComponentFinderStrategy second = new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "Second", ""));
+        second.setDuplicateComponentStrategy(new IgnoreDuplicateComponentStrategy());
+
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "First", "")),
+                second
+        );
+        componentFinder.setConcurrent(true);
+        componentFinder.findComponents();
+
+        assertEquals(1, container.getComponents().size());
+        assertEquals("First", container.getComponentWithName("MyController").getDescription());
+    }
+
+    @Test
+    public void test_findComponentsAsync_CompletesWithTheComponentsAndReportsProgress() throws Exception {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "", "")),
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Repository", "", ""))
+        );
+
+        Set<ProgressListener.Phase> phases = EnumSet.noneOf(ProgressListener.Phase.class);
+        Set<Component> components = componentFinder.findComponentsAsync(null, null, (phase, completed, total) -> phases.add(phase)).get(30, TimeUnit.SECONDS);
+
+        assertEquals(2, components.size());
+        assertTrue(container.getComponentWithName("MyController").hasEfferentRelationshipWith(container.getComponentWithName("MyRepository")));
+        assertEquals(EnumSet.allOf(ProgressListener.Phase.class), phases);
+    }
+
+    @Test
+    public void test_findComponentsAsync_IsCancelled_WhenTheCancellationTokenIsCancelled() throws Exception {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "", ""))
+        );
+
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+        CompletableFuture<Set<Component>> future = componentFinder.findComponentsAsync(cancellationToken, null, null);
+
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail();
+        } catch (CancellationException ce) {
+            assertTrue(future.isCancelled());
+            assertEquals(0, container.getComponents().size());
+        }
+    }
+
+    @Test
+    public void test_findComponentsAsync_CancelsTheToken_WhenTheFutureIsCancelled() {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "", ""))
+        );
+
+        CancellationToken cancellationToken = new CancellationToken();
+        componentFinder.findComponentsAsync(cancellationToken, null, null).cancel(true);
+
+        assertTrue(cancellationToken.isCancelled());
+    }
+
+    @Test
+    public void test_findComponentsAsync_CompletesWithATimeoutException_WhenTheDeadlineHasPassed() throws Exception {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "", ""))
+        );
+
+        try {
+            componentFinder.findComponentsAsync(null, Instant.now().minusSeconds(1), null).get(30, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof TimeoutException);
+            assertEquals(0, container.getComponents().size());
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.structurizr.analysis;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class ComponentIndexTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_add_MergesIndexes() {
+        Properties properties = new Properties();
+        properties.setProperty("com.mycompany.SomeController", "Component,UsesComponent");
+        properties.setProperty("com.mycompany.SomeController@description", "Does something.");
+        properties.setProperty("com.mycompany.SomeController@technology", "Spring MVC");
+
+        Properties moreProperties = new Properties();
+        moreProperties.setProperty("com.mycompany.JdbcSomeRepository", "UsesContainer");
+
+        ComponentIndex index = new ComponentIndex();
+        index.add(properties);
+        index.add(moreProperties);
+
+        assertEquals(Collections.singletonList("com.mycompany.SomeController"), index.getComponentTypes());
+        assertEquals("Does something.", index.getDescription("com.mycompany.SomeController"));
+        assertEquals("Spring MVC", index.getTechnology("com.mycompany.SomeController"));
+        assertEquals("", index.getDescription("com.mycompany.JdbcSomeRepository"));
+
+        assertTrue(index.hasAnnotation("com.mycompany.SomeController", "UsesComponent"));
+        assertFalse(index.hasAnnotation("com.mycompany.SomeController", "UsesContainer"));
+        assertTrue(index.hasAnnotation("com.mycompany.JdbcSomeRepository", "UsesContainer"));
+        assertFalse(index.hasAnnotation("com.mycompany.Unknown", "UsesContainer"));
+
+        assertTrue(index.containsType("com.mycompany.JdbcSomeRepository"));
+        assertFalse(index.containsType("com.mycompany.Unknown"));
+    }
+
+    @Test
+    public void test_load_ReadsTheIndexWrittenByTheAnnotationProcessor() throws Exception {
+        File classDirectory = temporaryFolder.newFolder("classes");
+        Map<String, String> sources = new HashMap<>();
+        sources.put("test.ComponentIndex.SomeController",
+                "package test.ComponentIndex;\n" +
+                "@com.structurizr.annotation.Component(description = \"Does something.\", technology = \"Spring MVC\")\n" +
+                "public class SomeController {}\n");
+        sources.put("test.ComponentIndex.JdbcSomeRepository",
+                "package test.ComponentIndex;\n" +
+                "@com.structurizr.annotation.UsesContainer(name = \"Database\")\n" +
+                "class JdbcSomeRepository {}\n");
+        TestCompiler.compile(classDirectory, true, sources);
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classDirectory.toURI().toURL() }, null);
+        ComponentIndex index = ComponentIndex.load(classLoader);
+
+        assertNotNull(index);
+        assertEquals(Collections.singletonList("test.ComponentIndex.SomeController"), index.getComponentTypes());
+        assertEquals("Does something.", index.getDescription("test.ComponentIndex.SomeController"));
+        assertEquals("Spring MVC", index.getTechnology("test.ComponentIndex.SomeController"));
+        assertTrue(index.hasAnnotation("test.ComponentIndex.JdbcSomeRepository", "UsesContainer"));
+
+        // the types in the directory are covered by its index, unlike those elsewhere
+        assertTrue(index.isIndexed(classLoader.loadClass("test.ComponentIndex.SomeController")));
+        assertFalse(index.isIndexed(ComponentIndexTests.class));
+        assertFalse(index.isIndexed(String.class));
+
+        assertEquals(classDirectory.toURI().toURL().toExternalForm(), ComponentIndex.getRoot(new URL(classDirectory.toURI().toURL(), "META-INF/structurizr.components")));
+    }
+
+    @Test
+    public void test_getRoot_ReturnsTheLocationOfTheJar_WhenTheIndexIsInAJar() throws Exception {
+        assertEquals("file:/libs/library.jar", ComponentIndex.getRoot(new URL("jar:file:/libs/library.jar!/META-INF/structurizr.components")));
+    }
+
+    @Test
+    public void test_load_ReturnsNull_WhenThereIsNoIndex() throws Exception {
+        File classDirectory = temporaryFolder.newFolder("classes");
+        TestCompiler.compile(classDirectory, false, Collections.singletonMap("test.ComponentIndex.SomeController",
+                "package test.ComponentIndex;\n" +
+                "@com.structurizr.annotation.Component\n" +
+                "public class SomeController {}\n"));
+
+        assertNull(ComponentIndex.load(new URLClassLoader(new URL[] { classDirectory.toURI().toURL() }, null)));
+    }
+
+}
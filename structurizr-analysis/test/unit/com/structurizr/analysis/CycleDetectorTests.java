@@ -0,0 +1,108 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class CycleDetectorTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+    private Component a, b, c, d, e;
+
+    @Before
+    public void setUp() {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        a = container.addComponent("A", "", "");
+        b = container.addComponent("B", "", "");
+        c = container.addComponent("C", "", "");
+        d = container.addComponent("D", "", "");
+        e = container.addComponent("E", "", "");
+
+        // A -> B -> C -> A, and C -> D <-> E
+        a.uses(b, "");
+        b.uses(c, "");
+        c.uses(a, "");
+        c.uses(d, "");
+        d.uses(e, "");
+        e.uses(d, "");
+    }
+
+    @Test
+    public void test_findCycles_ReturnsCyclesInDependencyOrder() {
+        List<Set<Component>> cycles = new CycleDetector().findCycles(container);
+
+        assertEquals(2, cycles.size());
+        assertEquals(new HashSet<>(asList(d, e)), cycles.get(0));
+        assertEquals(new HashSet<>(asList(a, b, c)), cycles.get(1));
+    }
+
+    @Test
+    public void test_condense_ReturnsEveryComponent() {
+        Component f = container.addComponent("F", "", "");
+        f.uses(a, "");
+
+        List<Set<Component>> groups = new CycleDetector().condense(container);
+
+        assertEquals(3, groups.size());
+        assertEquals(Collections.singleton(f), groups.get(2));
+    }
+
+    @Test
+    public void test_tagCycles_TagsTheComponentsAndRelationshipsInEachCycle() {
+        CycleDetector cycleDetector = new CycleDetector();
+        cycleDetector.tagCycles(container);
+
+        assertTrue(d.hasTag(CycleDetector.CYCLE_TAG));
+        assertTrue(d.hasTag("Cycle 1"));
+        assertTrue(a.hasTag("Cycle 2"));
+        assertTrue(a.getEfferentRelationshipWith(b).hasTag("Cycle 2"));
+        assertFalse(c.getEfferentRelationshipWith(d).hasTag(CycleDetector.CYCLE_TAG));
+
+        // and the tags are removed once the cycle has gone
+        e.getEfferentRelationshipWith(d).addTags(IncrementalComponentFinder.REMOVED_TAG);
+        assertEquals(1, cycleDetector.tagCycles(container).size());
+        assertFalse(d.hasTag(CycleDetector.CYCLE_TAG));
+        assertFalse(d.hasTag("Cycle 1"));
+        assertFalse(d.getEfferentRelationshipWith(e).hasTag(CycleDetector.CYCLE_TAG));
+        assertTrue(a.hasTag("Cycle 1"));
+        assertFalse(a.hasTag("Cycle 2"));
+    }
+
+    @Test
+    public void test_findCycles_DoesNotOverflowTheStack_WhenTheCycleIsLarge() {
+        Component previous = container.addComponent("Component 0", "", "");
+        Component first = previous;
+        for (int i = 1; i < 20000; i++) {
+            Component component = container.addComponent("Component " + i, "", "");
+            previous.uses(component, "");
+            previous = component;
+        }
+        previous.uses(first, "");
+
+        List<Set<Component>> cycles = new CycleDetector().findCycles(container);
+        assertEquals(20000, cycles.get(cycles.size() - 1).size());
+    }
+
+    @Test
+    public void test_findTypeCycles() throws Exception {
+        DefaultTypeRepository typeRepository = new DefaultTypeRepository(
+                Collections.singletonList("com.structurizr.analysis.reflections.cyclicDependency"),
+                Collections.emptySet(),
+                null);
+
+        List<Set<String>> cycles = new CycleDetector().findTypeCycles(typeRepository);
+
+        assertEquals(1, cycles.size());
+        assertEquals(new HashSet<>(asList(
+                "com.structurizr.analysis.reflections.cyclicDependency.AComponent",
+                "com.structurizr.analysis.reflections.cyclicDependency.BComponent")), cycles.get(0));
+    }
+
+}
@@ -9,6 +9,8 @@ import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class DefaultTypeRepositoryTests {
@@ -62,6 +64,17 @@ public class DefaultTypeRepositoryTests {
         assertTrue(types.contains("test.MoreDefaultTypeRepository.AnotherClass"));
     }
 
+    @Test
+    public void test_getTypes_ReturnsTheSameViewEachTime() {
+        typeRepository = new DefaultTypeRepository("test.DefaultTypeRepository", new HashSet<>(), null);
+        TypeView types = typeRepository.getTypes();
+
+        assertEquals(4, types.size());
+        assertTrue(types.contains("test.DefaultTypeRepository.SomeClass"));
+        assertSame(types, typeRepository.getTypes());
+        assertEquals(typeRepository.getAllTypes(), types.asSet());
+    }
+
     @Test
     public void test_findReferencedTypes_ReturnsASetOnlyContainingJavaLangObject_WhenThereAreNoTypesReferenced() throws Exception {
         typeRepository = new DefaultTypeRepository("test.DefaultTypeRepository", new HashSet<>(), null);
@@ -82,4 +95,30 @@ public class DefaultTypeRepositoryTests {
         assertTrue(types.contains("com.structurizr.annotation.Component"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_findReferencedTypes_UsesTheCache_WhenCalledMoreThanOnce() {
+        typeRepository = new DefaultTypeRepository("test.DefaultTypeRepository", new HashSet<>(), null);
+        Set<Class<?>> types = typeRepository.findReferencedTypes("test.DefaultTypeRepository.SomeClass");
+
+        assertSame(types, typeRepository.findReferencedTypes("test.DefaultTypeRepository.SomeClass"));
+        assertEquals(1, typeRepository.getReferencedTypesCache().getHitCount());
+        assertEquals(1, typeRepository.getReferencedTypesCache().getMissCount());
+    }
+
+    @Test
+    public void test_getTypeFacts_ReturnsTheFactsComputedDuringTheScan_WhenTheTypeWasScanned() {
+        typeRepository = new DefaultTypeRepository("test.DefaultTypeRepository", new HashSet<>(), null);
+        TypeView types = typeRepository.getTypes();
+
+        TypeFacts facts = typeRepository.getTypeFacts("test.DefaultTypeRepository.SomeAbstractClass");
+        assertSame(types.getFacts("test.DefaultTypeRepository.SomeAbstractClass"), facts);
+        assertSame(TypeCategory.ABSTRACT_CLASS, facts.getCategory());
+    }
+
+    @Test
+    public void test_getTypeFacts_ReturnsNull_WhenTheTypeCannotBeLoaded() {
+        typeRepository = new DefaultTypeRepository("test.DefaultTypeRepository", new HashSet<>(), null);
+        assertNull(typeRepository.getTypeFacts("com.company.app.Class"));
+    }
+
+}
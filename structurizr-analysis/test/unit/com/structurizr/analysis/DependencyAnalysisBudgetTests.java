@@ -0,0 +1,163 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class DependencyAnalysisBudgetTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+    private ComponentFinder componentFinder;
+    private StubTypeRepository typeRepository = new StubTypeRepository();
+
+    @Before
+    public void setUp() {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+
+        // String -> Long (directly)
+        // String -> Number -> CharSequence -> Integer
+        typeRepository.references("java.lang.String", Long.class, Number.class);
+        typeRepository.references("java.lang.Number", CharSequence.class);
+        typeRepository.references("java.lang.CharSequence", Integer.class);
+
+        componentFinder = new ComponentFinder(container, "java.lang", new AbstractComponentFinderStrategy() {
+            @Override
+            protected Set<Component> doFindComponents() {
+                return addComponents(asList(
+                        new ComponentProposal("String", "java.lang.String", "", ""),
+                        new ComponentProposal("Integer", "java.lang.Integer", "", ""),
+                        new ComponentProposal("Long", "java.lang.Long", "", "")));
+            }
+        });
+        componentFinder.setTypeRepository(typeRepository);
+    }
+
+    @Test
+    public void test_findComponents_FindsAllDependencies_WhenTheBudgetIsLargeEnough() throws Exception {
+        componentFinder.setDependencyAnalysisBudget(new DependencyAnalysisBudget());
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        assertFalse(string.getEfferentRelationshipWith(container.getComponentWithName("Long")).getProperties().containsKey(DependencyAnalysisBudget.APPROXIMATE_PROPERTY));
+        assertFalse(string.getEfferentRelationshipWith(container.getComponentWithName("Integer")).getProperties().containsKey(DependencyAnalysisBudget.APPROXIMATE_PROPERTY));
+    }
+
+    @Test
+    public void test_findComponents_FindsDirectDependencies_WhenTheMaximumDepthIsReached() throws Exception {
+        DependencyAnalysisBudget budget = new DependencyAnalysisBudget();
+        budget.setMaximumDepth(2);
+        componentFinder.setDependencyAnalysisBudget(budget);
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        assertNull(string.getEfferentRelationshipWith(container.getComponentWithName("Integer")));
+        assertFalse(string.getEfferentRelationshipWith(container.getComponentWithName("Long")).getProperties().containsKey(DependencyAnalysisBudget.APPROXIMATE_PROPERTY));
+    }
+
+    @Test
+    public void test_findComponents_MarksOnlyIndirectDependenciesApproximate_WhenTheMaximumDepthIsReached() throws Exception {
+        // String -> Number -> Integer
+        typeRepository.references("java.lang.Number", CharSequence.class, Integer.class);
+
+        DependencyAnalysisBudget budget = new DependencyAnalysisBudget();
+        budget.setMaximumDepth(2);
+        componentFinder.setDependencyAnalysisBudget(budget);
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        assertEquals("true", string.getEfferentRelationshipWith(container.getComponentWithName("Integer")).getProperties().get(DependencyAnalysisBudget.APPROXIMATE_PROPERTY));
+        assertFalse(string.getEfferentRelationshipWith(container.getComponentWithName("Long")).getProperties().containsKey(DependencyAnalysisBudget.APPROXIMATE_PROPERTY));
+    }
+
+    @Test
+    public void test_findComponents_FindsDirectDependencies_WhenNoIntermediateTypesCanBeVisited() throws Exception {
+        DependencyAnalysisBudget budget = new DependencyAnalysisBudget();
+        budget.setMaximumTypesVisited(0);
+        componentFinder.setDependencyAnalysisBudget(budget);
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        assertNull(string.getEfferentRelationshipWith(container.getComponentWithName("Integer")));
+        assertFalse(string.getEfferentRelationshipWith(container.getComponentWithName("Long")).getProperties().containsKey(DependencyAnalysisBudget.APPROXIMATE_PROPERTY));
+    }
+
+    @Test
+    public void test_isSampled_IsConsistentAndIncludesAllTypes_WhenTheSamplingIntervalIsOne() {
+        DependencyAnalysisBudget budget = new DependencyAnalysisBudget();
+        assertTrue(budget.isSampled("java.lang.Number"));
+
+        budget.setSamplingInterval(3);
+        assertEquals(budget.isSampled("java.lang.Number"), budget.isSampled("java.lang.Number"));
+    }
+
+    @Test
+    public void test_setters_ThrowAnException_WhenTheValuesAreOutOfRange() {
+        DependencyAnalysisBudget budget = new DependencyAnalysisBudget();
+        try {
+            budget.setMaximumDepth(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The maximum depth must be 1 or more.", iae.getMessage());
+        }
+
+        try {
+            budget.setMaximumTypesVisited(-1);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The maximum number of types visited must be 0 or more.", iae.getMessage());
+        }
+
+        try {
+            budget.setTimeLimitInMilliseconds(-1);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The time limit must be 0 or more.", iae.getMessage());
+        }
+
+        try {
+            budget.setSamplingInterval(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("The sampling interval must be 1 or more.", iae.getMessage());
+        }
+    }
+
+    private static class StubTypeRepository implements TypeRepository {
+
+        private final Map<String, Set<Class<?>>> references = new HashMap<>();
+
+        void references(String type, Class<?>... referencedTypes) {
+            references.put(type, new LinkedHashSet<>(asList(referencedTypes)));
+        }
+
+        @Override
+        public List<String> getPackages() {
+            return singletonList("java.lang");
+        }
+
+        @Override
+        public Set<Class<?>> getAllTypes() {
+            return new HashSet<>(asList(String.class, Integer.class, Long.class, Number.class, CharSequence.class));
+        }
+
+        @Override
+        public Set<Class<?>> findReferencedTypes(String typeName) {
+            return references.getOrDefault(typeName, Collections.emptySet());
+        }
+
+        @Override
+        public Class<?> loadClass(String typeName) throws ClassNotFoundException {
+            return Class.forName(typeName);
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class DependencyFinderTests extends AbstractWorkspaceTestBase {
+
+    @Test
+    public void test_addRelationships_AddsOnlyRelationshipsThatDoNotExist() {
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        Component a = container.addComponent("A", "", "");
+        Component b = container.addComponent("B", "", "");
+        Component c = container.addComponent("C", "", "");
+        Relationship existing = a.uses(b, "");
+        Relationship describedRelationship = a.uses(c, "Reads from");
+
+        Map<Component, Set<Component>> dependencies = new LinkedHashMap<>();
+        dependencies.put(a, new LinkedHashSet<>(asList(b, c)));
+        dependencies.put(b, new LinkedHashSet<>(asList(c)));
+        dependencies.put(c, Collections.emptySet());
+
+        List<Relationship> relationshipsAdded = DependencyFinder.addRelationships(dependencies);
+
+        assertEquals(2, relationshipsAdded.size());
+        assertSame(a, relationshipsAdded.get(0).getSource());
+        assertSame(c, relationshipsAdded.get(0).getDestination());
+        assertEquals("", relationshipsAdded.get(0).getDescription());
+        assertSame(b, relationshipsAdded.get(1).getSource());
+        assertSame(c, relationshipsAdded.get(1).getDestination());
+        assertEquals(4, model.getRelationships().size());
+        assertTrue(model.getRelationships().containsAll(asList(existing, describedRelationship)));
+
+        // and a second batch adds nothing
+        assertTrue(DependencyFinder.addRelationships(dependencies).isEmpty());
+        assertEquals(4, model.getRelationships().size());
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class DependencyPathsTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+    private ComponentFinder componentFinder;
+    private DependencyPaths dependencyPaths = new DependencyPaths();
+
+    @Before
+    public void setUp() {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+
+        // String -> Long (directly)
+        // String -> Number -> CharSequence -> Integer
+        StubTypeRepository typeRepository = new StubTypeRepository();
+        typeRepository.references("java.lang.String", Long.class, Number.class);
+        typeRepository.references("java.lang.Number", CharSequence.class);
+        typeRepository.references("java.lang.CharSequence", Integer.class);
+
+        componentFinder = new ComponentFinder(container, "java.lang", new AbstractComponentFinderStrategy() {
+            @Override
+            protected Set<Component> doFindComponents() {
+                return addComponents(asList(
+                        new ComponentProposal("String", "java.lang.String", "", ""),
+                        new ComponentProposal("Integer", "java.lang.Integer", "", ""),
+                        new ComponentProposal("Long", "java.lang.Long", "", "")));
+            }
+        });
+        componentFinder.setTypeRepository(typeRepository);
+        componentFinder.setDependencyPaths(dependencyPaths);
+    }
+
+    @Test
+    public void test_getPath_ReturnsTheTypesThatExplainEachDependency() throws Exception {
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        Component integer = container.getComponentWithName("Integer");
+        Component lng = container.getComponentWithName("Long");
+
+        assertEquals(asList("java.lang.String", "java.lang.Long"), dependencyPaths.getPath(string, lng));
+        assertEquals(asList("java.lang.String", "java.lang.Number", "java.lang.CharSequence", "java.lang.Integer"), dependencyPaths.getPath(string, integer));
+        assertTrue(dependencyPaths.getPath(lng, string).isEmpty());
+    }
+
+    @Test
+    public void test_getPath_WhenDependenciesAreFoundWithinABudget() throws Exception {
+        componentFinder.setDependencyAnalysisBudget(new DependencyAnalysisBudget());
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        Component integer = container.getComponentWithName("Integer");
+
+        assertEquals(asList("java.lang.String", "java.lang.Number", "java.lang.CharSequence", "java.lang.Integer"), dependencyPaths.getPath(string, integer));
+    }
+
+    @Test
+    public void test_addPathProperties() throws Exception {
+        componentFinder.findComponents();
+        dependencyPaths.addPathProperties(container);
+
+        Component string = container.getComponentWithName("String");
+        Component integer = container.getComponentWithName("Integer");
+        assertEquals("java.lang.String -> java.lang.Number -> java.lang.CharSequence -> java.lang.Integer",
+                string.getEfferentRelationshipWith(integer).getProperties().get(DependencyPaths.PATH_PROPERTY));
+    }
+
+    @Test
+    public void test_findComponents_DoesNotRecordPaths_ByDefault() throws Exception {
+        componentFinder.setDependencyPaths(null);
+        componentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        Component integer = container.getComponentWithName("Integer");
+        assertNotNull(string.getEfferentRelationshipWith(integer));
+        assertTrue(dependencyPaths.getPath(string, integer).isEmpty());
+    }
+
+    private static class StubTypeRepository implements TypeRepository {
+
+        private final Map<String, Set<Class<?>>> references = new HashMap<>();
+
+        void references(String type, Class<?>... referencedTypes) {
+            references.put(type, new LinkedHashSet<>(asList(referencedTypes)));
+        }
+
+        @Override
+        public List<String> getPackages() {
+            return singletonList("java.lang");
+        }
+
+        @Override
+        public Set<Class<?>> getAllTypes() {
+            return new HashSet<>(asList(String.class, Integer.class, Long.class, Number.class, CharSequence.class));
+        }
+
+        @Override
+        public Set<Class<?>> findReferencedTypes(String typeName) {
+            return references.getOrDefault(typeName, Collections.emptySet());
+        }
+
+        @Override
+        public Class<?> loadClass(String typeName) throws ClassNotFoundException {
+            return Class.forName(typeName);
+        }
+
+    }
+
+}
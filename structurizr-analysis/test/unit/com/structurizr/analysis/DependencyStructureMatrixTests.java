@@ -0,0 +1,144 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class DependencyStructureMatrixTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+
+    @Before
+    public void setUp() {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+        Component a = container.addComponent("A", "", "");
+        Component b = container.addComponent("B", "", "");
+        Component c = container.addComponent("C", "", "");
+        Component d = container.addComponent("D", "", "");
+
+        // D -> A -> B <-> C
+        d.uses(a, "");
+        a.uses(b, "");
+        a.uses(b, "Reads from");
+        b.uses(c, "");
+        c.uses(b, "");
+    }
+
+    @Test
+    public void test_build_OrdersComponentsWithDependenciesFirst() {
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(container);
+
+        assertEquals(4, dsm.size());
+        assertEquals(asList("B", "C", "A", "D"), dsm.getComponentNames());
+    }
+
+    @Test
+    public void test_build_WeighsDependenciesAndComputesReachability() {
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(container);
+        int b = 0, c = 1, a = 2, d = 3;
+
+        assertEquals(1, dsm.getDependencyWeight(a, b)); // two relationships, but the types aren't known
+        assertEquals(1, dsm.getDependencyWeight(d, a));
+        assertEquals(0, dsm.getDependencyWeight(d, b));
+        assertEquals(0, dsm.getDependencyWeight(b, a));
+
+        assertTrue(dsm.isReachable(d, c));
+        assertTrue(dsm.isReachable(b, b));
+        assertFalse(dsm.isReachable(a, a));
+        assertFalse(dsm.isReachable(c, a));
+    }
+
+    @Test
+    public void test_build_WeighsDependenciesByTheNumberOfTypeReferences() throws Exception {
+        Container container = model.addSoftwareSystem("Other Software System", "").addContainer("Container", "", "");
+        TypeMatcherComponentFinderStrategy repositories = new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Repository", "", ""));
+        repositories.addSupportingTypesStrategy(new FirstImplementationOfInterfaceSupportingTypesStrategy());
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "test.TypeMatcherComponentFinderStrategy",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Controller", "", "")),
+                repositories
+        );
+
+        // MyController references MyRepository and MyRepositoryImpl
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(componentFinder.analyse());
+        assertEquals(asList("MyRepository", "MyController"), dsm.getComponentNames());
+        assertEquals(2, dsm.getDependencyWeight(1, 0));
+
+        componentFinder.findComponents();
+        assertEquals(dsm, DependencyStructureMatrix.build(container, componentFinder.getTypeRepository()));
+    }
+
+    @Test
+    public void test_build_IgnoresRelationshipsThatHaveBeenRemoved() {
+        Component a = container.getComponentWithName("A");
+        Component d = container.getComponentWithName("D");
+        d.getEfferentRelationshipWith(a).addTags(IncrementalComponentFinder.REMOVED_TAG);
+
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(container);
+        int rowOfD = dsm.getComponentNames().indexOf("D");
+        assertEquals(0, dsm.getDependencyWeight(rowOfD, dsm.getComponentNames().indexOf("A")));
+        assertFalse(dsm.isReachable(rowOfD, dsm.getComponentNames().indexOf("B")));
+    }
+
+    @Test
+    public void test_writeCsv() throws Exception {
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(container);
+
+        StringWriter counts = new StringWriter();
+        dsm.writeCsv(counts);
+        assertEquals(
+                ",B,C,A,D\n" +
+                "B,,1,,\n" +
+                "C,1,,,\n" +
+                "A,1,,,\n" +
+                "D,,,1,\n", counts.toString());
+
+        StringWriter reachability = new StringWriter();
+        dsm.writeReachabilityCsv(reachability);
+        assertEquals(
+                ",B,C,A,D\n" +
+                "B,1,1,,\n" +
+                "C,1,1,,\n" +
+                "A,1,1,,\n" +
+                "D,1,1,1,\n", reachability.toString());
+    }
+
+    @Test
+    public void test_writeBinary_CanBeReadBack() throws Exception {
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(container);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dsm.writeBinary(out);
+
+        assertEquals(dsm, DependencyStructureMatrix.readBinary(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void test_build_WhenThereAreThousandsOfComponents() {
+        Component previous = null;
+        for (int i = 0; i < 3000; i++) {
+            Component component = container.addComponent("Component " + i, "", "");
+            if (previous != null) {
+                component.uses(previous, "");
+            }
+            previous = component;
+        }
+
+        DependencyStructureMatrix dsm = DependencyStructureMatrix.build(container);
+        int first = dsm.getComponentNames().indexOf("Component 0");
+        int last = dsm.getComponentNames().indexOf("Component 2999");
+        assertTrue(dsm.isReachable(last, first));
+        assertFalse(dsm.isReachable(first, last));
+    }
+
+}
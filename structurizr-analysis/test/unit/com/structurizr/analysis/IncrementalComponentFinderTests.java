@@ -0,0 +1,317 @@
+package com.structurizr.analysis;
+
+import com.structurizr.AbstractWorkspaceTestBase;
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class IncrementalComponentFinderTests extends AbstractWorkspaceTestBase {
+
+    private Container container;
+    private StubTypeRepository typeRepository = new StubTypeRepository();
+    private IncrementalComponentFinder incrementalComponentFinder;
+    private File classDirectory = new File("build/classes");
+
+    private Component string;
+    private Component integer;
+    private Component aLong;
+
+    @Before
+    public void setUp() throws Exception {
+        container = model.addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+
+        // String -> Number (not a component) -> Integer
+        typeRepository.references("java.lang.String", Number.class);
+        typeRepository.references("java.lang.Number", Integer.class);
+
+        ComponentFinder componentFinder = new ComponentFinder(container, "java.lang", new AbstractComponentFinderStrategy() {
+            @Override
+            protected Set<Component> doFindComponents() {
+                return addComponents(asList(
+                        new ComponentProposal("String", "java.lang.String", "", ""),
+                        new ComponentProposal("Integer", "java.lang.Integer", "", ""),
+                        new ComponentProposal("Long", "java.lang.Long", "", "")));
+            }
+        });
+        componentFinder.setTypeRepository(typeRepository);
+
+        incrementalComponentFinder = new IncrementalComponentFinder(componentFinder, classDirectory);
+        incrementalComponentFinder.findComponents();
+
+        string = container.getComponentWithName("String");
+        integer = container.getComponentWithName("Integer");
+        aLong = container.getComponentWithName("Long");
+        assertTrue(string.hasEfferentRelationshipWith(integer));
+    }
+
+    @Test
+    public void test_findComponents_IndexesTheDependenciesFoundByTheFullRun_WithoutWalkingTheTypesAgain() throws Exception {
+        assertEquals(1, (int)typeRepository.lookups.get("java.lang.String"));
+        assertEquals(1, (int)typeRepository.lookups.get("java.lang.Number"));
+
+        // and the index is used by updates
+        typeRepository.references("java.lang.Number", Long.class);
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.Number"), emptyList());
+        assertEquals(Collections.singleton(string), update.getComponentsAnalysed());
+    }
+
+    @Test
+    public void test_updateTypes_ThrowsAnException_WhenFindComponentsHasNotBeenCalled() throws Exception {
+        try {
+            new IncrementalComponentFinder(incrementalComponentFinder.getComponentFinder()).updateTypes(emptyList(), emptyList());
+            fail();
+        } catch (IllegalStateException ise) {
+            assertEquals("findComponents() must be called before the container can be updated.", ise.getMessage());
+        }
+    }
+
+    @Test
+    public void test_updateTypes_AddsAndRemovesRelationships_WhenAComponentTypeHasChanged() throws Exception {
+        typeRepository.references("java.lang.String", Long.class);
+
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.String"), emptyList());
+
+        assertEquals(Collections.singleton(string), update.getComponentsAnalysed());
+        Relationship added = string.getEfferentRelationshipWith(aLong);
+        assertEquals(Collections.singleton(added), update.getRelationshipsAdded());
+
+        Relationship removed = string.getEfferentRelationshipWith(integer);
+        assertEquals(Collections.singleton(removed), update.getRelationshipsRemoved());
+        assertTrue(removed.getTagsAsSet().contains(IncrementalComponentFinder.REMOVED_TAG));
+
+        // and change it back again
+        typeRepository.references("java.lang.String", Number.class);
+        update = incrementalComponentFinder.updateTypes(singletonList("java.lang.String"), emptyList());
+        assertEquals(Collections.singleton(removed), update.getRelationshipsAdded());
+        assertFalse(removed.getTagsAsSet().contains(IncrementalComponentFinder.REMOVED_TAG));
+    }
+
+    @Test
+    public void test_updateTypes_ReanalysesComponents_WhenATypeTheyDependUponIndirectlyHasChanged() throws Exception {
+        typeRepository.references("java.lang.Number", Long.class);
+
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.Number"), emptyList());
+
+        assertEquals(Collections.singleton(string), update.getComponentsAnalysed());
+        assertTrue(string.hasEfferentRelationshipWith(aLong));
+        assertEquals(1, update.getRelationshipsRemoved().size());
+    }
+
+    @Test
+    public void test_updateTypes_DoesNothing_WhenAnUnrelatedTypeHasChanged() throws Exception {
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.Thread"), emptyList());
+
+        assertTrue(update.getComponentsAnalysed().isEmpty());
+        assertTrue(update.isEmpty());
+    }
+
+    @Test
+    public void test_updateTypes_TagsTheComponentAndItsRelationships_WhenAComponentTypeHasBeenRemoved() throws Exception {
+        typeRepository.references("java.lang.Number");
+
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.Number"), singletonList("java.lang.Integer"));
+
+        assertEquals(Collections.singleton(integer), update.getComponentsRemoved());
+        assertTrue(integer.getTagsAsSet().contains(IncrementalComponentFinder.REMOVED_TAG));
+        assertTrue(string.getEfferentRelationshipWith(integer).getTagsAsSet().contains(IncrementalComponentFinder.REMOVED_TAG));
+    }
+
+    @Test
+    public void test_update_ConvertsClassFilesToTypeNames() throws Exception {
+        typeRepository.references("java.lang.String", Long.class);
+
+        IncrementalUpdate update = incrementalComponentFinder.update(
+                asList(new File(classDirectory, "java/lang/String$CaseInsensitiveComparator.class"), new File("elsewhere/java/lang/Number.class")),
+                emptyList());
+
+        assertEquals(Collections.singleton(string), update.getComponentsAnalysed());
+        assertTrue(string.hasEfferentRelationshipWith(aLong));
+    }
+
+    @Test
+    public void test_updateTypes_ReportsSupportingTypesThatNoLongerApply_AndDoesNotFollowThem() throws Exception {
+        // String (supported by Number) -> Integer
+        Container container = model.addSoftwareSystem("Other Software System", "").addContainer("Container", "", "");
+        typeRepository.references("java.lang.String");
+        Set<Class<?>> supportingTypes = new HashSet<>(singletonList(Number.class));
+
+        AbstractComponentFinderStrategy strategy = new AbstractComponentFinderStrategy(new SupportingTypesStrategy() {
+            @Override
+            public Set<Class<?>> findSupportingTypes(Component component) {
+                return component.getName().equals("String") ? supportingTypes : Collections.emptySet();
+            }
+        }) {
+            @Override
+            protected Set<Component> doFindComponents() {
+                return addComponents(asList(
+                        new ComponentProposal("String", "java.lang.String", "", ""),
+                        new ComponentProposal("Integer", "java.lang.Integer", "", "")));
+            }
+        };
+        ComponentFinder componentFinder = new ComponentFinder(container, "java.lang", strategy);
+        componentFinder.setTypeRepository(typeRepository);
+        IncrementalComponentFinder incrementalComponentFinder = new IncrementalComponentFinder(componentFinder, classDirectory);
+        incrementalComponentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        Component integer = container.getComponentWithName("Integer");
+        CodeElement number = string.getCode().stream().filter(codeElement -> codeElement.getType().equals("java.lang.Number")).findFirst().get();
+        number.setSize(123);
+        assertTrue(string.hasEfferentRelationshipWith(integer));
+
+        supportingTypes.clear();
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.String"), emptyList());
+
+        // the code element is left in place (with its data), but no longer followed
+        assertEquals(Collections.singletonMap(string, Collections.singleton(number)), update.getSupportingTypesRemoved());
+        assertTrue(update.getSupportingTypesAdded().isEmpty());
+        assertEquals(2, string.getCode().size());
+        assertEquals(123, number.getSize());
+        assertEquals(Collections.singleton(string.getEfferentRelationshipWith(integer)), update.getRelationshipsRemoved());
+
+        // and a subsequent update doesn't report it again
+        update = incrementalComponentFinder.updateTypes(singletonList("java.lang.String"), emptyList());
+        assertTrue(update.isEmpty());
+
+        // until it applies again
+        supportingTypes.add(Number.class);
+        update = incrementalComponentFinder.updateTypes(singletonList("java.lang.String"), emptyList());
+        assertEquals(Collections.singletonMap(string, Collections.singleton(number)), update.getSupportingTypesAdded());
+        assertEquals(Collections.singleton(string.getEfferentRelationshipWith(integer)), update.getRelationshipsAdded());
+        assertEquals(2, string.getCode().size());
+    }
+
+    @Test
+    public void test_updateTypes_SupplementsTheComponentsAgain_WhenSupportingTypesHaveBeenAdded() throws Exception {
+        Container container = model.addSoftwareSystem("Other Software System", "").addContainer("Container", "", "");
+        Set<Class<?>> supportingTypes = new HashSet<>();
+
+        AbstractComponentFinderStrategy strategy = new AbstractComponentFinderStrategy(new SupportingTypesStrategy() {
+            @Override
+            public Set<Class<?>> findSupportingTypes(Component component) {
+                return supportingTypes;
+            }
+        }) {
+            @Override
+            protected Set<Component> doFindComponents() {
+                return addComponents(singletonList(new ComponentProposal("String", "java.lang.String", "", "")));
+            }
+        };
+        ComponentFinder componentFinder = new ComponentFinder(container, "java.lang", strategy, new BytecodeMetricsComponentFinderStrategy());
+        componentFinder.setTypeRepository(typeRepository);
+        IncrementalComponentFinder incrementalComponentFinder = new IncrementalComponentFinder(componentFinder, classDirectory);
+        incrementalComponentFinder.findComponents();
+
+        Component string = container.getComponentWithName("String");
+        long sizeOfString = string.getType().getSize();
+        assertTrue(sizeOfString > 0);
+        assertEquals(sizeOfString, string.getSize());
+
+        supportingTypes.add(Number.class);
+        IncrementalUpdate update = incrementalComponentFinder.updateTypes(singletonList("java.lang.String"), emptyList());
+
+        CodeElement number = update.getSupportingTypesAdded().get(string).iterator().next();
+        assertEquals("java.lang.Number", number.getType());
+        assertTrue(number.getSize() > 0);
+        assertEquals(sizeOfString, string.getType().getSize());
+        assertEquals(sizeOfString + number.getSize(), string.getSize());
+    }
+
+    @Test
+    public void test_update_RequiresAFullAnalysis_WhenAClassFileHasBeenAdded() throws Exception {
+        File classDirectory = Files.createTempDirectory("structurizr").toFile();
+        copyClassFile(classDirectory, "AComponent");
+        copyClassFile(classDirectory, "BComponent");
+
+        Container container = model.addSoftwareSystem("Other Software System", "").addContainer("Container", "", "");
+        IncrementalComponentFinder incrementalComponentFinder = createIncrementalComponentFinder(container, classDirectory);
+        incrementalComponentFinder.findComponents();
+        assertEquals(2, container.getComponents().size());
+
+        File classFile = copyClassFile(classDirectory, "CComponent");
+        IncrementalUpdate update = incrementalComponentFinder.update(singletonList(classFile), emptyList());
+
+        assertTrue(update.isFullAnalysisRequired());
+        assertEquals(Collections.singleton("test.ClasspathComparison.CComponent"), update.getTypesAdded());
+        assertTrue(update.getComponentsAnalysed().isEmpty());
+        assertEquals(2, container.getComponents().size());
+
+        // changes to existing types can still be applied incrementally
+        update = incrementalComponentFinder.update(singletonList(new File(classDirectory, "test/ClasspathComparison/AComponent.class")), emptyList());
+        assertFalse(update.isFullAnalysisRequired());
+        assertEquals(Collections.singleton(container.getComponentWithName("AComponent")), update.getComponentsAnalysed());
+
+        // and a full analysis finds the new type
+        container = model.addSoftwareSystem("Another Software System", "").addContainer("Container", "", "");
+        createIncrementalComponentFinder(container, classDirectory).findComponents();
+        assertNotNull(container.getComponentWithName("CComponent"));
+    }
+
+    private IncrementalComponentFinder createIncrementalComponentFinder(Container container, File classDirectory) throws Exception {
+        ComponentFinder componentFinder = new ComponentFinder(container, "test.ClasspathComparison",
+                new TypeMatcherComponentFinderStrategy(new NameSuffixTypeMatcher("Component", "", "")));
+        componentFinder.setUrlClassLoader(new URLClassLoader(new URL[] { classDirectory.toURI().toURL() }));
+
+        return new IncrementalComponentFinder(componentFinder, classDirectory);
+    }
+
+    private File copyClassFile(File classDirectory, String className) throws Exception {
+        String name = "test/ClasspathComparison/" + className + ".class";
+        File classFile = new File(classDirectory, name);
+        classFile.getParentFile().mkdirs();
+        try (InputStream in = getClass().getResourceAsStream("/" + name)) {
+            Files.copy(in, classFile.toPath());
+        }
+        classFile.deleteOnExit();
+
+        return classFile;
+    }
+
+    private static class StubTypeRepository implements TypeRepository {
+
+        private final Map<String, Set<Class<?>>> references = new HashMap<>();
+        private final Map<String, Integer> lookups = new HashMap<>();
+
+        void references(String type, Class<?>... referencedTypes) {
+            references.put(type, new HashSet<>(asList(referencedTypes)));
+        }
+
+        @Override
+        public List<String> getPackages() {
+            return singletonList("java.lang");
+        }
+
+        @Override
+        public Set<Class<?>> getAllTypes() {
+            return new HashSet<>(asList(String.class, Integer.class, Long.class, Number.class, Thread.class));
+        }
+
+        @Override
+        public Set<Class<?>> findReferencedTypes(String typeName) {
+            lookups.merge(typeName, 1, Integer::sum);
+            return references.getOrDefault(typeName, Collections.emptySet());
+        }
+
+        @Override
+        public Class<?> loadClass(String typeName) throws ClassNotFoundException {
+            return Class.forName(typeName);
+        }
+
+    }
+
+}
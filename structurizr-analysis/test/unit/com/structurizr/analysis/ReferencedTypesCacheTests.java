@@ -0,0 +1,67 @@
+package com.structurizr.analysis;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ReferencedTypesCacheTests {
+
+    @Test
+    public void test_get_ReturnsNullAndCountsAMiss_WhenTheTypeIsNotCached() {
+        ReferencedTypesCache cache = new ReferencedTypesCache();
+
+        assertNull(cache.get("com.example.SomeType"));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void test_get_ReturnsTheCachedSetAndCountsAHit_WhenTheTypeIsCached() {
+        ReferencedTypesCache cache = new ReferencedTypesCache();
+        Set<Class<?>> cached = cache.put("com.example.SomeType", new HashSet<>(Collections.singleton(String.class)));
+
+        assertSame(cached, cache.get("com.example.SomeType"));
+        assertTrue(cached.contains(String.class));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_put_ReturnsAnUnmodifiableSet() {
+        ReferencedTypesCache cache = new ReferencedTypesCache();
+        cache.put("com.example.SomeType", new HashSet<>()).add(String.class);
+    }
+
+    @Test
+    public void test_put_EvictsTheLeastRecentlyUsedEntry_WhenTheCacheIsFull() {
+        ReferencedTypesCache cache = new ReferencedTypesCache(1, false);
+        cache.put("com.example.A", new HashSet<>());
+        cache.put("com.example.B", new HashSet<>());
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("com.example.A"));
+        assertNotNull(cache.get("com.example.B"));
+    }
+
+    @Test
+    public void test_size_NeverExceedsTheMaximumSize() {
+        ReferencedTypesCache cache = new ReferencedTypesCache(100, true);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("com.example.Type" + i, new HashSet<>());
+        }
+
+        assertTrue(cache.size() <= 100 + 16);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construction_ThrowsAnException_WhenTheMaximumSizeIsLessThanOne() {
+        new ReferencedTypesCache(0, false);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.structurizr.analysis;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SourceArchiveTests {
+
+    @Test
+    public void test_findTypeComment_ReturnsTheMainDescription() {
+        String source =
+                "package com.mycompany;\n" +
+                "\n" +
+                "/**\n" +
+                " * Does something.\n" +
+                " * Over two lines.\n" +
+                " *\n" +
+                " * @author Someone\n" +
+                " */\n" +
+                "public class SomeComponent {\n" +
+                "}\n";
+
+        assertEquals("Does something.\nOver two lines.", SourceArchive.findTypeComment(source, "SomeComponent"));
+    }
+
+    @Test
+    public void test_findTypeComment_IgnoresTheTypeNameInCommentsAndStrings() {
+        String source =
+                "/**\n" +
+                " * This is the class SomeComponent, which implements interface SomeComponent.\n" +
+                " */\n" +
+                "// class SomeComponent\n" +
+                "@Description(\"class SomeComponent\")\n" +
+                "public class SomeComponent {\n" +
+                "}\n";
+
+        assertEquals("This is the class SomeComponent, which implements interface SomeComponent.", SourceArchive.findTypeComment(source, "SomeComponent"));
+    }
+
+    @Test
+    public void test_findTypeComment_AllowsBracesAndSemicolonsInAnnotationArguments() {
+        String source =
+                "/** Does something. */\n" +
+                "@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n" +
+                "@Description(value = \"a { b } c;\", chars = { '}', ';' })\n" +
+                "public class SomeComponent {\n" +
+                "}\n";
+
+        assertEquals("Does something.", SourceArchive.findTypeComment(source, "SomeComponent"));
+    }
+
+    @Test
+    public void test_findTypeComment_ReturnsNull_WhenTheCommentBelongsToSomethingElse() {
+        String source =
+                "import com.mycompany.Something;\n" +
+                "/** The field. */\n" +
+                "private String field;\n" +
+                "class SomeComponent {\n" +
+                "}\n";
+
+        assertNull(SourceArchive.findTypeComment(source, "SomeComponent"));
+        assertNull(SourceArchive.findTypeComment("/**/ class SomeComponent {}", "SomeComponent"));
+        assertNull(SourceArchive.findTypeComment("/** Something else. */ class SomeOtherComponent {}", "SomeComponent"));
+    }
+
+    @Test
+    public void test_findTypeComment_FindsNestedTypes() {
+        String source =
+                "/** The outer type. */\n" +
+                "public class Outer {\n" +
+                "\n" +
+                "    /** The inner type. */\n" +
+                "    @interface Inner {\n" +
+                "    }\n" +
+                "\n" +
+                "}\n";
+
+        assertEquals("The outer type.", SourceArchive.findTypeComment(source, "Outer"));
+        assertEquals("The inner type.", SourceArchive.findTypeComment(source, "Inner"));
+    }
+
+}
@@ -9,8 +9,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SourceCodeComponentFinderStrategyTests {
 
@@ -71,4 +76,29 @@ public class SourceCodeComponentFinderStrategyTests {
         assertEquals("An existing description.", someComponent.getDescription());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_findComponents_WhenTheSourcePathIsASourcesJar() throws Exception {
+        File sourcesJar = File.createTempFile("structurizr", "-sources.jar");
+        sourcesJar.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(sourcesJar))) {
+            for (String name : new String[] { "SomeComponent.java", "SomeComponentImpl.java" }) {
+                out.putNextEntry(new ZipEntry("test/SourceCodeComponentFinderStrategy/" + name));
+                out.write(Files.readAllBytes(new File(sourcePath, "test/SourceCodeComponentFinderStrategy/" + name).toPath()));
+                out.closeEntry();
+            }
+        }
+
+        ComponentFinder componentFinder = new ComponentFinder(
+                webApplication,
+                "test.SourceCodeComponentFinderStrategy",
+                new SourceCodeComponentFinderStrategy(sourcesJar)
+        );
+        componentFinder.findComponents();
+
+        assertEquals("A component that does something.", someComponent.getDescription());
+        assertEquals(20, someComponent.getSize());
+        assertTrue(someComponent.getType().getUrl().startsWith("jar:file:"));
+        assertTrue(someComponent.getType().getUrl().endsWith("-sources.jar!/test/SourceCodeComponentFinderStrategy/SomeComponent.java"));
+    }
+
+}
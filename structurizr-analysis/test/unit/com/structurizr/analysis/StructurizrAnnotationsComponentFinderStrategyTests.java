@@ -3,12 +3,24 @@ package com.structurizr.analysis;
 import com.structurizr.Workspace;
 import com.structurizr.model.*;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
 public class StructurizrAnnotationsComponentFinderStrategyTests {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private SoftwareSystem external1, external2, softwareSystem;
     private Person anonymousUser, authenticatedUser;
     private Container webBrowser, apiClient;
@@ -163,4 +175,77 @@ public class StructurizrAnnotationsComponentFinderStrategyTests {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_findComponents_GivesTheSameResult_WhenTheComponentIndexIsUsed() throws Exception {
+        File classDirectory = temporaryFolder.newFolder("classes");
+        TestCompiler.compile(classDirectory, true, createSourcesForComponentIndex());
+
+        Workspace workspace = new Workspace("Name", "");
+        Model model = workspace.getModel();
+        Container container = model.addSoftwareSystem("Software System", "").addContainer("Name", "", "");
+        Container database = container.getSoftwareSystem().addContainer("Database", "", "");
+
+        StructurizrAnnotationsComponentFinderStrategy strategy = new StructurizrAnnotationsComponentFinderStrategy();
+        strategy.setUseComponentIndex(true);
+        ComponentFinder componentFinder = new ComponentFinder(container, "test.ComponentIndex", strategy);
+        componentFinder.setUrlClassLoader(new URLClassLoader(new URL[] { classDirectory.toURI().toURL() }));
+        componentFinder.findComponents();
+
+        assertEquals(2, container.getComponents().size());
+        assertEquals("Does something.", container.getComponentWithName("SomeController").getDescription());
+        assertEquals("Spring MVC", container.getComponentWithName("SomeController").getTechnology());
+        assertEquals("Manages some data.", container.getComponentWithName("SomeRepository").getDescription());
+        assertEquals("Reads from", container.getComponentWithName("SomeController").getEfferentRelationshipWith(container.getComponentWithName("SomeRepository")).getDescription());
+        assertTrue(container.getComponentWithName("SomeRepository").hasEfferentRelationshipWith(database));
+    }
+
+    @Test
+    public void test_findComponents_ChecksTheTypesFromClasspathRootsWithoutAnIndex_WhenTheComponentIndexIsUsed() throws Exception {
+        File classDirectory = temporaryFolder.newFolder("classes");
+        TestCompiler.compile(classDirectory, true, createSourcesForComponentIndex());
+
+        // e.g. a library, or classes compiled without the annotation processor
+        File otherClassDirectory = temporaryFolder.newFolder("other-classes");
+        TestCompiler.compile(otherClassDirectory, false, Collections.singletonMap("test.ComponentIndex.SomeOtherController",
+                "package test.ComponentIndex;\n" +
+                "@com.structurizr.annotation.Component(description = \"Does something else.\")\n" +
+                "public class SomeOtherController {}\n"));
+
+        Workspace workspace = new Workspace("Name", "");
+        Container container = workspace.getModel().addSoftwareSystem("Software System", "").addContainer("Name", "", "");
+
+        StructurizrAnnotationsComponentFinderStrategy strategy = new StructurizrAnnotationsComponentFinderStrategy();
+        strategy.setUseComponentIndex(true);
+        ComponentFinder componentFinder = new ComponentFinder(container, "test.ComponentIndex", strategy);
+        componentFinder.setUrlClassLoader(new URLClassLoader(new URL[] { classDirectory.toURI().toURL(), otherClassDirectory.toURI().toURL() }));
+        componentFinder.findComponents();
+
+        assertEquals(3, container.getComponents().size());
+        assertEquals("Does something.", container.getComponentWithName("SomeController").getDescription());
+        assertEquals("Manages some data.", container.getComponentWithName("SomeRepository").getDescription());
+        assertEquals("Does something else.", container.getComponentWithName("SomeOtherController").getDescription());
+    }
+
+    private Map<String, String> createSourcesForComponentIndex() {
+        Map<String, String> sources = new HashMap<>();
+        sources.put("test.ComponentIndex.SomeController",
+                "package test.ComponentIndex;\n" +
+                "import com.structurizr.annotation.*;\n" +
+                "@Component(description = \"Does something.\", technology = \"Spring MVC\")\n" +
+                "public class SomeController {\n" +
+                "    @UsesComponent(description = \"Reads from\")\n" +
+                "    protected SomeRepository repository;\n" +
+                "}\n");
+        sources.put("test.ComponentIndex.SomeRepository",
+                "package test.ComponentIndex;\n" +
+                "@com.structurizr.annotation.Component(description = \"Manages some data.\")\n" +
+                "public interface SomeRepository {}\n");
+        sources.put("test.ComponentIndex.JdbcSomeRepository",
+                "package test.ComponentIndex;\n" +
+                "@com.structurizr.annotation.UsesContainer(name = \"Database\", description = \"Reads from and writes to\", technology = \"JDBC\")\n" +
+                "class JdbcSomeRepository implements SomeRepository {}\n");
+
+        return sources;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.structurizr.analysis;
+
+import com.structurizr.annotation.processing.ComponentIndexProcessor;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Compiles Java source code into a directory, for tests that need class files (and a component index) that don't
+ * depend upon how the build itself is configured to run annotation processors.
+ */
+final class TestCompiler {
+
+    private TestCompiler() {
+    }
+
+    /**
+     * Compiles the specified source code.
+     *
+     * @param directory             the output directory
+     * @param writeComponentIndex   true to run the ComponentIndexProcessor, false to run no annotation processors
+     * @param sourcesByTypeName     the source code, keyed by fully qualified type name
+     */
+    static void compile(File directory, boolean writeComponentIndex, Map<String, String> sourcesByTypeName) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("A Java compiler is needed to run this test.");
+        }
+
+        List<JavaFileObject> sources = new ArrayList<>();
+        sourcesByTypeName.forEach((typeName, source) -> sources.add(new SourceFile(typeName, source)));
+
+        List<String> options = new ArrayList<>(Arrays.asList(
+                "-d", directory.getPath(),
+                "-classpath", locationOf(com.structurizr.annotation.Component.class)));
+        if (!writeComponentIndex) {
+            options.add("-proc:none");
+        }
+
+        StringWriter output = new StringWriter();
+        JavaCompiler.CompilationTask task = compiler.getTask(output, null, null, options, null, sources);
+        if (writeComponentIndex) {
+            task.setProcessors(Collections.singletonList(new ComponentIndexProcessor()));
+        }
+
+        if (!task.call()) {
+            throw new IllegalStateException("The source code could not be compiled: " + output);
+        }
+    }
+
+    private static String locationOf(Class<?> type) throws Exception {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String source;
+
+        SourceFile(String typeName, String source) {
+            super(URI.create("string:///" + typeName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+
+    }
+
+}
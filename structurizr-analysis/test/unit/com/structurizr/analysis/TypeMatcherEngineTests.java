@@ -0,0 +1,98 @@
+package com.structurizr.analysis;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class TypeMatcherEngineTests {
+
+    @Deprecated
+    static class SomeController implements Serializable {
+    }
+
+    static class OtherController extends SomeController {
+    }
+
+    static class SomeRepository {
+    }
+
+    @Test
+    public void test_findMatchers_ReturnsTheSameMatchersAsEvaluatingEachMatcher_InMatcherOrder() {
+        List<TypeMatcher> typeMatchers = asList(
+                new RegexTypeMatcher(".*\\.Other.*", "", ""),
+                new NameSuffixTypeMatcher("Controller", "", ""),
+                new NameSuffixTypeMatcher("rController", "", ""),
+                new NameSuffixTypeMatcher("Repository", "", ""),
+                new AnnotationTypeMatcher(Deprecated.class, "", ""),
+                new ExtendsClassTypeMatcher(SomeController.class, "", ""),
+                new ImplementsInterfaceTypeMatcher(Serializable.class, "", ""),
+                new RegexTypeMatcher("com\\.structurizr\\.analysis\\..*Some.*", "", ""),
+                new RegexTypeMatcher("org\\.example\\..*", "", ""),
+                new AbstractTypeMatcher("", "") { // a custom type matcher
+                    @Override
+                    public boolean matches(Class type) {
+                        return type.getSimpleName().startsWith("Other");
+                    }
+                }
+        );
+        TypeMatcherEngine engine = new TypeMatcherEngine(typeMatchers);
+
+        for (Class<?> type : asList(SomeController.class, OtherController.class, SomeRepository.class, String.class)) {
+            List<TypeMatcher> expected = new ArrayList<>();
+            for (TypeMatcher typeMatcher : typeMatchers) {
+                if (typeMatcher.matches(type)) {
+                    expected.add(typeMatcher);
+                }
+            }
+
+            assertEquals(type.getName(), expected, engine.findMatchers(type));
+        }
+
+        // @Deprecated isn't inherited
+        assertEquals(asList(typeMatchers.get(0), typeMatchers.get(1), typeMatchers.get(2), typeMatchers.get(5), typeMatchers.get(6), typeMatchers.get(9)),
+                engine.findMatchers(OtherController.class));
+    }
+
+    @Test
+    public void test_findMatchers_MatchesObject_ForClassesAndInterfaces() {
+        TypeMatcher typeMatcher = new ExtendsClassTypeMatcher(Object.class, "", "");
+        TypeMatcherEngine engine = new TypeMatcherEngine(singletonList(typeMatcher));
+
+        for (Class<?> type : asList(SomeController.class, Serializable.class, Runnable.class)) {
+            assertTrue(typeMatcher.matches(type));
+            assertEquals(type.getName(), singletonList(typeMatcher), engine.findMatchers(type));
+        }
+    }
+
+    @Test
+    public void test_findMatchers_AsksSubclassesOfTheBuiltInMatchersDirectly() {
+        TypeMatcher typeMatcher = new NameSuffixTypeMatcher("Controller", "", "") {
+            @Override
+            public boolean matches(Class type) {
+                return false;
+            }
+        };
+
+        assertEquals(emptyList(), new TypeMatcherEngine(singletonList(typeMatcher)).findMatchers(SomeController.class));
+    }
+
+    @Test
+    public void test_literalPrefix() {
+        assertEquals("com.mycompany.", TypeMatcherEngine.literalPrefix(Pattern.compile("com\\.mycompany\\..*Controller")));
+        assertEquals("com.mycompan", TypeMatcherEngine.literalPrefix(Pattern.compile("com\\.mycompany?")));
+        assertEquals("com", TypeMatcherEngine.literalPrefix(Pattern.compile("com\\.*")));
+        assertEquals("", TypeMatcherEngine.literalPrefix(Pattern.compile(".*Controller")));
+        assertEquals("", TypeMatcherEngine.literalPrefix(Pattern.compile("com|org")));
+        assertEquals("", TypeMatcherEngine.literalPrefix(Pattern.compile("\\Qcom.mycompany\\E.*")));
+        assertEquals("", TypeMatcherEngine.literalPrefix(Pattern.compile("com.*", Pattern.CASE_INSENSITIVE)));
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.structurizr.analysis;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TypeViewTests {
+
+    private TypeView typeView = new TypeView(Arrays.asList(String.class, Integer.class, Thread.State.class));
+
+    @Test
+    public void test_size() {
+        assertEquals(3, typeView.size());
+        assertFalse(typeView.isEmpty());
+        assertTrue(new TypeView(Arrays.asList()).isEmpty());
+    }
+
+    @Test
+    public void test_contains() {
+        assertTrue(typeView.contains(String.class));
+        assertTrue(typeView.contains("java.lang.Integer"));
+        assertTrue(typeView.contains("java.lang.Thread.State"));
+        assertTrue(typeView.contains("java.lang.Thread$State"));
+        assertFalse(typeView.contains(Long.class));
+        assertFalse(typeView.contains("java.lang.Long"));
+    }
+
+    @Test
+    public void test_getId_and_get() {
+        int id = typeView.getId("java.lang.Integer");
+        assertSame(Integer.class, typeView.get(id));
+        assertSame(Integer.class, typeView.get("java.lang.Integer"));
+        assertEquals(-1, typeView.getId("java.lang.Long"));
+        assertNull(typeView.get("java.lang.Long"));
+    }
+
+    @Test
+    public void test_getFacts() {
+        TypeFacts facts = typeView.getFacts("java.lang.Thread$State");
+        assertEquals("java.lang.Thread.State", facts.getCanonicalName());
+        assertSame(TypeVisibility.PUBLIC, facts.getVisibility());
+        assertSame(TypeCategory.ENUM, facts.getCategory());
+        assertSame(facts, typeView.getFacts(typeView.getId("java.lang.Thread.State")));
+        assertNull(typeView.getFacts("java.lang.Long"));
+    }
+
+    @Test
+    public void test_iterator_IsReadOnly() {
+        Iterator<Class<?>> iterator = typeView.iterator();
+        iterator.next();
+        try {
+            iterator.remove();
+            fail();
+        } catch (UnsupportedOperationException uoe) {
+            // expected
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_asSet_IsUnmodifiable() {
+        typeView.asSet().add(Long.class);
+    }
+
+    @Test
+    public void test_wrap_DoesNotCopyTheSet() {
+        Set<Class<?>> types = new HashSet<>(Arrays.asList(String.class, Integer.class));
+        TypeView wrapped = TypeView.wrap(types);
+
+        assertEquals(2, wrapped.size());
+        assertSame(Integer.class, wrapped.get("java.lang.Integer"));
+        assertEquals(types, wrapped.asSet());
+    }
+
+}
@@ -0,0 +1,24 @@
+package test.BytecodeMetrics;
+
+public class SomeComponent {
+
+    private SomeHelper someHelper = new SomeHelper();
+
+    public String describe(int value) {
+        if (value < 0) {
+            return "negative";
+        }
+
+        switch (value) {
+            case 0:
+                return "zero";
+            case 1:
+                return "one";
+            case 2:
+                return "two";
+            default:
+                return someHelper.describe(value);
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package test.BytecodeMetrics;
+
+class SomeHelper {
+
+    String describe(int value) {
+        try {
+            return String.valueOf(value);
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
+
+}
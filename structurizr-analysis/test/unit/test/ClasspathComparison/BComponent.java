@@ -0,0 +1,4 @@
+package test.ClasspathComparison;
+
+public class BComponent {
+}
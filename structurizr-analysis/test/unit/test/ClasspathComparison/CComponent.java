@@ -0,0 +1,7 @@
+package test.ClasspathComparison;
+
+public class CComponent {
+
+    private BComponent bComponent;
+
+}
@@ -0,0 +1,7 @@
+package test.ClasspathComparison;
+
+public class DComponent {
+
+    private BComponent bComponent;
+
+}
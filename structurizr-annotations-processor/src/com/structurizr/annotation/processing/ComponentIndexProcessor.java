@@ -0,0 +1,140 @@
+package com.structurizr.annotation.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * An annotation processor that writes an index of the types annotated with the Structurizr annotations
+ * to META-INF/structurizr.components, so that they can be found at runtime without scanning the classpath.
+ *
+ * The index is a properties file with an entry per annotated type (the value being the comma separated list
+ * of Structurizr annotations used by that type), plus "type@description" and "type@technology" entries
+ * for types annotated @Component.
+ */
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/structurizr.components";
+
+    public static final String DESCRIPTION_SUFFIX = "@description";
+    public static final String TECHNOLOGY_SUFFIX = "@technology";
+
+    private static final String PACKAGE = "com.structurizr.annotation.";
+    private static final String COMPONENT = "Component";
+
+    // maps the (repeatable) annotation types to the name written to the index
+    private static final Map<String, String> ANNOTATIONS = new LinkedHashMap<>();
+
+    static {
+        ANNOTATIONS.put(PACKAGE + "Component", COMPONENT);
+        ANNOTATIONS.put(PACKAGE + "UsesComponent", "UsesComponent");
+        ANNOTATIONS.put(PACKAGE + "UsesSoftwareSystem", "UsesSoftwareSystem");
+        ANNOTATIONS.put(PACKAGE + "UsesSoftwareSystems", "UsesSoftwareSystem");
+        ANNOTATIONS.put(PACKAGE + "UsesContainer", "UsesContainer");
+        ANNOTATIONS.put(PACKAGE + "UsesContainers", "UsesContainer");
+        ANNOTATIONS.put(PACKAGE + "UsedByPerson", "UsedByPerson");
+        ANNOTATIONS.put(PACKAGE + "UsedByPeople", "UsedByPerson");
+        ANNOTATIONS.put(PACKAGE + "UsedBySoftwareSystem", "UsedBySoftwareSystem");
+        ANNOTATIONS.put(PACKAGE + "UsedBySoftwareSystems", "UsedBySoftwareSystem");
+        ANNOTATIONS.put(PACKAGE + "UsedByContainer", "UsedByContainer");
+        ANNOTATIONS.put(PACKAGE + "UsedByContainers", "UsedByContainer");
+    }
+
+    private final Map<String, Set<String>> annotationsByType = new TreeMap<>();
+    private final Map<String, String[]> componentDetails = new HashMap<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return ANNOTATIONS.keySet();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            String annotationName = ANNOTATIONS.get(annotation.getQualifiedName().toString());
+            if (annotationName == null) {
+                continue;
+            }
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement type = findType(element);
+                if (type == null) {
+                    continue;
+                }
+
+                String typeName = type.getQualifiedName().toString();
+                annotationsByType.computeIfAbsent(typeName, k -> new TreeSet<>()).add(annotationName);
+
+                if (COMPONENT.equals(annotationName)) {
+                    componentDetails.put(typeName, new String[] {
+                            getValue(element, annotation, "description"),
+                            getValue(element, annotation, "technology")
+                    });
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !annotationsByType.isEmpty()) {
+            writeIndex();
+        }
+
+        return false;
+    }
+
+    private TypeElement findType(Element element) {
+        while (element != null && !(element instanceof TypeElement)) {
+            element = element.getEnclosingElement();
+        }
+
+        return (TypeElement)element;
+    }
+
+    private String getValue(Element element, TypeElement annotation, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotation)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals(name)) {
+                        return String.valueOf(entry.getValue().getValue());
+                    }
+                }
+            }
+        }
+
+        return "";
+    }
+
+    private void writeIndex() {
+        Properties index = new Properties();
+        for (Map.Entry<String, Set<String>> entry : annotationsByType.entrySet()) {
+            index.setProperty(entry.getKey(), String.join(",", entry.getValue()));
+
+            String[] details = componentDetails.get(entry.getKey());
+            if (details != null) {
+                index.setProperty(entry.getKey() + DESCRIPTION_SUFFIX, details[0]);
+                index.setProperty(entry.getKey() + TECHNOLOGY_SUFFIX, details[1]);
+            }
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (OutputStream out = file.openOutputStream()) {
+                index.store(out, null);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.structurizr.analysis.daemon;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A minimal client for the {@link AnalysisDaemon}.
+ */
+public final class AnalysisClient {
+
+    private AnalysisClient() {
+    }
+
+    /**
+     * Sends a request to the daemon listening on the specified loopback port.
+     *
+     * @param port      the port the daemon is listening on
+     * @param request   the request line (e.g. "ANALYSE myapp dot")
+     * @return  the output
+     * @throws IOException  if the daemon can't be reached, or responds with an error
+     */
+    public static String send(int port, String request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            writer.write(request + "\n");
+            writer.flush();
+
+            String status = reader.readLine();
+            if (status == null) {
+                throw new IOException("No response from the daemon.");
+            } else if (!status.equals(AnalysisDaemon.OK)) {
+                throw new IOException(status.startsWith(AnalysisDaemon.ERROR + " ") ? status.substring(AnalysisDaemon.ERROR.length() + 1) : status);
+            }
+
+            StringBuilder output = new StringBuilder();
+            char[] buf = new char[8192];
+            int read;
+            while ((read = reader.read(buf)) != -1) {
+                output.append(buf, 0, read);
+            }
+
+            return output.toString();
+        }
+    }
+
+    /**
+     * Sends a request from the command line, printing the output (or the error, with exit code 1).
+     *
+     * Usage: AnalysisClient port request...
+     *
+     * @param args  the port, followed by the request (e.g. 7777 ANALYSE myapp dot)
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: AnalysisClient port request...");
+            System.exit(1);
+        }
+
+        try {
+            System.out.print(send(Integer.parseInt(args[0]), String.join(" ", Arrays.copyOfRange(args, 1, args.length))));
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+}
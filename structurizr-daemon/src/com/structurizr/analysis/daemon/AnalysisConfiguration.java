@@ -0,0 +1,35 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.analysis.ComponentFinder;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/**
+ * Describes how the {@link AnalysisDaemon} should find the components for a named configuration.
+ */
+public interface AnalysisConfiguration {
+
+    /**
+     * Gets the directories containing the compiled classes to be analysed. These are watched for changes,
+     * and are used to create the class loader passed to {@link #createComponentFinder(Workspace, URLClassLoader)}.
+     *
+     * @return  a List of directories
+     */
+    List<File> getClassDirectories();
+
+    /**
+     * Creates a component finder, for a container in the specified workspace. This is called every time
+     * the configuration needs to be analysed (i.e. the first time, and after the class files have changed).
+     *
+     * @param workspace     a new Workspace, in which the software system and container should be created
+     * @param classLoader   a new class loader for the class directories (pass this to {@link ComponentFinder#setUrlClassLoader(URLClassLoader)}
+     *                      so that changed classes are loaded again)
+     * @return  a ComponentFinder
+     * @throws Exception    if the component finder can't be created
+     */
+    ComponentFinder createComponentFinder(Workspace workspace, URLClassLoader classLoader) throws Exception;
+
+}
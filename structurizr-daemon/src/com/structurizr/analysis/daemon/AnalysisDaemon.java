@@ -0,0 +1,386 @@
+package com.structurizr.analysis.daemon;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * <p>
+ *     A long-running process that keeps the result of analysing one or more named configurations in memory,
+ *     and serves it over a loopback socket, so that repeated model generation (e.g. in pre-commit hooks or CI matrices)
+ *     doesn't pay for JVM startup, classpath scanning and JIT warm-up every time. The class directories of each
+ *     configuration are watched, and the result is discarded when any class file changes.
+ * </p>
+ *
+ * <p>
+ *     Each connection carries a single request line, and the response is a status line ("OK" or "ERROR message")
+ *     followed by the output. The requests are:
+ * </p>
+ *
+ * <ul>
+ *     <li>ANALYSE name [format]: renders the components for the named configuration (formats are "components" (the default), "dot" and "plantuml", plus any added via {@link #addRenderer(String, ModelRenderer)})</li>
+ *     <li>INVALIDATE [name]: discards the result for the named configuration (or all configurations)</li>
+ *     <li>STATUS: lists the configurations, whether they're warm, the number of analyses and the duration of the last one</li>
+ *     <li>STOP: stops the daemon</li>
+ * </ul>
+ *
+ * @see AnalysisClient
+ */
+public class AnalysisDaemon implements Closeable {
+
+    private static final Log log = LogFactory.getLog(AnalysisDaemon.class);
+
+    public static final String DEFAULT_FORMAT = "components";
+
+    static final String OK = "OK";
+    static final String ERROR = "ERROR";
+
+    private final int port;
+    private final Map<String, AnalysisSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ModelRenderer> renderers = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Set<AnalysisSession>> watchKeys = new ConcurrentHashMap<>();
+
+    private ServerSocket serverSocket;
+    private WatchService watchService;
+    private ExecutorService executor;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Creates a new daemon.
+     *
+     * @param port  the loopback port to listen on, or 0 to use any free port
+     */
+    public AnalysisDaemon(int port) {
+        if (port < 0) {
+            throw new IllegalArgumentException("The port must be 0 or greater.");
+        }
+
+        this.port = port;
+        this.renderers.putAll(createDefaultRenderers());
+    }
+
+    static Map<String, ModelRenderer> createDefaultRenderers() {
+        Map<String, ModelRenderer> renderers = new HashMap<>();
+        renderers.put(DEFAULT_FORMAT, new ComponentsRenderer());
+        renderers.put("dot", new DotRenderer());
+        renderers.put("plantuml", new PlantUMLRenderer());
+
+        return renderers;
+    }
+
+    /**
+     * Registers a named configuration.
+     *
+     * @param name              the name used in requests
+     * @param configuration     an AnalysisConfiguration
+     * @throws IOException      if the class directories can't be watched
+     */
+    public void register(String name, AnalysisConfiguration configuration) throws IOException {
+        if (name == null || name.trim().isEmpty() || name.matches(".*\\s.*")) {
+            throw new IllegalArgumentException("A name (without whitespace) must be specified.");
+        }
+
+        if (configuration == null) {
+            throw new IllegalArgumentException("A configuration must be specified.");
+        }
+
+        AnalysisSession session = new AnalysisSession(name, configuration);
+        AnalysisSession previousSession = sessions.put(name, session);
+        if (previousSession != null) {
+            previousSession.invalidate();
+            watchKeys.values().forEach(watchingSessions -> watchingSessions.remove(previousSession));
+        }
+
+        synchronized (this) {
+            if (watchService != null) {
+                watch(session);
+            }
+        }
+    }
+
+    /**
+     * Adds (or replaces) an output format.
+     *
+     * @param format    the name of the format, as used in requests
+     * @param renderer  a ModelRenderer
+     */
+    public void addRenderer(String format, ModelRenderer renderer) {
+        if (format == null || format.trim().isEmpty()) {
+            throw new IllegalArgumentException("A format must be specified.");
+        }
+
+        if (renderer == null) {
+            throw new IllegalArgumentException("A renderer must be specified.");
+        }
+
+        renderers.put(format, renderer);
+    }
+
+    /**
+     * Starts listening for requests (on background threads).
+     *
+     * @throws IOException  if the socket can't be opened
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("The daemon has already been started.");
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        for (AnalysisSession session : sessions.values()) {
+            watch(session);
+        }
+
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "structurizr-daemon");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.execute(this::acceptConnections);
+        executor.execute(this::watchForChanges);
+
+        log.info("Listening on " + serverSocket.getLocalSocketAddress());
+    }
+
+    /**
+     * Gets the port that the daemon is listening on.
+     *
+     * @return  the port number
+     */
+    public synchronized int getPort() {
+        if (serverSocket == null) {
+            throw new IllegalStateException("The daemon has not been started.");
+        }
+
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Blocks until the daemon has been stopped.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops the daemon.
+     */
+    @Override
+    public synchronized void close() {
+        if (serverSocket == null || stopped.getCount() == 0) {
+            return;
+        }
+
+        try {
+            serverSocket.close();
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Error while stopping", e);
+        }
+
+        executor.shutdownNow();
+        sessions.values().forEach(AnalysisSession::invalidate);
+        stopped.countDown();
+    }
+
+    /**
+     * Handles a single request.
+     *
+     * @param request   the request line
+     * @return  the response, starting with a status line
+     */
+    String handle(String request) {
+        String[] parts = request != null ? request.trim().split("\\s+") : new String[0];
+        if (parts.length == 0 || parts[0].isEmpty()) {
+            return error("A request must be specified.");
+        }
+
+        try {
+            switch (parts[0].toUpperCase(Locale.ROOT)) {
+                case "ANALYSE":
+                case "ANALYZE":
+                    if (parts.length < 2) {
+                        return error("Usage: ANALYSE name [format]");
+                    }
+
+                    String format = parts.length > 2 ? parts[2] : DEFAULT_FORMAT;
+                    ModelRenderer renderer = renderers.get(format);
+                    if (renderer == null) {
+                        return error("Unknown format \"" + format + "\".");
+                    }
+
+                    return ok(getSession(parts[1]).render(format, renderer));
+
+                case "INVALIDATE":
+                    if (parts.length > 1) {
+                        getSession(parts[1]).invalidate();
+                    } else {
+                        sessions.values().forEach(AnalysisSession::invalidate);
+                    }
+                    return ok("");
+
+                case "STATUS":
+                    StringBuilder buf = new StringBuilder();
+                    new TreeMap<>(sessions).values().forEach(session -> buf.append(session.getStatus()).append('\n'));
+                    return ok(buf.toString());
+
+                case "STOP":
+                    // respond before the socket is closed
+                    executor.execute(this::close);
+                    return ok("");
+
+                default:
+                    return error("Unknown request \"" + parts[0] + "\".");
+            }
+        } catch (IllegalArgumentException iae) {
+            return error(iae.getMessage());
+        } catch (Exception e) {
+            log.warn("Error handling " + request, e);
+            return error(e.toString());
+        }
+    }
+
+    private AnalysisSession getSession(String name) {
+        AnalysisSession session = sessions.get(name);
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown configuration \"" + name + "\".");
+        }
+
+        return session;
+    }
+
+    private String ok(String output) {
+        return OK + "\n" + output;
+    }
+
+    private String error(String message) {
+        return ERROR + " " + String.valueOf(message).replace('\n', ' ') + "\n";
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (SocketException | RejectedExecutionException e) {
+                // the daemon has been stopped
+                return;
+            } catch (IOException e) {
+                log.warn("Error accepting a connection", e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)) {
+            writer.write(handle(reader.readLine()));
+            writer.flush();
+        } catch (IOException e) {
+            log.debug("Error handling a connection", e);
+        }
+    }
+
+    private void watch(AnalysisSession session) throws IOException {
+        for (File classDirectory : session.getClassDirectories()) {
+            if (classDirectory.isDirectory()) {
+                watchRecursively(classDirectory.toPath(), session);
+            }
+        }
+    }
+
+    private void watchRecursively(Path directory, AnalysisSession session) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                // registering a directory again returns the same key, so configurations can share a directory
+                WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                watchKeys.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(session);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watchForChanges() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Set<AnalysisSession> watchingSessions = watchKeys.get(key);
+            if (watchingSessions != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == ENTRY_CREATE) {
+                        Path path = ((Path)key.watchable()).resolve((Path)event.context());
+                        if (Files.isDirectory(path)) {
+                            for (AnalysisSession session : watchingSessions) {
+                                try {
+                                    watchRecursively(path, session);
+                                } catch (IOException | ClosedWatchServiceException e) {
+                                    log.debug("Could not watch " + path, e);
+                                }
+                            }
+                        }
+                    }
+                }
+
+                watchingSessions.forEach(AnalysisSession::invalidate);
+            }
+
+            if (!key.reset()) {
+                watchKeys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Starts a daemon from the command line.
+     *
+     * Usage: AnalysisDaemon port name=configurationClassName [name=configurationClassName ...]
+     *
+     * @param args  the port, followed by one or more name=configurationClassName pairs (the classes must implement
+     *              {@link AnalysisConfiguration}, and have a public no-args constructor)
+     * @throws Exception    if the daemon can't be started
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: AnalysisDaemon port name=configurationClassName [name=configurationClassName ...]");
+            System.exit(1);
+        }
+
+        AnalysisDaemon daemon = new AnalysisDaemon(Integer.parseInt(args[0]));
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            if (equals < 1) {
+                throw new IllegalArgumentException("Expected name=configurationClassName, but got \"" + args[i] + "\".");
+            }
+
+            Class<?> type = Class.forName(args[i].substring(equals + 1));
+            daemon.register(args[i].substring(0, equals), (AnalysisConfiguration)type.newInstance());
+        }
+
+        daemon.start();
+        daemon.awaitStop();
+    }
+
+}
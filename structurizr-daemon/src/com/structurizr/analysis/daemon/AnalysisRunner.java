@@ -0,0 +1,58 @@
+package com.structurizr.analysis.daemon;
+
+import java.util.Map;
+
+/**
+ * Runs a single configuration once and prints the output; the short-lived command line equivalent
+ * of an ANALYSE request to the {@link AnalysisDaemon}.
+ */
+public final class AnalysisRunner {
+
+    private AnalysisRunner() {
+    }
+
+    /**
+     * Runs the specified configuration.
+     *
+     * @param configuration     an AnalysisConfiguration
+     * @param format            the output format ("components", "dot" or "plantuml")
+     * @return  the output
+     * @throws Exception    if the configuration can't be run
+     */
+    public static String run(AnalysisConfiguration configuration, String format) throws Exception {
+        if (configuration == null) {
+            throw new IllegalArgumentException("A configuration must be specified.");
+        }
+
+        Map<String, ModelRenderer> renderers = AnalysisDaemon.createDefaultRenderers();
+        ModelRenderer renderer = renderers.get(format);
+        if (renderer == null) {
+            throw new IllegalArgumentException("Unknown format \"" + format + "\".");
+        }
+
+        AnalysisSession session = new AnalysisSession(configuration.getClass().getSimpleName(), configuration);
+        try {
+            return session.render(format, renderer);
+        } finally {
+            session.invalidate();
+        }
+    }
+
+    /**
+     * Usage: AnalysisRunner configurationClassName [format]
+     *
+     * @param args  the name of a class implementing {@link AnalysisConfiguration} (with a public no-args constructor),
+     *              optionally followed by the output format
+     * @throws Exception    if the configuration can't be run
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: AnalysisRunner configurationClassName [format]");
+            System.exit(1);
+        }
+
+        AnalysisConfiguration configuration = (AnalysisConfiguration)Class.forName(args[0]).newInstance();
+        System.out.print(run(configuration, args.length > 1 ? args[1] : AnalysisDaemon.DEFAULT_FORMAT));
+    }
+
+}
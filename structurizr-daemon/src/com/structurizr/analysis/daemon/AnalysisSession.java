@@ -0,0 +1,120 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.analysis.ComponentFinder;
+import com.structurizr.model.Container;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the result of analysing a named configuration (the workspace, and the output rendered in each format),
+ * until the configuration's class files change.
+ */
+class AnalysisSession {
+
+    private static final Log log = LogFactory.getLog(AnalysisSession.class);
+
+    private final String name;
+    private final AnalysisConfiguration configuration;
+
+    private URLClassLoader classLoader;
+    private Workspace workspace;
+    private Container container;
+    private final Map<String, String> outputs = new HashMap<>();
+
+    private int numberOfAnalyses = 0;
+    private long durationOfLastAnalysis = 0;
+
+    AnalysisSession(String name, AnalysisConfiguration configuration) {
+        this.name = name;
+        this.configuration = configuration;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    List<File> getClassDirectories() {
+        return configuration.getClassDirectories();
+    }
+
+    /**
+     * Renders the components found by this configuration, analysing the class files first if necessary.
+     */
+    synchronized String render(String format, ModelRenderer renderer) throws Exception {
+        if (container == null) {
+            analyse();
+        }
+
+        String output = outputs.get(format);
+        if (output == null) {
+            output = renderer.render(workspace, container);
+            outputs.put(format, output);
+        }
+
+        return output;
+    }
+
+    private void analyse() throws Exception {
+        long start = System.currentTimeMillis();
+
+        List<File> classDirectories = configuration.getClassDirectories();
+        URL[] urls = new URL[classDirectories.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = classDirectories.get(i).toURI().toURL();
+        }
+
+        URLClassLoader classLoader = new URLClassLoader(urls, AnalysisSession.class.getClassLoader());
+        try {
+            Workspace workspace = new Workspace(name, "");
+            ComponentFinder componentFinder = configuration.createComponentFinder(workspace, classLoader);
+            componentFinder.findComponents();
+
+            this.classLoader = classLoader;
+            this.workspace = workspace;
+            this.container = componentFinder.getContainer();
+        } catch (Exception e) {
+            classLoader.close();
+            throw e;
+        }
+
+        numberOfAnalyses++;
+        durationOfLastAnalysis = System.currentTimeMillis() - start;
+        log.info("Analysed " + name + " in " + durationOfLastAnalysis + "ms");
+    }
+
+    /**
+     * Discards the result of the last analysis, so that the class files are analysed again on the next request.
+     */
+    synchronized void invalidate() {
+        if (container != null) {
+            log.debug("Invalidating " + name);
+        }
+
+        workspace = null;
+        container = null;
+        outputs.clear();
+
+        if (classLoader != null) {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                log.debug("Could not close the class loader for " + name, e);
+            }
+            classLoader = null;
+        }
+    }
+
+    synchronized String getStatus() {
+        return name + "\t" + (container != null ? "warm" : "cold") + "\t" + numberOfAnalyses + "\t" + durationOfLastAnalysis + "ms";
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Renders the components and the relationships between them as tab separated lines, ordered by name:
+ * "component name type technology" and "relationship source destination description".
+ */
+class ComponentsRenderer implements ModelRenderer {
+
+    @Override
+    public String render(Workspace workspace, Container container) {
+        StringBuilder buf = new StringBuilder();
+
+        for (Component component : getComponents(container)) {
+            buf.append("component\t")
+                    .append(component.getName()).append('\t')
+                    .append(component.getType() != null ? component.getType().getType() : "").append('\t')
+                    .append(nullToEmpty(component.getTechnology())).append('\n');
+        }
+
+        for (Relationship relationship : getRelationships(container)) {
+            buf.append("relationship\t")
+                    .append(relationship.getSource().getName()).append('\t')
+                    .append(relationship.getDestination().getName()).append('\t')
+                    .append(nullToEmpty(relationship.getDescription())).append('\n');
+        }
+
+        return buf.toString();
+    }
+
+    static List<Component> getComponents(Container container) {
+        List<Component> components = new ArrayList<>(container.getComponents());
+        components.sort(Comparator.comparing(Component::getName));
+
+        return components;
+    }
+
+    /**
+     * Gets the relationships between the components in the specified container, ordered by source, destination and description.
+     */
+    static List<Relationship> getRelationships(Container container) {
+        List<Relationship> relationships = new ArrayList<>();
+        for (Component component : container.getComponents()) {
+            for (Relationship relationship : component.getRelationships()) {
+                if (relationship.getDestination() instanceof Component && ((Component)relationship.getDestination()).getContainer() == container) {
+                    relationships.add(relationship);
+                }
+            }
+        }
+
+        relationships.sort(Comparator.comparing((Relationship r) -> r.getSource().getName())
+                .thenComparing(r -> r.getDestination().getName())
+                .thenComparing(r -> nullToEmpty(r.getDescription())));
+
+        return relationships;
+    }
+
+    static String nullToEmpty(String s) {
+        return s != null ? s : "";
+    }
+
+}
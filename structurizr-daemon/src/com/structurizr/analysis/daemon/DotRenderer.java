@@ -0,0 +1,47 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import com.structurizr.util.StringUtils;
+
+import static com.structurizr.analysis.daemon.ComponentsRenderer.nullToEmpty;
+
+/**
+ * Renders the components in a container as a Graphviz DOT digraph.
+ */
+class DotRenderer implements ModelRenderer {
+
+    @Override
+    public String render(Workspace workspace, Container container) {
+        StringBuilder buf = new StringBuilder();
+        buf.append("digraph \"").append(escape(container.getName())).append("\" {\n");
+        buf.append("  node [shape=box]\n");
+
+        for (Component component : ComponentsRenderer.getComponents(container)) {
+            buf.append("  \"").append(component.getId()).append("\" [label=\"").append(escape(component.getName()));
+            if (!StringUtils.isNullOrEmpty(component.getTechnology())) {
+                buf.append("\\n[").append(escape(component.getTechnology())).append("]");
+            }
+            buf.append("\"]\n");
+        }
+
+        for (Relationship relationship : ComponentsRenderer.getRelationships(container)) {
+            buf.append("  \"").append(relationship.getSourceId()).append("\" -> \"").append(relationship.getDestinationId()).append("\"");
+            if (!StringUtils.isNullOrEmpty(relationship.getDescription())) {
+                buf.append(" [label=\"").append(escape(relationship.getDescription())).append("\"]");
+            }
+            buf.append("\n");
+        }
+
+        buf.append("}\n");
+
+        return buf.toString();
+    }
+
+    private static String escape(String s) {
+        return nullToEmpty(s).replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Container;
+
+/**
+ * Renders the components found in a container, in a particular output format.
+ */
+public interface ModelRenderer {
+
+    /**
+     * Renders the specified container.
+     *
+     * @param workspace     the Workspace containing the container
+     * @param container     the Container whose components were found
+     * @return  the output, as a String
+     * @throws Exception    if the container can't be rendered
+     */
+    String render(Workspace workspace, Container container) throws Exception;
+
+}
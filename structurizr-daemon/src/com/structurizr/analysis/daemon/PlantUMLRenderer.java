@@ -0,0 +1,51 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import com.structurizr.util.StringUtils;
+
+import static com.structurizr.analysis.daemon.ComponentsRenderer.nullToEmpty;
+
+/**
+ * Renders the components in a container as a PlantUML component diagram.
+ */
+class PlantUMLRenderer implements ModelRenderer {
+
+    @Override
+    public String render(Workspace workspace, Container container) {
+        StringBuilder buf = new StringBuilder();
+        buf.append("@startuml\n");
+        buf.append("title ").append(nullToEmpty(container.getName())).append("\n");
+
+        for (Component component : ComponentsRenderer.getComponents(container)) {
+            buf.append("component \"").append(escape(component.getName())).append("\"");
+            if (!StringUtils.isNullOrEmpty(component.getTechnology())) {
+                buf.append(" <<").append(escape(component.getTechnology())).append(">>");
+            }
+            buf.append(" as ").append(alias(component)).append("\n");
+        }
+
+        for (Relationship relationship : ComponentsRenderer.getRelationships(container)) {
+            buf.append(alias((Component)relationship.getSource())).append(" --> ").append(alias((Component)relationship.getDestination()));
+            if (!StringUtils.isNullOrEmpty(relationship.getDescription())) {
+                buf.append(" : ").append(relationship.getDescription());
+            }
+            buf.append("\n");
+        }
+
+        buf.append("@enduml\n");
+
+        return buf.toString();
+    }
+
+    private static String alias(Component component) {
+        return "c" + component.getId();
+    }
+
+    private static String escape(String s) {
+        return nullToEmpty(s).replace("\"", "'");
+    }
+
+}
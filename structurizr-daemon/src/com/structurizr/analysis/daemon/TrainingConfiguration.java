@@ -0,0 +1,41 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.analysis.ComponentFinder;
+import com.structurizr.analysis.NameSuffixTypeMatcher;
+import com.structurizr.analysis.ReferencedTypesSupportingTypesStrategy;
+import com.structurizr.analysis.TypeMatcherComponentFinderStrategy;
+import com.structurizr.model.Container;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A configuration that analyses the Structurizr analysis classes themselves. This is used as the training run
+ * when creating a class data sharing archive, since it loads the same library classes (Reflections, Javassist,
+ * structurizr-core, etc) as analysing an application does.
+ */
+public class TrainingConfiguration implements AnalysisConfiguration {
+
+    @Override
+    public List<File> getClassDirectories() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ComponentFinder createComponentFinder(Workspace workspace, URLClassLoader classLoader) {
+        Container container = workspace.getModel()
+                .addSoftwareSystem("Structurizr", "")
+                .addContainer("Structurizr for Java", "", "Java");
+
+        TypeMatcherComponentFinderStrategy strategy = new TypeMatcherComponentFinderStrategy(
+                new NameSuffixTypeMatcher("ComponentFinder", "", "Java"),
+                new NameSuffixTypeMatcher("TypeRepository", "", "Java"));
+        strategy.addSupportingTypesStrategy(new ReferencedTypesSupportingTypesStrategy(false));
+
+        return new ComponentFinder(container, "com.structurizr.analysis", strategy);
+    }
+
+}
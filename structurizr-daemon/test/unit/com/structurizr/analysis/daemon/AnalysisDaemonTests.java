@@ -0,0 +1,159 @@
+package com.structurizr.analysis.daemon;
+
+import com.structurizr.Workspace;
+import com.structurizr.analysis.ComponentFinder;
+import com.structurizr.analysis.NameSuffixTypeMatcher;
+import com.structurizr.analysis.TypeMatcherComponentFinderStrategy;
+import com.structurizr.model.Container;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AnalysisDaemonTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private AnalysisDaemon daemon;
+    private File classDirectory;
+    private AtomicInteger numberOfAnalyses = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        classDirectory = temporaryFolder.newFolder("classes");
+
+        daemon = new AnalysisDaemon(0);
+        daemon.register("test", createConfiguration(numberOfAnalyses));
+        daemon.start();
+    }
+
+    private AnalysisConfiguration createConfiguration(AtomicInteger numberOfAnalyses) {
+        return new AnalysisConfiguration() {
+            @Override
+            public List<File> getClassDirectories() {
+                return Collections.singletonList(classDirectory);
+            }
+
+            @Override
+            public ComponentFinder createComponentFinder(Workspace workspace, URLClassLoader classLoader) {
+                numberOfAnalyses.incrementAndGet();
+
+                // the test classes are on the system classpath, so the class loader isn't needed here
+                Container container = workspace.getModel().addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+                return new ComponentFinder(container, "test.AnalysisDaemon", new TypeMatcherComponentFinderStrategy(
+                        new NameSuffixTypeMatcher("Controller", "", "Spring MVC"),
+                        new NameSuffixTypeMatcher("Repository", "", "")));
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        daemon.close();
+    }
+
+    @Test
+    public void test_analyse_ReturnsTheComponentsAndRelationships() throws Exception {
+        String output = AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+
+        assertEquals(
+                "component\tSomeController\ttest.AnalysisDaemon.SomeController\tSpring MVC\n" +
+                "component\tSomeRepository\ttest.AnalysisDaemon.SomeRepository\t\n" +
+                "relationship\tSomeController\tSomeRepository\t\n", output);
+    }
+
+    @Test
+    public void test_analyse_ReusesTheResult_WhenNothingHasChanged() throws Exception {
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test dot");
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test plantuml");
+
+        assertEquals(1, numberOfAnalyses.get());
+        assertTrue(AnalysisClient.send(daemon.getPort(), "STATUS").startsWith("test\twarm\t1\t"));
+    }
+
+    @Test
+    public void test_analyse_RendersDotAndPlantUML() throws Exception {
+        String dot = AnalysisClient.send(daemon.getPort(), "ANALYSE test dot");
+        assertTrue(dot.startsWith("digraph \"Container\" {\n"));
+        assertTrue(dot.contains("[label=\"SomeController\\n[Spring MVC]\"]"));
+        assertTrue(dot.contains(" -> "));
+
+        String plantuml = AnalysisClient.send(daemon.getPort(), "ANALYSE test plantuml");
+        assertTrue(plantuml.startsWith("@startuml\n"));
+        assertTrue(plantuml.contains("component \"SomeController\" <<Spring MVC>> as c"));
+        assertTrue(plantuml.contains(" --> "));
+    }
+
+    @Test
+    public void test_invalidate_CausesTheConfigurationToBeAnalysedAgain() throws Exception {
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+        AnalysisClient.send(daemon.getPort(), "INVALIDATE test");
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+
+        assertEquals(2, numberOfAnalyses.get());
+    }
+
+    @Test
+    public void test_theResultIsDiscarded_WhenAClassFileChanges() throws Exception {
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+        Files.write(new File(classDirectory, "SomeClass.class").toPath(), new byte[0]);
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while (AnalysisClient.send(daemon.getPort(), "STATUS").startsWith("test\twarm") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+        assertEquals(2, numberOfAnalyses.get());
+    }
+
+    @Test
+    public void test_theResultsAreDiscarded_WhenAClassFileChangesInADirectoryWatchedByTwoConfigurations() throws Exception {
+        AtomicInteger numberOfOtherAnalyses = new AtomicInteger();
+        daemon.register("other", createConfiguration(numberOfOtherAnalyses));
+
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+        AnalysisClient.send(daemon.getPort(), "ANALYSE other");
+        Files.write(new File(classDirectory, "SomeClass.class").toPath(), new byte[0]);
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while (AnalysisClient.send(daemon.getPort(), "STATUS").contains("\twarm\t") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        AnalysisClient.send(daemon.getPort(), "ANALYSE test");
+        AnalysisClient.send(daemon.getPort(), "ANALYSE other");
+        assertEquals(2, numberOfAnalyses.get());
+        assertEquals(2, numberOfOtherAnalyses.get());
+    }
+
+    @Test
+    public void test_send_ThrowsAnException_WhenTheRequestIsNotValid() throws Exception {
+        assertError("Unknown configuration \"other\".", "ANALYSE other");
+        assertError("Unknown format \"svg\".", "ANALYSE test svg");
+        assertError("Unknown request \"HELLO\".", "HELLO");
+    }
+
+    private void assertError(String message, String request) {
+        try {
+            AnalysisClient.send(daemon.getPort(), request);
+            fail();
+        } catch (IOException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.structurizr.analysis.daemon;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AnalysisRunnerTests {
+
+    @Test
+    public void test_run_RendersTheComponentsFoundByTheTrainingConfiguration() throws Exception {
+        String output = AnalysisRunner.run(new TrainingConfiguration(), "components");
+
+        assertTrue(output.contains("component\tComponentFinder\tcom.structurizr.analysis.ComponentFinder\tJava\n"));
+        assertTrue(output.contains("component\tDefaultTypeRepository\tcom.structurizr.analysis.DefaultTypeRepository\tJava\n"));
+        assertTrue(output.contains("relationship\tComponentFinder\tDefaultTypeRepository\t\n"));
+    }
+
+    @Test
+    public void test_run_ThrowsAnException_WhenTheFormatIsUnknown() throws Exception {
+        try {
+            AnalysisRunner.run(new TrainingConfiguration(), "svg");
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Unknown format \"svg\".", iae.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,7 @@
+package test.AnalysisDaemon;
+
+public class SomeController {
+
+    private SomeRepository someRepository;
+
+}
@@ -0,0 +1,4 @@
+package test.AnalysisDaemon;
+
+public class SomeRepository {
+}
@@ -0,0 +1,87 @@
+package com.structurizr.diff;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single difference between two workspaces.
+ */
+public final class Change {
+
+    /**
+     * What happened to the item.
+     */
+    public enum Type {
+        ADDED,
+        REMOVED,
+        MODIFIED
+    }
+
+    /**
+     * The kind of item that changed.
+     */
+    public enum Kind {
+        ELEMENT,
+        RELATIONSHIP,
+        VIEW,
+        VIEW_ELEMENT,
+        VIEW_RELATIONSHIP
+    }
+
+    private final Type type;
+    private final Kind kind;
+    private final String key;
+    private final String viewKey;
+    private final List<String> fields;
+
+    Change(Type type, Kind kind, String key, String viewKey, List<String> fields) {
+        this.type = type;
+        this.kind = kind;
+        this.key = key;
+        this.viewKey = viewKey;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the key of the item that changed: the canonical name of an element, "source -> destination : description"
+     * (using canonical names) for a relationship, or the key of a view.
+     *
+     * @return  the key, as a String
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the key of the view that an element or relationship was added to or removed from.
+     *
+     * @return  the key of a view, or null if this isn't a change to the contents of a view
+     */
+    public String getViewKey() {
+        return viewKey;
+    }
+
+    /**
+     * Gets the names of the fields that were modified (e.g. "description", "tags").
+     *
+     * @return  a List of field names, which is empty unless the item was modified
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return type + "\t" + kind + "\t" + (viewKey != null ? viewKey + "\t" : "") + key +
+                (fields.isEmpty() ? "" : "\t" + String.join(",", fields));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.structurizr.diff;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The changes between two workspaces, ordered by kind (elements, relationships, views, then view contents)
+ * and then by key.
+ */
+public final class ChangeSet {
+
+    private final List<Change> changes;
+
+    ChangeSet(List<Change> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the changes to one kind of item.
+     *
+     * @param kind  the kind of item (e.g. Change.Kind.ELEMENT)
+     * @return  a List of Change objects
+     */
+    public List<Change> getChanges(Change.Kind kind) {
+        return changes.stream().filter(c -> c.getKind() == kind).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the changes of one type to one kind of item.
+     *
+     * @param type  the type of change (e.g. Change.Type.ADDED)
+     * @param kind  the kind of item (e.g. Change.Kind.ELEMENT)
+     * @return  a List of Change objects
+     */
+    public List<Change> getChanges(Change.Type type, Change.Kind kind) {
+        return changes.stream().filter(c -> c.getType() == type && c.getKind() == kind).collect(Collectors.toList());
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Lists the changes, one per line (tab separated).
+     *
+     * @return  a String
+     */
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        for (Change change : changes) {
+            buf.append(change).append('\n');
+        }
+
+        return buf.toString();
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.structurizr.diff;
+
+import com.structurizr.model.*;
+import com.structurizr.view.ElementView;
+import com.structurizr.view.RelationshipView;
+import com.structurizr.view.View;
+
+import java.util.*;
+
+/**
+ * Computes the signatures of elements, relationships and views. A signature is an array of 64-bit hashes,
+ * one per field, so that two signatures can be compared in constant time, and the fields that differ
+ * can be named without keeping the original values.
+ */
+final class Signatures {
+
+    static final String[] ELEMENT_FIELDS = { "description", "technology", "url", "tags", "properties", "location", "instances", "code" };
+    static final String[] RELATIONSHIP_FIELDS = { "technology", "interactionStyle", "url", "tags", "properties" };
+    static final String[] VIEW_FIELDS = { "type", "name", "title", "description", "elements", "relationships" };
+
+    static final int VIEW_ELEMENTS = 4;
+    static final int VIEW_RELATIONSHIPS = 5;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+    private Signatures() {
+    }
+
+    static long[] of(Element element) {
+        String technology = null;
+        String location = null;
+        long instances = 0;
+        long code = 0;
+
+        if (element instanceof Person) {
+            location = String.valueOf(((Person)element).getLocation());
+        } else if (element instanceof SoftwareSystem) {
+            location = String.valueOf(((SoftwareSystem)element).getLocation());
+        } else if (element instanceof Container) {
+            technology = ((Container)element).getTechnology();
+        } else if (element instanceof Component) {
+            Component component = (Component)element;
+            technology = component.getTechnology();
+
+            for (CodeElement codeElement : component.getCode()) {
+                code += mix(hash(codeElement.getType()) * 31 + hash(String.valueOf(codeElement.getRole())));
+            }
+            code = code * 31 + component.getSize();
+        } else if (element instanceof DeploymentNode) {
+            technology = ((DeploymentNode)element).getTechnology();
+            instances = ((DeploymentNode)element).getInstances();
+        }
+
+        return new long[] {
+                hash(element.getDescription()),
+                hash(technology),
+                hash(element.getUrl()),
+                unordered(element.getTagsAsSet()),
+                properties(element.getProperties()),
+                hash(location),
+                instances,
+                code
+        };
+    }
+
+    static long[] of(Relationship relationship) {
+        return new long[] {
+                hash(relationship.getTechnology()),
+                hash(String.valueOf(relationship.getInteractionStyle())),
+                hash(relationship.getUrl()),
+                unordered(relationship.getTagsAsSet()),
+                properties(relationship.getProperties())
+        };
+    }
+
+    static long[] of(View view) {
+        return new long[] {
+                hash(view.getClass().getSimpleName()),
+                hash(view.getName()),
+                hash(view.getTitle()),
+                hash(view.getDescription()),
+                unordered(elementsIn(view)),
+                unordered(relationshipsIn(view))
+        };
+    }
+
+    /**
+     * Gets the key of a relationship, which is unique within a model (there can be more than one relationship
+     * between two elements, but only with different descriptions).
+     */
+    static String keyOf(Relationship relationship) {
+        return relationship.getSource().getCanonicalName() + " -> " + relationship.getDestination().getCanonicalName() +
+                " : " + (relationship.getDescription() != null ? relationship.getDescription() : "");
+    }
+
+    static Set<String> elementsIn(View view) {
+        Set<String> elements = new HashSet<>();
+        for (ElementView elementView : view.getElements()) {
+            elements.add(elementView.getElement().getCanonicalName());
+        }
+
+        return elements;
+    }
+
+    static Set<String> relationshipsIn(View view) {
+        Set<String> relationships = new HashSet<>();
+        for (RelationshipView relationshipView : view.getRelationships()) {
+            String key = keyOf(relationshipView.getRelationship());
+
+            // the same relationship can appear more than once in a dynamic view, at different points
+            if (relationshipView.getOrder() != null && !relationshipView.getOrder().isEmpty()) {
+                key = relationshipView.getOrder() + ". " + key;
+            }
+            relationships.add(key);
+        }
+
+        return relationships;
+    }
+
+    private static long properties(Map<String, String> properties) {
+        long hash = 0;
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            hash += mix(hash(property.getKey()) * 31 + hash(property.getValue()));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Hashes a collection of strings, independently of the order in which they are iterated.
+     */
+    private static long unordered(Collection<String> strings) {
+        long hash = 0;
+        for (String s : strings) {
+            hash += mix(hash(s));
+        }
+
+        return hash;
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the characters in a string.
+     */
+    static long hash(String s) {
+        if (s == null) {
+            return NULL_HASH;
+        }
+
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Scrambles the bits of a hash (the SplitMix64 finalizer), so that summing hashes doesn't lose information.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+}
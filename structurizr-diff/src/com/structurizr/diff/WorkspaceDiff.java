@@ -0,0 +1,146 @@
+package com.structurizr.diff;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Element;
+import com.structurizr.model.Relationship;
+import com.structurizr.view.View;
+
+import java.util.*;
+
+/**
+ * Compares two workspaces (e.g. before and after a pull request), to find the elements, relationships and views
+ * that have been added, removed or modified.
+ *
+ * Elements are matched by canonical name, relationships by the canonical names of their source and destination
+ * plus their description, and views by key, so the IDs in the two workspaces don't need to match. Each item is
+ * reduced to a signature of per-field hashes, and the signatures are compared via hash maps, so the time taken
+ * is linear in the size of the workspaces (plus sorting the changes that are found).
+ */
+public final class WorkspaceDiff {
+
+    private WorkspaceDiff() {
+    }
+
+    /**
+     * Compares two workspaces.
+     *
+     * @param before    the Workspace before the change
+     * @param after     the Workspace after the change
+     * @return  a ChangeSet
+     */
+    public static ChangeSet compare(Workspace before, Workspace after) {
+        if (before == null || after == null) {
+            throw new IllegalArgumentException("Two workspaces must be specified.");
+        }
+
+        List<Change> changes = new ArrayList<>();
+
+        compare(Change.Kind.ELEMENT, elementSignatures(before), elementSignatures(after), Signatures.ELEMENT_FIELDS, changes);
+        compare(Change.Kind.RELATIONSHIP, relationshipSignatures(before), relationshipSignatures(after), Signatures.RELATIONSHIP_FIELDS, changes);
+
+        Map<String, View> viewsBefore = views(before);
+        Map<String, View> viewsAfter = views(after);
+        Map<String, long[]> viewSignaturesBefore = viewSignatures(viewsBefore);
+        Map<String, long[]> viewSignaturesAfter = viewSignatures(viewsAfter);
+        compare(Change.Kind.VIEW, viewSignaturesBefore, viewSignaturesAfter, Signatures.VIEW_FIELDS, changes);
+
+        // the contents of views that exist on both sides are only compared item by item when their hashes differ
+        for (Map.Entry<String, long[]> entry : viewSignaturesBefore.entrySet()) {
+            String key = entry.getKey();
+            long[] signatureAfter = viewSignaturesAfter.get(key);
+            if (signatureAfter == null) {
+                continue;
+            }
+
+            long[] signatureBefore = entry.getValue();
+            if (signatureBefore[Signatures.VIEW_ELEMENTS] != signatureAfter[Signatures.VIEW_ELEMENTS]) {
+                compare(Change.Kind.VIEW_ELEMENT, Signatures.elementsIn(viewsBefore.get(key)), Signatures.elementsIn(viewsAfter.get(key)), key, changes);
+            }
+            if (signatureBefore[Signatures.VIEW_RELATIONSHIPS] != signatureAfter[Signatures.VIEW_RELATIONSHIPS]) {
+                compare(Change.Kind.VIEW_RELATIONSHIP, Signatures.relationshipsIn(viewsBefore.get(key)), Signatures.relationshipsIn(viewsAfter.get(key)), key, changes);
+            }
+        }
+
+        changes.sort(Comparator
+                .comparing(Change::getKind)
+                .thenComparing(c -> c.getViewKey() != null ? c.getViewKey() : "")
+                .thenComparing(Change::getKey)
+                .thenComparing(Change::getType));
+
+        return new ChangeSet(changes);
+    }
+
+    private static Map<String, long[]> elementSignatures(Workspace workspace) {
+        Map<String, long[]> signatures = new HashMap<>();
+        for (Element element : workspace.getModel().getElements()) {
+            signatures.put(element.getCanonicalName(), Signatures.of(element));
+        }
+
+        return signatures;
+    }
+
+    private static Map<String, long[]> relationshipSignatures(Workspace workspace) {
+        Map<String, long[]> signatures = new HashMap<>();
+        for (Relationship relationship : workspace.getModel().getRelationships()) {
+            signatures.put(Signatures.keyOf(relationship), Signatures.of(relationship));
+        }
+
+        return signatures;
+    }
+
+    private static Map<String, View> views(Workspace workspace) {
+        Map<String, View> views = new HashMap<>();
+        for (View view : workspace.getViews().getViews()) {
+            views.put(view.getKey(), view);
+        }
+
+        return views;
+    }
+
+    private static Map<String, long[]> viewSignatures(Map<String, View> views) {
+        Map<String, long[]> signatures = new HashMap<>();
+        for (Map.Entry<String, View> entry : views.entrySet()) {
+            signatures.put(entry.getKey(), Signatures.of(entry.getValue()));
+        }
+
+        return signatures;
+    }
+
+    private static void compare(Change.Kind kind, Map<String, long[]> before, Map<String, long[]> after, String[] fieldNames, List<Change> changes) {
+        for (Map.Entry<String, long[]> entry : before.entrySet()) {
+            long[] signatureAfter = after.get(entry.getKey());
+            if (signatureAfter == null) {
+                changes.add(new Change(Change.Type.REMOVED, kind, entry.getKey(), null, Collections.emptyList()));
+            } else if (!Arrays.equals(entry.getValue(), signatureAfter)) {
+                List<String> fields = new ArrayList<>();
+                for (int i = 0; i < fieldNames.length; i++) {
+                    if (entry.getValue()[i] != signatureAfter[i]) {
+                        fields.add(fieldNames[i]);
+                    }
+                }
+                changes.add(new Change(Change.Type.MODIFIED, kind, entry.getKey(), null, fields));
+            }
+        }
+
+        for (String key : after.keySet()) {
+            if (!before.containsKey(key)) {
+                changes.add(new Change(Change.Type.ADDED, kind, key, null, Collections.emptyList()));
+            }
+        }
+    }
+
+    private static void compare(Change.Kind kind, Set<String> before, Set<String> after, String viewKey, List<Change> changes) {
+        for (String key : before) {
+            if (!after.contains(key)) {
+                changes.add(new Change(Change.Type.REMOVED, kind, key, viewKey, Collections.emptyList()));
+            }
+        }
+
+        for (String key : after) {
+            if (!before.contains(key)) {
+                changes.add(new Change(Change.Type.ADDED, kind, key, viewKey, Collections.emptyList()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.structurizr.diff;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Container;
+import com.structurizr.model.Person;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.view.ContainerView;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+public class WorkspaceDiffTests {
+
+    private Workspace createWorkspace() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User", "A user.");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System", "A software system.");
+        Container webApplication = softwareSystem.addContainer("Web Application", "Serves pages.", "Java");
+        Container database = softwareSystem.addContainer("Database", "Stores data.", "PostgreSQL");
+        user.uses(webApplication, "Uses");
+        webApplication.uses(database, "Reads from and writes to", "JDBC");
+
+        ContainerView view = workspace.getViews().createContainerView(softwareSystem, "Containers", "The containers.");
+        view.addAllElements();
+
+        return workspace;
+    }
+
+    @Test
+    public void test_compare_ReturnsNoChanges_WhenTheWorkspacesAreTheSame() {
+        ChangeSet changeSet = WorkspaceDiff.compare(createWorkspace(), createWorkspace());
+
+        assertTrue(changeSet.isEmpty());
+    }
+
+    @Test
+    public void test_compare_FindsAddedRemovedAndModifiedItems() {
+        Workspace before = createWorkspace();
+        Workspace after = createWorkspace();
+
+        SoftwareSystem softwareSystem = after.getModel().getSoftwareSystemWithName("Software System");
+        Container webApplication = softwareSystem.getContainerWithName("Web Application");
+        webApplication.setDescription("Serves pages and an API.");
+        webApplication.addTags("Web");
+        Container cache = softwareSystem.addContainer("Cache", "Caches data.", "Redis");
+        webApplication.uses(cache, "Reads from");
+
+        ContainerView view = (ContainerView)after.getViews().getViews().iterator().next();
+        view.remove(after.getModel().getPersonWithName("User"));
+        view.add(cache);
+
+        ChangeSet changeSet = WorkspaceDiff.compare(before, after);
+
+        List<Change> elements = changeSet.getChanges(Change.Kind.ELEMENT);
+        assertEquals(2, elements.size());
+        assertEquals("ADDED\tELEMENT\t/Software System/Cache", elements.get(0).toString());
+        assertEquals(Change.Type.MODIFIED, elements.get(1).getType());
+        assertEquals("/Software System/Web Application", elements.get(1).getKey());
+        assertEquals(asList("description", "tags"), elements.get(1).getFields());
+
+        List<Change> relationships = changeSet.getChanges(Change.Kind.RELATIONSHIP);
+        assertEquals(1, relationships.size());
+        assertEquals("/Software System/Web Application -> /Software System/Cache : Reads from", relationships.get(0).getKey());
+
+        List<Change> views = changeSet.getChanges(Change.Kind.VIEW);
+        assertEquals(1, views.size());
+        assertEquals(asList("elements", "relationships"), views.get(0).getFields());
+
+        assertEquals(2, changeSet.getChanges(Change.Kind.VIEW_ELEMENT).size());
+        assertEquals(singletonList("/User"), keys(changeSet.getChanges(Change.Type.REMOVED, Change.Kind.VIEW_ELEMENT)));
+        assertEquals(singletonList("/Software System/Cache"), keys(changeSet.getChanges(Change.Type.ADDED, Change.Kind.VIEW_ELEMENT)));
+        assertEquals("Containers", changeSet.getChanges(Change.Kind.VIEW_ELEMENT).get(0).getViewKey());
+
+        assertEquals(asList("/User -> /Software System/Web Application : Uses"), keys(changeSet.getChanges(Change.Type.REMOVED, Change.Kind.VIEW_RELATIONSHIP)));
+        assertEquals(asList("/Software System/Web Application -> /Software System/Cache : Reads from"), keys(changeSet.getChanges(Change.Type.ADDED, Change.Kind.VIEW_RELATIONSHIP)));
+    }
+
+    @Test
+    public void test_compare_FindsASingleChange_WhenTheWorkspacesHaveManyElements() {
+        Workspace before = new Workspace("Name", "Description");
+        Workspace after = new Workspace("Name", "Description");
+        for (Workspace workspace : asList(before, after)) {
+            Container container = workspace.getModel().addSoftwareSystem("Software System", "").addContainer("Container", "", "");
+            for (int i = 0; i < 500; i++) {
+                container.addComponent("Component " + i, "", "");
+            }
+        }
+        after.getModel().getSoftwareSystemWithName("Software System").getContainerWithName("Container").getComponentWithName("Component 345").setDescription("Changed");
+
+        ChangeSet changeSet = WorkspaceDiff.compare(before, after);
+
+        assertEquals(1, changeSet.size());
+        assertEquals("MODIFIED\tELEMENT\t/Software System/Container/Component 345\tdescription", changeSet.getChanges().get(0).toString());
+    }
+
+    private List<String> keys(List<Change> changes) {
+        return changes.stream().map(Change::getKey).collect(Collectors.toList());
+    }
+
+}
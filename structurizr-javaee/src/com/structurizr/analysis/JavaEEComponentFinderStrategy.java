@@ -1,17 +1,38 @@
 package com.structurizr.analysis;
 
+import com.structurizr.model.CodeElement;
 import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
-import javax.ejb.Singleton;
-import javax.ejb.Stateful;
-import javax.ejb.Stateless;
-import javax.inject.Named;
-import javax.websocket.server.ServerEndpoint;
-import javax.ws.rs.Path;
-import java.util.HashSet;
-import java.util.Set;
+import javax.ejb.EJB;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.lang.reflect.*;
+import java.util.*;
 
-public class JavaEEComponentFinderStrategy extends AbstractComponentFinderStrategy {
+/**
+ * <p>
+ *     This component finder strategy finds Java EE components: JAX-RS resources and providers, websocket endpoints,
+ *     JAX-WS endpoints, servlets, session beans (stateless, stateful and singleton), message-driven beans
+ *     and named (CDI) beans. The types are classified in a single pass, reading the annotations of each type once;
+ *     a type with more than one of these annotations is classified by the first in that list.
+ * </p>
+ *
+ * <p>
+ *     By default, dependencies between components are found by following the types referenced in the bytecode,
+ *     as with other strategies. Alternatively, passing true to {@link #setInjectionPointDependencies(boolean)}
+ *     finds dependencies from the fields, constructors and methods annotated @Inject or @EJB instead, which is
+ *     quicker and more precise for large applications wired by the container.
+ * </p>
+ */
+public class JavaEEComponentFinderStrategy extends AbstractComponentFinderStrategy implements ConcurrentComponentFinderStrategy {
+
+    private static final Log log = LogFactory.getLog(JavaEEComponentFinderStrategy.class);
+
+    private boolean injectionPointDependencies = false;
 
     public JavaEEComponentFinderStrategy() {
         super(new FirstImplementationOfInterfaceSupportingTypesStrategy());
@@ -23,16 +44,203 @@ public class JavaEEComponentFinderStrategy extends AbstractComponentFinderStrate
 
     @Override
     protected Set<Component> doFindComponents() {
-        Set<Component> components = new HashSet<>();
+        return addComponents(proposeComponents());
+    }
+
+    @Override
+    public List<ComponentProposal> proposeComponents() {
+        Map<JavaEEStereotype, List<ComponentProposal>> proposalsByStereotype = new EnumMap<>(JavaEEStereotype.class);
+        for (Class<?> type : getTypeRepository().getTypes()) {
+            JavaEEStereotype stereotype = classify(type);
+            if (stereotype != null) {
+                proposalsByStereotype.computeIfAbsent(stereotype, s -> new ArrayList<>()).add(new ComponentProposal(
+                        type.getSimpleName(),
+                        type.getCanonicalName(),
+                        "",
+                        stereotype.getTechnology()));
+            }
+        }
+
+        List<ComponentProposal> proposals = new ArrayList<>();
+        proposalsByStereotype.values().forEach(proposals::addAll);
+
+        return proposals;
+    }
+
+    private JavaEEStereotype classify(Class<?> type) {
+        try {
+            return JavaEEStereotype.of(type);
+        } catch (LinkageError | TypeNotPresentException e) {
+            log.debug("The annotations of " + type.getName() + " could not be read ... ignoring.");
+            return null;
+        }
+    }
+
+    @Override
+    protected void findDependencies() {
+        if (injectionPointDependencies) {
+            findInjectionPointDependencies();
+        } else {
+            super.findDependencies();
+        }
+    }
+
+    /**
+     * Adds a relationship from each component to the components injected into its code elements.
+     */
+    private void findInjectionPointDependencies() {
+        Container container = componentFinder.getContainer();
+        AnalysisMonitor monitor = componentFinder.getMonitor();
+        Set<Component> components = container.getComponents();
+        Map<String, Component> componentsByType = indexComponentsByType(components);
+
+        Map<Component, Set<Component>> dependencies = new LinkedHashMap<>();
+        int componentsAnalysed = 0;
+        for (Component component : components) {
+            monitor.checkpoint();
+            monitor.progress(ProgressListener.Phase.FINDING_DEPENDENCIES, componentsAnalysed++, components.size());
+
+            Set<Component> destinations = new LinkedHashSet<>();
+            for (CodeElement codeElement : component.getCode()) {
+                Class<?> type = loadClass(codeElement.getType());
+                if (type != null) {
+                    for (Class<?> injectedType : findInjectedTypes(type)) {
+                        Component destination = componentsByType.get(injectedType.getName());
+                        if (destination != null && destination != component) {
+                            destinations.add(destination);
+                        }
+                    }
+                }
+            }
+            dependencies.put(component, destinations);
+        }
+
+        DependencyFinder.addRelationships(dependencies);
+        monitor.progress(ProgressListener.Phase.FINDING_DEPENDENCIES, components.size(), components.size());
+    }
+
+    /**
+     * Maps each code element type, and the interfaces it implements, to its component. Interfaces implemented by
+     * the code of more than one component are ambiguous as injection points, so they aren't mapped.
+     */
+    private Map<String, Component> indexComponentsByType(Set<Component> components) {
+        Map<String, Component> componentsByType = new HashMap<>();
+        Map<String, Component> componentsByInterface = new HashMap<>();
+        Set<String> ambiguousInterfaces = new HashSet<>();
 
-        components.addAll(findClassesWithAnnotation(Path.class, "JAX-RS web service"));
-        components.addAll(findClassesWithAnnotation(ServerEndpoint.class, "Websocket endpoint"));
-        components.addAll(findClassesWithAnnotation(Stateless.class, "Stateless session bean"));
-        components.addAll(findClassesWithAnnotation(Stateful.class, "Stateful session bean"));
-        components.addAll(findClassesWithAnnotation(Singleton.class, "Singleton session bean"));
-        components.addAll(findClassesWithAnnotation(Named.class, "Named bean"));
+        for (Component component : components) {
+            for (CodeElement codeElement : component.getCode()) {
+                Class<?> type = loadClass(codeElement.getType());
+                if (type == null) {
+                    continue;
+                }
+
+                componentsByType.putIfAbsent(type.getName(), component);
+                for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Class<?> interfaceType : c.getInterfaces()) {
+                        Component existing = componentsByInterface.putIfAbsent(interfaceType.getName(), component);
+                        if (existing != null && existing != component) {
+                            ambiguousInterfaces.add(interfaceType.getName());
+                        }
+                    }
+                }
+            }
+        }
+
+        componentsByInterface.keySet().removeAll(ambiguousInterfaces);
+        componentsByInterface.forEach(componentsByType::putIfAbsent);
+
+        return componentsByType;
+    }
+
+    /**
+     * Finds the types injected into the fields, constructors and methods (annotated @Inject or @EJB)
+     * declared by the specified type and its superclasses.
+     */
+    private Set<Class<?>> findInjectedTypes(Class<?> type) {
+        Set<Class<?>> injectedTypes = new LinkedHashSet<>();
+
+        try {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    EJB ejb = field.getAnnotation(EJB.class);
+                    if (ejb != null && ejb.beanInterface() != Object.class) {
+                        injectedTypes.add(ejb.beanInterface());
+                    } else if (ejb != null || field.isAnnotationPresent(Inject.class)) {
+                        addInjectedType(field.getType(), field.getGenericType(), injectedTypes);
+                    }
+                }
+
+                for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+                    if (constructor.isAnnotationPresent(Inject.class)) {
+                        addInjectedTypes(constructor.getParameterTypes(), constructor.getGenericParameterTypes(), injectedTypes);
+                    }
+                }
+
+                for (Method method : c.getDeclaredMethods()) {
+                    EJB ejb = method.getAnnotation(EJB.class);
+                    if (ejb != null && ejb.beanInterface() != Object.class) {
+                        injectedTypes.add(ejb.beanInterface());
+                    } else if (ejb != null || method.isAnnotationPresent(Inject.class)) {
+                        addInjectedTypes(method.getParameterTypes(), method.getGenericParameterTypes(), injectedTypes);
+                    }
+                }
+            }
+        } catch (LinkageError | TypeNotPresentException e) {
+            log.warn("The injection points of " + type.getName() + " could not be read: " + e);
+        }
+
+        return injectedTypes;
+    }
+
+    private void addInjectedTypes(Class<?>[] types, Type[] genericTypes, Set<Class<?>> injectedTypes) {
+        for (int i = 0; i < types.length; i++) {
+            addInjectedType(types[i], i < genericTypes.length ? genericTypes[i] : types[i], injectedTypes);
+        }
+    }
+
+    /**
+     * Adds the type of an injection point, unwrapping Instance&lt;T&gt; and Provider&lt;T&gt;.
+     */
+    private void addInjectedType(Class<?> type, Type genericType, Set<Class<?>> injectedTypes) {
+        if ((type == Instance.class || type == Provider.class) && genericType instanceof ParameterizedType) {
+            Type typeArgument = ((ParameterizedType)genericType).getActualTypeArguments()[0];
+            if (typeArgument instanceof Class) {
+                injectedTypes.add((Class<?>)typeArgument);
+            } else if (typeArgument instanceof ParameterizedType && ((ParameterizedType)typeArgument).getRawType() instanceof Class) {
+                injectedTypes.add((Class<?>)((ParameterizedType)typeArgument).getRawType());
+            }
+        } else {
+            injectedTypes.add(type);
+        }
+    }
+
+    private Class<?> loadClass(String typeName) {
+        try {
+            return getTypeRepository().loadClass(typeName);
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.warn("Could not load " + typeName + " ... ignoring.");
+            return null;
+        }
+    }
+
+    /**
+     * Determines whether dependencies between components are found from @Inject and @EJB injection points.
+     *
+     * @return  true if injection points are used, false if the referenced types are followed (the default)
+     */
+    public boolean isInjectionPointDependencies() {
+        return injectionPointDependencies;
+    }
 
-        return components;
+    /**
+     * Sets whether dependencies between components are found from the fields, constructors and methods
+     * annotated @Inject or @EJB, rather than by following the types referenced in the bytecode.
+     *
+     * @param injectionPointDependencies    true to use injection points, false to follow the referenced types
+     */
+    public void setInjectionPointDependencies(boolean injectionPointDependencies) {
+        this.injectionPointDependencies = injectionPointDependencies;
     }
 
 }
@@ -0,0 +1,72 @@
+package com.structurizr.analysis;
+
+import javax.ejb.MessageDriven;
+import javax.ejb.Singleton;
+import javax.ejb.Stateful;
+import javax.ejb.Stateless;
+import javax.inject.Named;
+import javax.jws.WebService;
+import javax.servlet.annotation.WebServlet;
+import javax.websocket.server.ServerEndpoint;
+import javax.ws.rs.Path;
+import javax.ws.rs.ext.Provider;
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Java EE annotations that identify components, in order of precedence (a type with more than one of these
+ * annotations is classified by the first).
+ */
+enum JavaEEStereotype {
+
+    JAX_RS_RESOURCE(Path.class, "JAX-RS web service"),
+    JAX_RS_PROVIDER(Provider.class, "JAX-RS provider"),
+    WEBSOCKET_ENDPOINT(ServerEndpoint.class, "Websocket endpoint"),
+    JAX_WS_ENDPOINT(WebService.class, "JAX-WS web service"),
+    SERVLET(WebServlet.class, "Servlet"),
+    STATELESS_SESSION_BEAN(Stateless.class, "Stateless session bean"),
+    STATEFUL_SESSION_BEAN(Stateful.class, "Stateful session bean"),
+    SINGLETON_SESSION_BEAN(Singleton.class, "Singleton session bean"),
+    MESSAGE_DRIVEN_BEAN(MessageDriven.class, "Message-driven bean"),
+    NAMED_BEAN(Named.class, "Named bean");
+
+    private static final Map<Class<? extends Annotation>, JavaEEStereotype> BY_ANNOTATION = new HashMap<>();
+
+    static {
+        for (JavaEEStereotype stereotype : values()) {
+            BY_ANNOTATION.put(stereotype.annotation, stereotype);
+        }
+    }
+
+    private final Class<? extends Annotation> annotation;
+    private final String technology;
+
+    JavaEEStereotype(Class<? extends Annotation> annotation, String technology) {
+        this.annotation = annotation;
+        this.technology = technology;
+    }
+
+    String getTechnology() {
+        return technology;
+    }
+
+    /**
+     * Classifies a type by reading its annotations once, and looking each up.
+     *
+     * @param type  a Class object
+     * @return  the stereotype with the highest precedence, or null if the type isn't a Java EE component
+     */
+    static JavaEEStereotype of(Class<?> type) {
+        JavaEEStereotype result = null;
+        for (Annotation annotation : type.getAnnotations()) {
+            JavaEEStereotype stereotype = BY_ANNOTATION.get(annotation.annotationType());
+            if (stereotype != null && (result == null || stereotype.ordinal() < result.ordinal())) {
+                result = stereotype;
+            }
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.structurizr.analysis;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Model;
+import com.structurizr.model.SoftwareSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JavaEEComponentFinderStrategyTests {
+
+    private static final String STEREOTYPES_PACKAGE = "test.JavaEEComponentFinderStrategy.stereotypes";
+    private static final String INJECTION_PACKAGE = "test.JavaEEComponentFinderStrategy.injection";
+
+    private Container container;
+
+    @Before
+    public void setUp() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Model model = workspace.getModel();
+        SoftwareSystem softwareSystem = model.addSoftwareSystem("Name", "Description");
+        container = softwareSystem.addContainer("Name", "Description", "Technology");
+    }
+
+    @Test
+    public void test_findComponents_FindsAllJavaEEStereotypes() throws Exception {
+        new ComponentFinder(container, STEREOTYPES_PACKAGE, new JavaEEComponentFinderStrategy()).findComponents();
+
+        assertEquals(10, container.getComponents().size());
+        assertComponent("SomeResource", "JAX-RS web service");
+        assertComponent("SomeProvider", "JAX-RS provider");
+        assertComponent("SomeEndpoint", "Websocket endpoint");
+        assertComponent("SomeWebService", "JAX-WS web service");
+        assertComponent("SomeServlet", "Servlet");
+        assertComponent("SomeStatelessBean", "Stateless session bean");
+        assertComponent("SomeStatefulBean", "Stateful session bean");
+        assertComponent("SomeSingletonBean", "Singleton session bean");
+        assertComponent("SomeMessageDrivenBean", "Message-driven bean");
+        assertComponent("SomeNamedBean", "Named bean");
+        assertNull(container.getComponentWithName("SomeHelper"));
+    }
+
+    @Test
+    public void test_proposeComponents_OrdersComponentsByStereotypePrecedence() throws Exception {
+        JavaEEComponentFinderStrategy strategy = new JavaEEComponentFinderStrategy();
+        new ComponentFinder(container, STEREOTYPES_PACKAGE, strategy);
+        strategy.beforeFindComponents();
+
+        List<ComponentProposal> proposals = strategy.proposeComponents();
+        assertEquals(10, proposals.size());
+        assertEquals("SomeResource", proposals.get(0).getName());
+        assertEquals("SomeProvider", proposals.get(1).getName());
+        assertEquals("SomeEndpoint", proposals.get(2).getName());
+        assertEquals("SomeWebService", proposals.get(3).getName());
+        assertEquals("SomeServlet", proposals.get(4).getName());
+        assertEquals("SomeStatelessBean", proposals.get(5).getName());
+        assertEquals("SomeStatefulBean", proposals.get(6).getName());
+        assertEquals("SomeSingletonBean", proposals.get(7).getName());
+        assertEquals("SomeMessageDrivenBean", proposals.get(8).getName());
+        assertEquals("SomeNamedBean", proposals.get(9).getName());
+    }
+
+    @Test
+    public void test_of_ClassifiesByTheAnnotationWithTheHighestPrecedence() throws Exception {
+        // SomeResource is annotated @Path and @Stateless
+        assertEquals(JavaEEStereotype.JAX_RS_RESOURCE, JavaEEStereotype.of(Class.forName(STEREOTYPES_PACKAGE + ".SomeResource")));
+        assertNull(JavaEEStereotype.of(Class.forName(STEREOTYPES_PACKAGE + ".SomeHelper")));
+    }
+
+    @Test
+    public void test_findComponents_FollowsReferencedTypes_ByDefault() throws Exception {
+        JavaEEComponentFinderStrategy strategy = new JavaEEComponentFinderStrategy();
+        assertFalse(strategy.isInjectionPointDependencies());
+        new ComponentFinder(container, INJECTION_PACKAGE, strategy).findComponents();
+
+        // the inventory is referenced, but not injected
+        assertTrue(component("OrderResource").hasEfferentRelationshipWith(component("InventoryBean")));
+    }
+
+    @Test
+    public void test_findComponents_FindsDependenciesFromInjectionPoints_WhenInjectionPointDependenciesAreUsed() throws Exception {
+        JavaEEComponentFinderStrategy strategy = new JavaEEComponentFinderStrategy();
+        strategy.setInjectionPointDependencies(true);
+        new ComponentFinder(container, INJECTION_PACKAGE, strategy).findComponents();
+
+        Component orderResource = component("OrderResource");
+        assertEquals(3, orderResource.getRelationships().size());
+
+        // @Inject of an interface, resolved to the component that implements it
+        assertTrue(orderResource.hasEfferentRelationshipWith(component("OrderServiceBean")));
+
+        // @Inject of Provider<T>
+        assertTrue(orderResource.hasEfferentRelationshipWith(component("AuditLog")));
+
+        // @EJB(beanInterface = ...)
+        assertTrue(orderResource.hasEfferentRelationshipWith(component("PaymentServiceBean")));
+
+        // Notifier is implemented by two components, so it's ambiguous
+        assertFalse(orderResource.hasEfferentRelationshipWith(component("EmailNotifier")));
+        assertFalse(orderResource.hasEfferentRelationshipWith(component("SmsNotifier")));
+
+        // the inventory is referenced, but not injected
+        assertFalse(orderResource.hasEfferentRelationshipWith(component("InventoryBean")));
+
+        Component shippingBean = component("ShippingBean");
+        assertEquals(2, shippingBean.getRelationships().size());
+
+        // @Inject constructor, with Instance<T>
+        assertTrue(shippingBean.hasEfferentRelationshipWith(component("AuditLog")));
+
+        // @EJB setter method
+        assertTrue(shippingBean.hasEfferentRelationshipWith(component("InventoryBean")));
+    }
+
+    private Component component(String name) {
+        Component component = container.getComponentWithName(name);
+        assertNotNull("A component named " + name + " could not be found.", component);
+
+        return component;
+    }
+
+    private void assertComponent(String name, String technology) {
+        Component component = component(name);
+        assertEquals(STEREOTYPES_PACKAGE + "." + name, component.getType().getType());
+        assertEquals("", component.getDescription());
+        assertEquals(technology, component.getTechnology());
+    }
+
+}
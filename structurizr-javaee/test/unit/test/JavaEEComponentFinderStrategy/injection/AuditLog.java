@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.injection;
+
+import javax.inject.Named;
+
+@Named
+public class AuditLog {
+}
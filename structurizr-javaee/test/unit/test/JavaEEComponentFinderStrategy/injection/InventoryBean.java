@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.injection;
+
+import javax.ejb.Singleton;
+
+@Singleton
+public class InventoryBean {
+}
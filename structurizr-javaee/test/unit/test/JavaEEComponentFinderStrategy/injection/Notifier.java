@@ -0,0 +1,4 @@
+package test.JavaEEComponentFinderStrategy.injection;
+
+public interface Notifier {
+}
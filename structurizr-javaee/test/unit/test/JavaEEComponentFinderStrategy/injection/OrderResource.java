@@ -0,0 +1,26 @@
+package test.JavaEEComponentFinderStrategy.injection;
+
+import javax.ejb.EJB;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.ws.rs.Path;
+
+@Path("/orders")
+public class OrderResource {
+
+    @Inject
+    private OrderService orderService;
+
+    @Inject
+    private Provider<AuditLog> auditLog;
+
+    @EJB(beanInterface = PaymentService.class)
+    private Object paymentService;
+
+    @Inject
+    private Notifier notifier;
+
+    // not an injection point
+    private InventoryBean inventory = new InventoryBean();
+
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.injection;
+
+import javax.ejb.Stateless;
+
+@Stateless
+public class OrderServiceBean implements OrderService {
+}
@@ -0,0 +1,27 @@
+package test.JavaEEComponentFinderStrategy.injection;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+@Stateless
+public class ShippingBean {
+
+    private Instance<AuditLog> auditLog;
+    private InventoryBean inventory;
+
+    public ShippingBean() {
+    }
+
+    @Inject
+    public ShippingBean(Instance<AuditLog> auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @EJB
+    public void setInventory(InventoryBean inventory) {
+        this.inventory = inventory;
+    }
+
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.websocket.server.ServerEndpoint;
+
+@ServerEndpoint("/some")
+public class SomeEndpoint {
+}
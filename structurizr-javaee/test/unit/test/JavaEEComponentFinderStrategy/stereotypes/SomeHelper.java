@@ -0,0 +1,4 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+public class SomeHelper {
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.ejb.MessageDriven;
+
+@MessageDriven
+public class SomeMessageDrivenBean {
+}
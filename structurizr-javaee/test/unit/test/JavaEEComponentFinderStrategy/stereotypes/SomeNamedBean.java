@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.inject.Named;
+
+@Named
+public class SomeNamedBean {
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.ws.rs.ext.Provider;
+
+@Provider
+public class SomeProvider {
+}
@@ -0,0 +1,9 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.ejb.Stateless;
+import javax.ws.rs.Path;
+
+@Path("/some")
+@Stateless
+public class SomeResource {
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.servlet.annotation.WebServlet;
+
+@WebServlet("/some")
+public class SomeServlet {
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.ejb.Singleton;
+
+@Singleton
+public class SomeSingletonBean {
+}
@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.ejb.Stateful;
+
+@Stateful
+public class SomeStatefulBean {
+}
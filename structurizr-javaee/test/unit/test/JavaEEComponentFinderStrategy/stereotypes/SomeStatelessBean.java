@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.ejb.Stateless;
+
+@Stateless
+public class SomeStatelessBean {
+}
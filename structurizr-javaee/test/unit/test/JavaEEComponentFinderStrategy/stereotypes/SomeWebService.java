@@ -0,0 +1,7 @@
+package test.JavaEEComponentFinderStrategy.stereotypes;
+
+import javax.jws.WebService;
+
+@WebService
+public class SomeWebService {
+}
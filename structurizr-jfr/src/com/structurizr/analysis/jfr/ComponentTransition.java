@@ -0,0 +1,64 @@
+package com.structurizr.analysis.jfr;
+
+import com.structurizr.model.Component;
+
+/**
+ * Represents the transitions from one component to another, as observed in the stack traces of a flight recording.
+ */
+public final class ComponentTransition {
+
+    private final Component source;
+    private final Component destination;
+    private final long samples;
+    private final int depth;
+
+    ComponentTransition(Component source, Component destination, long samples, int depth) {
+        this.source = source;
+        this.destination = destination;
+        this.samples = samples;
+        this.depth = depth;
+    }
+
+    /**
+     * Gets the calling component.
+     *
+     * @return  a Component instance
+     */
+    public Component getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the called component.
+     *
+     * @return  a Component instance
+     */
+    public Component getDestination() {
+        return destination;
+    }
+
+    /**
+     * Gets the number of samples in which the source component was calling the destination component.
+     *
+     * @return  the number of samples
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets the shallowest position (counting components from the bottom of the stack) at which this transition was seen,
+     * which is used to order the steps in a dynamic view.
+     *
+     * @return  the depth, where 0 is the outermost component
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return source.getName() + " -> " + destination.getName() + " (" + samples + " samples)";
+    }
+
+}
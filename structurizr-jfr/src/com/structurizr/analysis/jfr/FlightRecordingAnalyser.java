@@ -0,0 +1,237 @@
+package com.structurizr.analysis.jfr;
+
+import com.structurizr.model.CodeElement;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Relationship;
+import com.structurizr.view.DynamicView;
+import com.structurizr.view.ViewSet;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * <p>
+ *     Derives the calls between components from the stack traces recorded by JDK Flight Recorder
+ *     (by default, those of the "jdk.ExecutionSample" events). The recording is read one event at a time,
+ *     and the frames of every stack trace are mapped to the components (and their supporting types) in
+ *     a container that has already been populated, for example by a ComponentFinder.
+ * </p>
+ *
+ * <p>
+ *     Frames that don't belong to a component (e.g. framework or proxy code) are skipped, so a stack trace
+ *     such as "SomeController -> (Spring AOP) -> SomeService" results in a SomeController to SomeService
+ *     transition. Each transition is counted at most once per stack trace.
+ * </p>
+ */
+public class FlightRecordingAnalyser {
+
+    public static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    public static final String SAMPLES_PROPERTY = "samples";
+
+    private static final int NOT_A_COMPONENT = -1;
+
+    private final Container container;
+    private final List<Component> components = new ArrayList<>();
+    private final Map<String, Integer> typeToComponent = new HashMap<>();
+    private final Map<String, Integer> classNameToComponent = new HashMap<>();
+
+    private Set<String> eventNames = new HashSet<>(Collections.singletonList(EXECUTION_SAMPLE));
+
+    /**
+     * Creates a new analyser for the components in the specified container.
+     *
+     * @param container     a Container, with components
+     */
+    public FlightRecordingAnalyser(Container container) {
+        if (container == null) {
+            throw new IllegalArgumentException("A container must be specified.");
+        }
+
+        this.container = container;
+
+        for (Component component : container.getComponents()) {
+            int index = components.size();
+            components.add(component);
+            for (CodeElement codeElement : component.getCode()) {
+                typeToComponent.putIfAbsent(codeElement.getType(), index);
+            }
+        }
+    }
+
+    /**
+     * Sets the names of the events whose stack traces should be analysed (the default is "jdk.ExecutionSample").
+     *
+     * @param eventNames    one or more event names
+     */
+    public void setEventNames(String... eventNames) {
+        if (eventNames == null || eventNames.length == 0) {
+            throw new IllegalArgumentException("One or more event names must be specified.");
+        }
+
+        this.eventNames = new HashSet<>(Arrays.asList(eventNames));
+    }
+
+    /**
+     * Analyses the specified flight recording.
+     *
+     * @param path          the path to a .jfr file
+     * @return              a List of ComponentTransition objects, ordered by depth and then by number of samples (descending)
+     * @throws IOException  if the recording can't be read
+     */
+    public List<ComponentTransition> analyse(Path path) throws IOException {
+        Map<Long, long[]> transitions = new HashMap<>();
+        int[] chain = new int[64];
+        long[] seen = new long[64];
+
+        try (RecordingFile recordingFile = new RecordingFile(path)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                if (!eventNames.contains(event.getEventType().getName())) {
+                    continue;
+                }
+
+                RecordedStackTrace stackTrace = event.getStackTrace();
+                if (stackTrace == null) {
+                    continue;
+                }
+
+                // frames are ordered from the top of the stack, so walk them backwards to find the collapsed component chain
+                List<RecordedFrame> frames = stackTrace.getFrames();
+                int length = 0;
+                for (int i = frames.size() - 1; i >= 0; i--) {
+                    int component = findComponent(frames.get(i));
+                    if (component != NOT_A_COMPONENT && (length == 0 || chain[length - 1] != component)) {
+                        if (length == chain.length) {
+                            chain = Arrays.copyOf(chain, length * 2);
+                            seen = Arrays.copyOf(seen, length * 2);
+                        }
+                        chain[length++] = component;
+                    }
+                }
+
+                int numberSeen = 0;
+                for (int i = 1; i < length; i++) {
+                    long key = ((long)chain[i - 1] << 32) | chain[i];
+                    if (contains(seen, numberSeen, key)) {
+                        continue;
+                    }
+                    seen[numberSeen++] = key;
+
+                    long[] counts = transitions.get(key);
+                    if (counts == null) {
+                        transitions.put(key, new long[] { 1, i - 1 });
+                    } else {
+                        counts[0]++;
+                        counts[1] = Math.min(counts[1], i - 1);
+                    }
+                }
+            }
+        }
+
+        List<ComponentTransition> result = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : transitions.entrySet()) {
+            int source = (int)(entry.getKey() >>> 32);
+            int destination = (int)(entry.getKey() & 0xffffffffL);
+            result.add(new ComponentTransition(components.get(source), components.get(destination), entry.getValue()[0], (int)entry.getValue()[1]));
+        }
+
+        result.sort(Comparator.comparingInt(ComponentTransition::getDepth)
+                .thenComparing(Comparator.comparingLong(ComponentTransition::getSamples).reversed())
+                .thenComparing(ComponentTransition::toString));
+
+        return result;
+    }
+
+    /**
+     * Adds a "samples" property to the relationships between components, creating relationships where they don't already exist.
+     *
+     * @param transitions       the transitions returned by {@link #analyse(Path)}
+     * @param minimumSamples    transitions with fewer samples than this are ignored
+     */
+    public void addRelationships(List<ComponentTransition> transitions, long minimumSamples) {
+        for (ComponentTransition transition : transitions) {
+            if (transition.getSamples() >= minimumSamples) {
+                Relationship relationship = findOrCreateRelationship(transition);
+                if (relationship != null) {
+                    relationship.addProperty(SAMPLES_PROPERTY, String.valueOf(transition.getSamples()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a dynamic view for the container, with one step per transition (ordered as returned by {@link #analyse(Path)}).
+     * Relationships are created where they don't already exist.
+     *
+     * @param views             the ViewSet to create the view in
+     * @param key               the key for the view
+     * @param description       the description of the view
+     * @param transitions       the transitions returned by {@link #analyse(Path)}
+     * @param maximumSteps      the maximum number of steps to include
+     * @return  a DynamicView
+     */
+    public DynamicView createDynamicView(ViewSet views, String key, String description, List<ComponentTransition> transitions, int maximumSteps) {
+        DynamicView view = views.createDynamicView(container, key, description);
+
+        int steps = 0;
+        for (ComponentTransition transition : transitions) {
+            if (steps == maximumSteps) {
+                break;
+            }
+
+            if (findOrCreateRelationship(transition) != null) {
+                view.add(transition.getSource(), transition.getSamples() + " samples", transition.getDestination());
+                steps++;
+            }
+        }
+
+        return view;
+    }
+
+    private Relationship findOrCreateRelationship(ComponentTransition transition) {
+        Relationship relationship = transition.getSource().getEfferentRelationshipWith(transition.getDestination());
+        if (relationship == null) {
+            relationship = transition.getSource().uses(transition.getDestination(), "");
+        }
+
+        return relationship;
+    }
+
+    private int findComponent(RecordedFrame frame) {
+        RecordedMethod method = frame.getMethod();
+        if (method == null || method.getType() == null) {
+            return NOT_A_COMPONENT;
+        }
+
+        String className = method.getType().getName();
+        Integer component = classNameToComponent.get(className);
+        if (component == null) {
+            // nested classes, lambdas and generated proxies are attributed to the outer type
+            int dollar = className.indexOf('$');
+            String typeName = dollar > -1 ? className.substring(0, dollar) : className;
+
+            component = typeToComponent.getOrDefault(typeName, NOT_A_COMPONENT);
+            classNameToComponent.put(className, component);
+        }
+
+        return component;
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
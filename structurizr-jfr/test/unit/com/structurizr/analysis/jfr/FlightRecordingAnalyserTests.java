@@ -0,0 +1,106 @@
+package com.structurizr.analysis.jfr;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.view.DynamicView;
+import jdk.jfr.Recording;
+import org.junit.Before;
+import org.junit.Test;
+import test.FlightRecordingAnalyser.MarkerEvent;
+import test.FlightRecordingAnalyser.SomeController;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FlightRecordingAnalyserTests {
+
+    private Workspace workspace;
+    private Container container;
+    private Component someController;
+    private Component someService;
+    private Component someRepository;
+    private Path recording;
+
+    @Before
+    public void setUp() throws Exception {
+        workspace = new Workspace("Name", "Description");
+        container = workspace.getModel().addSoftwareSystem("Name", "Description").addContainer("Name", "Description", "Technology");
+        someController = container.addComponent("SomeController", "test.FlightRecordingAnalyser.SomeController", "", "");
+        someService = container.addComponent("SomeService", "test.FlightRecordingAnalyser.SomeService", "", "");
+        someRepository = container.addComponent("SomeRepository", "test.FlightRecordingAnalyser.SomeRepository", "", "");
+
+        recording = Files.createTempFile("structurizr", ".jfr");
+        recording.toFile().deleteOnExit();
+
+        try (Recording r = new Recording()) {
+            r.enable(MarkerEvent.class).withStackTrace();
+            r.start();
+            new SomeController().handle();
+            r.stop();
+            r.dump(recording);
+        }
+    }
+
+    @Test
+    public void test_construction_ThrowsAnException_WhenANullContainerIsSpecified() {
+        try {
+            new FlightRecordingAnalyser(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("A container must be specified.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_analyse_FindsTransitionsBetweenComponents() throws Exception {
+        FlightRecordingAnalyser analyser = new FlightRecordingAnalyser(container);
+        analyser.setEventNames("test.Marker");
+        List<ComponentTransition> transitions = analyser.analyse(recording);
+
+        assertEquals(3, transitions.size());
+
+        // SomeController -> SomeService -> (lambda) -> SomeRepository, twice
+        assertTransition(transitions.get(0), someController, someService, 2, 0);
+        assertTransition(transitions.get(1), someController, someRepository, 1, 0);
+        assertTransition(transitions.get(2), someService, someRepository, 2, 1);
+    }
+
+    @Test
+    public void test_analyse_FindsNothing_WhenTheEventsHaveNotBeenRecorded() throws Exception {
+        FlightRecordingAnalyser analyser = new FlightRecordingAnalyser(container);
+        assertTrue(analyser.analyse(recording).isEmpty());
+    }
+
+    @Test
+    public void test_addRelationships() throws Exception {
+        FlightRecordingAnalyser analyser = new FlightRecordingAnalyser(container);
+        analyser.setEventNames("test.Marker");
+        analyser.addRelationships(analyser.analyse(recording), 2);
+
+        assertEquals("2", someController.getEfferentRelationshipWith(someService).getProperties().get("samples"));
+        assertEquals("2", someService.getEfferentRelationshipWith(someRepository).getProperties().get("samples"));
+        assertNull(someController.getEfferentRelationshipWith(someRepository));
+    }
+
+    @Test
+    public void test_createDynamicView() throws Exception {
+        FlightRecordingAnalyser analyser = new FlightRecordingAnalyser(container);
+        analyser.setEventNames("test.Marker");
+        DynamicView view = analyser.createDynamicView(workspace.getViews(), "key", "description", analyser.analyse(recording), 2);
+
+        assertEquals(2, view.getRelationships().size());
+        assertEquals(3, view.getElements().size());
+    }
+
+    private void assertTransition(ComponentTransition transition, Component source, Component destination, long samples, int depth) {
+        assertSame(source, transition.getSource());
+        assertSame(destination, transition.getDestination());
+        assertEquals(samples, transition.getSamples());
+        assertEquals(depth, transition.getDepth());
+    }
+
+}
@@ -0,0 +1,8 @@
+package test.FlightRecordingAnalyser;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+
+@Name("test.Marker")
+public class MarkerEvent extends Event {
+}
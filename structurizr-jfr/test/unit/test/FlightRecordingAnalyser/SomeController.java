@@ -0,0 +1,14 @@
+package test.FlightRecordingAnalyser;
+
+public class SomeController {
+
+    private SomeService someService = new SomeService();
+    private SomeRepository someRepository = new SomeRepository();
+
+    public void handle() {
+        someService.doSomething();
+        someService.doSomething();
+        someRepository.find();
+    }
+
+}
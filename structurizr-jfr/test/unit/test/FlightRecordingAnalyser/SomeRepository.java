@@ -0,0 +1,9 @@
+package test.FlightRecordingAnalyser;
+
+public class SomeRepository {
+
+    public void find() {
+        new MarkerEvent().commit();
+    }
+
+}
@@ -0,0 +1,12 @@
+package test.FlightRecordingAnalyser;
+
+public class SomeService {
+
+    private SomeRepository someRepository = new SomeRepository();
+
+    public void doSomething() {
+        Runnable runnable = () -> someRepository.find();
+        runnable.run();
+    }
+
+}
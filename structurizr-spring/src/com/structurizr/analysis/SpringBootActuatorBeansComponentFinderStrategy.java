@@ -0,0 +1,316 @@
+package com.structurizr.analysis;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ *     This component finder strategy builds components, and the dependencies between them, from the JSON
+ *     returned by the Spring Boot actuator beans endpoint (e.g. /actuator/beans). Since the bean types and
+ *     dependencies are read from the JSON document, no classpath scanning is performed, and the compiled
+ *     classes don't need to be available.
+ * </p>
+ *
+ * <p>
+ *     Both the Spring Boot 1.x (a JSON array of contexts) and the Spring Boot 2.x (a "contexts" JSON object)
+ *     formats are supported. The JSON can be read from a file, or from a URL (e.g. a locally running instance
+ *     of the application). Only beans whose type resides in one of the packages to be scanned by the parent
+ *     {@link ComponentFinder} are turned into components, and the exclusions are honoured.
+ * </p>
+ */
+public class SpringBootActuatorBeansComponentFinderStrategy implements ComponentFinderStrategy {
+
+    private static final Log log = LogFactory.getLog(SpringBootActuatorBeansComponentFinderStrategy.class);
+
+    public static final String SPRING_BEAN = "Spring Bean";
+
+    private static final String CGLIB_SEPARATOR = "$$";
+
+    private ComponentFinder componentFinder;
+    private URL url;
+    private DuplicateComponentStrategy duplicateComponentStrategy = new ThrowExceptionDuplicateComponentStrategy();
+
+    private Set<Component> componentsFound = new HashSet<>();
+    private Map<String, Bean> beansByName = new LinkedHashMap<>();
+
+    /**
+     * Creates a new strategy that reads the beans from the specified file.
+     *
+     * @param file  a File containing the JSON returned by the actuator beans endpoint
+     */
+    public SpringBootActuatorBeansComponentFinderStrategy(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("A file must be specified.");
+        }
+
+        try {
+            this.url = file.toURI().toURL();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Creates a new strategy that reads the beans from the specified URL.
+     *
+     * @param url   the URL of the actuator beans endpoint, or of a copy of the JSON it returns
+     */
+    public SpringBootActuatorBeansComponentFinderStrategy(URL url) {
+        if (url == null) {
+            throw new IllegalArgumentException("A URL must be specified.");
+        }
+
+        this.url = url;
+    }
+
+    @Override
+    public void setComponentFinder(ComponentFinder componentFinder) {
+        this.componentFinder = componentFinder;
+    }
+
+    @Override
+    public void beforeFindComponents() throws Exception {
+        beansByName.clear();
+
+        try (InputStream in = url.openStream()) {
+            parse(in);
+        }
+    }
+
+    @Override
+    public Set<Component> findComponents() throws Exception {
+        Container container = componentFinder.getContainer();
+
+        for (Bean bean : beansByName.values()) {
+            if (bean.type == null || !accepts(bean.type)) {
+                continue;
+            }
+
+            Component component = container.getComponentOfType(bean.type);
+            if (component == null) {
+                String name = bean.type.substring(bean.type.lastIndexOf('.') + 1);
+                component = addComponent(container, name, bean.type, "", SPRING_BEAN);
+            }
+
+            if (component != null) {
+                componentsFound.add(component);
+            }
+        }
+
+        return componentsFound;
+    }
+
+    @Override
+    public void discardComponents(Set<Component> components) {
+        componentsFound.removeAll(components);
+    }
+
+    @Override
+    public void afterFindComponents() throws Exception {
+        Container container = componentFinder.getContainer();
+
+        for (Bean bean : beansByName.values()) {
+            if (bean.type == null) {
+                continue;
+            }
+
+            Component source = container.getComponentOfType(bean.type);
+            if (source == null) {
+                continue;
+            }
+
+            for (String dependency : bean.dependencies) {
+                Bean destinationBean = beansByName.get(dependency);
+                if (destinationBean != null && destinationBean.type != null) {
+                    Component destination = container.getComponentOfType(destinationBean.type);
+                    if (destination != null && destination != source) {
+                        source.uses(destination, "");
+                    }
+                }
+            }
+        }
+    }
+
+    public DuplicateComponentStrategy getDuplicateComponentStrategy() {
+        return duplicateComponentStrategy;
+    }
+
+    public void setDuplicateComponentStrategy(DuplicateComponentStrategy duplicateComponentStrategy) {
+        if (duplicateComponentStrategy != null) {
+            this.duplicateComponentStrategy = duplicateComponentStrategy;
+        } else {
+            this.duplicateComponentStrategy = new ThrowExceptionDuplicateComponentStrategy();
+        }
+    }
+
+    private Component addComponent(Container container, String name, String type, String description, String technology) {
+        if (container.getComponentWithName(name) == null) {
+            return container.addComponent(name, type, description, technology);
+        } else {
+            return duplicateComponentStrategy.duplicateComponentFound(container.getComponentWithName(name), name, type, description, technology);
+        }
+    }
+
+    private boolean accepts(String type) {
+        boolean inPackage = false;
+        for (String packageName : componentFinder.getPackageNames()) {
+            if (type.startsWith(packageName)) {
+                inPackage = true;
+                break;
+            }
+        }
+
+        if (!inPackage) {
+            return false;
+        }
+
+        for (Pattern exclusion : componentFinder.getExclusions()) {
+            if (exclusion.matcher(type).matches()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void parse(InputStream in) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                // Spring Boot 1.x: [ { "context": "...", "beans": [ { "bean": "...", ... } ] } ]
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        JsonToken value = parser.nextToken();
+                        if ("beans".equals(field) && value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                addBean(parseBean(parser, null));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                // Spring Boot 2.x: { "contexts": { "<id>": { "beans": { "<name>": { ... } } } } }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("contexts".equals(field) && value == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                                parseContext(parser);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                log.warn("The actuator beans JSON at " + url + " could not be understood ... ignoring.");
+            }
+        }
+    }
+
+    private void parseContext(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("beans".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        addBean(parseBean(parser, name));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private Bean parseBean(JsonParser parser, String name) throws IOException {
+        Bean bean = new Bean();
+        bean.name = name;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("bean".equals(field) && value == JsonToken.VALUE_STRING) {
+                bean.name = parser.getText();
+            } else if ("type".equals(field) && value == JsonToken.VALUE_STRING) {
+                bean.type = toCanonicalName(parser.getText());
+            } else if ("dependencies".equals(field) && value == JsonToken.START_ARRAY) {
+                bean.dependencies = readStrings(parser);
+            } else if ("aliases".equals(field) && value == JsonToken.START_ARRAY) {
+                bean.aliases = readStrings(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return bean;
+    }
+
+    private List<String> readStrings(JsonParser parser) throws IOException {
+        List<String> strings = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+                strings.add(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return strings;
+    }
+
+    private void addBean(Bean bean) {
+        if (bean.name == null) {
+            return;
+        }
+
+        beansByName.put(bean.name, bean);
+        for (String alias : bean.aliases) {
+            beansByName.putIfAbsent(alias, bean);
+        }
+    }
+
+    /**
+     * Converts a binary type name (e.g. "com.example.Foo$$EnhancerBySpringCGLIB$$1234" or "com.example.Outer$Inner")
+     * into the canonical name of the underlying type.
+     */
+    static String toCanonicalName(String type) {
+        int index = type.indexOf(CGLIB_SEPARATOR);
+        if (index > -1) {
+            type = type.substring(0, index);
+        }
+
+        return type.replace('$', '.');
+    }
+
+    private static final class Bean {
+
+        private String name;
+        private String type;
+        private List<String> aliases = Collections.emptyList();
+        private List<String> dependencies = Collections.emptyList();
+
+    }
+
+}
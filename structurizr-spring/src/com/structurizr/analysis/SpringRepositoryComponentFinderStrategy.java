@@ -34,8 +34,7 @@ public final class SpringRepositoryComponentFinderStrategy extends AbstractSprin
         Set<Component> componentsFound = new HashSet<>();
         Set<Class<?>> componentTypes = new HashSet<>();
 
-        Set<Class<?>> types = getTypeRepository().getAllTypes();
-        for (Class<?> type : types) {
+        for (Class<?> type : getTypeRepository().getTypes()) {
             if (type.isInterface()) {
                 if  (
                         Repository.class.isAssignableFrom(type) ||
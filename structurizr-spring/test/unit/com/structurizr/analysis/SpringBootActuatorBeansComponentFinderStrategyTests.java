@@ -0,0 +1,92 @@
+package com.structurizr.analysis;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Component;
+import com.structurizr.model.Container;
+import com.structurizr.model.Model;
+import com.structurizr.model.SoftwareSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class SpringBootActuatorBeansComponentFinderStrategyTests {
+
+    private static final File PATH = new File("./test/unit/com/structurizr/analysis/actuator/");
+
+    private Container container;
+
+    @Before
+    public void setUp() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Model model = workspace.getModel();
+        SoftwareSystem softwareSystem = model.addSoftwareSystem("Name", "Description");
+        container = softwareSystem.addContainer("Name", "Description", "Technology");
+    }
+
+    @Test
+    public void test_construction_ThrowsAnException_WhenANullFileIsSpecified() {
+        try {
+            new SpringBootActuatorBeansComponentFinderStrategy((File)null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("A file must be specified.", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_findComponents_FindsComponentsAndDependencies_WhenUsingTheSpringBoot2Format() throws Exception {
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "com.mycompany.myapp",
+                new SpringBootActuatorBeansComponentFinderStrategy(new File(PATH, "beans-boot2.json"))
+        );
+        componentFinder.findComponents();
+
+        assertEquals(3, container.getComponents().size());
+
+        Component someController = container.getComponentWithName("SomeController");
+        assertEquals("com.mycompany.myapp.web.SomeController", someController.getType().getType());
+        assertEquals("Spring Bean", someController.getTechnology());
+
+        Component someServiceImpl = container.getComponentWithName("SomeServiceImpl");
+        assertEquals("com.mycompany.myapp.service.SomeServiceImpl", someServiceImpl.getType().getType());
+
+        Component someRepository = container.getComponentWithName("SomeRepository");
+
+        assertEquals(1, someController.getRelationships().size());
+        assertTrue(someController.hasEfferentRelationshipWith(someServiceImpl));
+        assertTrue(someServiceImpl.hasEfferentRelationshipWith(someRepository));
+        assertTrue(someRepository.hasEfferentRelationshipWith(someServiceImpl));
+    }
+
+    @Test
+    public void test_findComponents_FindsComponentsAndDependencies_WhenUsingTheSpringBoot1Format() throws Exception {
+        ComponentFinder componentFinder = new ComponentFinder(
+                container,
+                "com.mycompany.myapp",
+                new SpringBootActuatorBeansComponentFinderStrategy(new File(PATH, "beans-boot1.json"))
+        );
+        componentFinder.exclude(".*Filter");
+        componentFinder.findComponents();
+
+        assertEquals(2, container.getComponents().size());
+
+        Component someController = container.getComponentWithName("SomeController");
+        Component someService = container.getComponentWithName("SomeService");
+        assertNull(container.getComponentWithName("SomeFilter"));
+
+        assertTrue(someController.hasEfferentRelationshipWith(someService));
+        assertFalse(someService.hasEfferentRelationshipWith(someController));
+    }
+
+    @Test
+    public void test_toCanonicalName() {
+        assertEquals("com.example.Foo", SpringBootActuatorBeansComponentFinderStrategy.toCanonicalName("com.example.Foo$$EnhancerBySpringCGLIB$$1234"));
+        assertEquals("com.example.Outer.Inner", SpringBootActuatorBeansComponentFinderStrategy.toCanonicalName("com.example.Outer$Inner"));
+        assertEquals("com.example.Foo", SpringBootActuatorBeansComponentFinderStrategy.toCanonicalName("com.example.Foo"));
+    }
+
+}